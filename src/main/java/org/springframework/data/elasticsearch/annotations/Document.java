@@ -17,6 +17,7 @@ package org.springframework.data.elasticsearch.annotations;
 
 import java.lang.annotation.*;
 
+import org.elasticsearch.common.xcontent.XContentType;
 import org.springframework.data.annotation.Persistent;
 
 /**
@@ -48,4 +49,9 @@ public @interface Document {
 	String indexStoreType() default "fs";
 
 	boolean createIndex() default true;
+
+	/**
+	 * Format the _source is sent in, SMILE or CBOR save serialisation time and transport bytes over JSON.
+	 */
+	XContentType sourceEncoding() default XContentType.JSON;
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.annotations;
+
+import java.lang.annotation.*;
+
+import org.springframework.data.annotation.Persistent;
+
+/**
+ * Keep documents fetched by id in a client side near cache. Cached documents are evicted when they are indexed,
+ * updated or deleted through the same template.
+ */
+@Persistent
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface NearCache {
+
+	/**
+	 * Maximum number of documents kept in the cache.
+	 */
+	long maximumSize() default 1000;
+
+	/**
+	 * Time in milliseconds a cached document is kept.
+	 */
+	long timeToLive() default 60000;
+
+	/**
+	 * Revalidate cached documents with a lightweight get returning only the document version, instead of trusting the
+	 * cache until the time to live has elapsed.
+	 */
+	boolean revalidate() default false;
+}
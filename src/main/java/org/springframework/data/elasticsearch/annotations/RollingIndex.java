@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.annotations;
+
+import java.lang.annotation.*;
+
+import org.springframework.data.annotation.Persistent;
+
+/**
+ * Partition the documents of an entity into one index per period of the annotated timestamp property, named after the
+ * index name of the {@link Document} followed by the period, e.g. {@code events-2016.03.21}. The index name of the
+ * document becomes an alias of all its indices, added by an index template when an index is created.
+ * <p>
+ * Searches and counts of {@link org.springframework.data.elasticsearch.core.query.CriteriaQuery criteria queries}
+ * that bound the timestamp property only target the indices of the periods in range. The property may be a
+ * {@link java.util.Date}, a {@link java.util.Calendar} or a number of milliseconds since the epoch.
+ * <p>
+ * The template remembers the index of the documents it wrote recently, other documents are looked up by id through
+ * the alias, so only once refreshed. When an entity is indexed again with a timestamp of another period, the copy left
+ * in the index of the former period is deleted if it was written recently or refreshed; streamed bulk indexing does not
+ * look for such copies.
+ */
+@Persistent
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface RollingIndex {
+
+	IndexPeriod period() default IndexPeriod.DAY;
+
+	/**
+	 * Time zone the periods start in.
+	 */
+	String timeZone() default "UTC";
+}
@@ -18,9 +18,14 @@ package org.springframework.data.elasticsearch.client;
 import static org.apache.commons.lang.StringUtils.*;
 import static org.elasticsearch.common.settings.ImmutableSettings.*;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.settings.ImmutableSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.slf4j.Logger;
@@ -32,6 +37,10 @@ import org.springframework.util.Assert;
 
 /**
  * TransportClientFactoryBean
+ * <p>
+ * Factory beans configured with the same cluster nodes and settings may share a single client, and with it its
+ * connections and thread pools, when asked to. The shared client is closed when the last factory bean using it is
+ * destroyed.
  *
  * @author Rizwan Idrees
  * @author Mohsin Husen
@@ -42,6 +51,7 @@ import org.springframework.util.Assert;
 public class TransportClientFactoryBean implements FactoryBean<TransportClient>, InitializingBean, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(TransportClientFactoryBean.class);
+	private static final Map<List<Object>, SharedClient> SHARED_CLIENTS = new HashMap<List<Object>, SharedClient>();
 	private String clusterNodes = "127.0.0.1:9300";
 	private String clusterName = "elasticsearch";
 	private Boolean clientTransportSniff = true;
@@ -50,11 +60,24 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 	private String clientNodesSamplerInterval = "5s";
 	private TransportClient client;
 	private Properties properties;
+	private boolean shareClient = false;
+	private Integer connectionsPerNodeRecovery;
+	private Integer connectionsPerNodeBulk;
+	private Integer connectionsPerNodeReg;
+	private Integer connectionsPerNodeState;
+	private Integer connectionsPerNodePing;
+	private Boolean transportCompress;
+	private Boolean tcpKeepAlive;
+	private Integer workerCount;
+	private List<Object> sharedClientKey;
 	static final String COLON = ":";
 	static final String COMMA = ",";
 
 	@Override
 	public void destroy() throws Exception {
+		if (shareClient && !releaseSharedClient()) {
+			return;
+		}
 		try {
 			logger.info("Closing elasticSearch  client");
 			if (client != null) {
@@ -65,6 +88,26 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 		}
 	}
 
+	/**
+	 * @return whether this factory bean was the last one using its shared client, which has to be closed
+	 */
+	private boolean releaseSharedClient() {
+		if (sharedClientKey == null) {
+			// never built or already released
+			return false;
+		}
+		List<Object> key = sharedClientKey;
+		sharedClientKey = null;
+		synchronized (SHARED_CLIENTS) {
+			SharedClient sharedClient = SHARED_CLIENTS.get(key);
+			if (sharedClient == null || --sharedClient.references > 0) {
+				return false;
+			}
+			SHARED_CLIENTS.remove(key);
+			return true;
+		}
+	}
+
 	@Override
 	public TransportClient getObject() throws Exception {
 		return client;
@@ -75,9 +118,14 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 		return TransportClient.class;
 	}
 
+	/**
+	 * The client is built once, in {@link #afterPropertiesSet()}, so every lookup returns the same client whether or not it
+	 * is shared. This factory bean used to report a prototype, which made the container ask it for the client again on
+	 * every lookup without building a new one.
+	 */
 	@Override
 	public boolean isSingleton() {
-		return false;
+		return true;
 	}
 
 	@Override
@@ -86,7 +134,28 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 	}
 
 	protected void buildClient() throws Exception {
-		client = new TransportClient(settings());
+		Settings settings = settings();
+		if (!shareClient) {
+			client = createClient(settings);
+			return;
+		}
+		List<Object> key = Arrays.<Object> asList(clusterNodes, settings.getAsMap());
+		synchronized (SHARED_CLIENTS) {
+			SharedClient sharedClient = SHARED_CLIENTS.get(key);
+			if (sharedClient == null) {
+				sharedClient = new SharedClient(createClient(settings));
+				SHARED_CLIENTS.put(key, sharedClient);
+			} else {
+				logger.info("sharing the transport client of cluster nodes : " + clusterNodes);
+			}
+			sharedClient.references++;
+			client = sharedClient.client;
+			sharedClientKey = key;
+		}
+	}
+
+	private TransportClient createClient(Settings settings) {
+		TransportClient client = new TransportClient(settings);
 		Assert.hasText(clusterNodes, "[Assertion failed] clusterNodes settings missing.");
 		for (String clusterNode : split(clusterNodes, COMMA)) {
 			String hostName = substringBefore(clusterNode, COLON);
@@ -97,19 +166,35 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 			client.addTransportAddress(new InetSocketTransportAddress(hostName, Integer.valueOf(port)));
 		}
 		client.connectedNodes();
+		return client;
 	}
 
 	private Settings settings() {
+		ImmutableSettings.Builder builder = settingsBuilder();
 		if (properties != null) {
-			return settingsBuilder().put(properties).build();
+			builder.put(properties);
+		} else {
+			builder.put("cluster.name", clusterName)
+					.put("client.transport.sniff", clientTransportSniff)
+					.put("client.transport.ignore_cluster_name", clientIgnoreClusterName)
+					.put("client.transport.ping_timeout", clientPingTimeout)
+					.put("client.transport.nodes_sampler_interval", clientNodesSamplerInterval);
+		}
+		putIfSet(builder, "transport.connections_per_node.recovery", connectionsPerNodeRecovery);
+		putIfSet(builder, "transport.connections_per_node.bulk", connectionsPerNodeBulk);
+		putIfSet(builder, "transport.connections_per_node.reg", connectionsPerNodeReg);
+		putIfSet(builder, "transport.connections_per_node.state", connectionsPerNodeState);
+		putIfSet(builder, "transport.connections_per_node.ping", connectionsPerNodePing);
+		putIfSet(builder, "transport.tcp.compress", transportCompress);
+		putIfSet(builder, "network.tcp.keep_alive", tcpKeepAlive);
+		putIfSet(builder, "transport.netty.worker_count", workerCount);
+		return builder.build();
+	}
+
+	private void putIfSet(ImmutableSettings.Builder builder, String setting, Object value) {
+		if (value != null) {
+			builder.put(setting, String.valueOf(value));
 		}
-		return settingsBuilder()
-				.put("cluster.name", clusterName)
-				.put("client.transport.sniff", clientTransportSniff)
-				.put("client.transport.ignore_cluster_name", clientIgnoreClusterName)
-				.put("client.transport.ping_timeout", clientPingTimeout)
-				.put("client.transport.nodes_sampler_interval", clientNodesSamplerInterval)
-				.build();
 	}
 
 	public void setClusterNodes(String clusterNodes) {
@@ -148,7 +233,86 @@ public class TransportClientFactoryBean implements FactoryBean<TransportClient>,
 		this.clientIgnoreClusterName = clientIgnoreClusterName;
 	}
 
+	/**
+	 * @param properties the settings of the client, used instead of the cluster name and client transport settings of
+	 *          this factory bean. The connection and network settings set on it still apply on top of them
+	 */
 	public void setProperties(Properties properties) {
 		this.properties = properties;
 	}
+
+	/**
+	 * @param shareClient whether to share the client with the other factory beans configured with the same cluster nodes
+	 *          and settings, {@literal false} by default
+	 */
+	public void setShareClient(boolean shareClient) {
+		this.shareClient = shareClient;
+	}
+
+	/**
+	 * @param connectionsPerNodeRecovery the number of connections opened to every node for recoveries
+	 */
+	public void setConnectionsPerNodeRecovery(Integer connectionsPerNodeRecovery) {
+		this.connectionsPerNodeRecovery = connectionsPerNodeRecovery;
+	}
+
+	/**
+	 * @param connectionsPerNodeBulk the number of connections opened to every node for bulk requests
+	 */
+	public void setConnectionsPerNodeBulk(Integer connectionsPerNodeBulk) {
+		this.connectionsPerNodeBulk = connectionsPerNodeBulk;
+	}
+
+	/**
+	 * @param connectionsPerNodeReg the number of connections opened to every node for other requests, such as searches
+	 *          and gets
+	 */
+	public void setConnectionsPerNodeReg(Integer connectionsPerNodeReg) {
+		this.connectionsPerNodeReg = connectionsPerNodeReg;
+	}
+
+	/**
+	 * @param connectionsPerNodeState the number of connections opened to every node for cluster state requests
+	 */
+	public void setConnectionsPerNodeState(Integer connectionsPerNodeState) {
+		this.connectionsPerNodeState = connectionsPerNodeState;
+	}
+
+	/**
+	 * @param connectionsPerNodePing the number of connections opened to every node for pings
+	 */
+	public void setConnectionsPerNodePing(Integer connectionsPerNodePing) {
+		this.connectionsPerNodePing = connectionsPerNodePing;
+	}
+
+	/**
+	 * @param transportCompress whether to compress the requests sent to the nodes
+	 */
+	public void setTransportCompress(Boolean transportCompress) {
+		this.transportCompress = transportCompress;
+	}
+
+	/**
+	 * @param tcpKeepAlive whether to enable TCP keep alive on the connections to the nodes
+	 */
+	public void setTcpKeepAlive(Boolean tcpKeepAlive) {
+		this.tcpKeepAlive = tcpKeepAlive;
+	}
+
+	/**
+	 * @param workerCount the number of threads handling the network traffic of the client
+	 */
+	public void setWorkerCount(Integer workerCount) {
+		this.workerCount = workerCount;
+	}
+
+	private static class SharedClient {
+
+		private final TransportClient client;
+		private int references;
+
+		SharedClient(TransportClient client) {
+			this.client = client;
+		}
+	}
 }
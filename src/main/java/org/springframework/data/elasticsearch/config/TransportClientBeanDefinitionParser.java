@@ -20,6 +20,7 @@ import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.AbstractBeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.data.elasticsearch.client.TransportClientFactoryBean;
+import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
 /**
@@ -45,6 +46,22 @@ public class TransportClientBeanDefinitionParser extends AbstractBeanDefinitionP
 		builder.addPropertyValue("clientIgnoreClusterName", Boolean.valueOf(element.getAttribute("client-transport-ignore-cluster-name")));
 		builder.addPropertyValue("clientPingTimeout", element.getAttribute("client-transport-ping-timeout"));
 		builder.addPropertyValue("clientNodesSamplerInterval", element.getAttribute("client-transport-nodes-sampler-interval"));
+		builder.addPropertyValue("shareClient", Boolean.valueOf(element.getAttribute("share-client")));
+		setOptionalConfiguration(element, builder, "connections-per-node-recovery", "connectionsPerNodeRecovery");
+		setOptionalConfiguration(element, builder, "connections-per-node-bulk", "connectionsPerNodeBulk");
+		setOptionalConfiguration(element, builder, "connections-per-node-reg", "connectionsPerNodeReg");
+		setOptionalConfiguration(element, builder, "connections-per-node-state", "connectionsPerNodeState");
+		setOptionalConfiguration(element, builder, "connections-per-node-ping", "connectionsPerNodePing");
+		setOptionalConfiguration(element, builder, "transport-compress", "transportCompress");
+		setOptionalConfiguration(element, builder, "tcp-keep-alive", "tcpKeepAlive");
+		setOptionalConfiguration(element, builder, "worker-count", "workerCount");
+	}
+
+	private void setOptionalConfiguration(Element element, BeanDefinitionBuilder builder, String attribute,
+			String property) {
+		if (StringUtils.hasText(element.getAttribute(attribute))) {
+			builder.addPropertyValue(property, element.getAttribute(attribute));
+		}
 	}
 
 	private AbstractBeanDefinition getSourcedBeanDefinition(BeanDefinitionBuilder builder, Element source,
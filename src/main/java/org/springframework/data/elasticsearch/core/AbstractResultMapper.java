@@ -19,6 +19,10 @@ import static org.apache.commons.lang.StringUtils.*;
 
 import java.io.IOException;
 
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.springframework.data.elasticsearch.ElasticsearchException;
 
 /**
@@ -43,6 +47,29 @@ public abstract class AbstractResultMapper implements ResultsMapper {
 		}
 	}
 
+	/**
+	 * @param source
+	 * @return whether the source is in a binary format the entity mapper can read directly
+	 */
+	protected boolean isBinarySource(BytesReference source) {
+		return source != null && source.length() > 0 && entityMapper instanceof XContentEntityMapper
+				&& XContentFactory.xContentType(source) != XContentType.JSON;
+	}
+
+	public <T> T mapEntity(BytesReference source, Class<T> clazz) {
+		if (source == null || source.length() == 0) {
+			return null;
+		}
+		try {
+			if (entityMapper instanceof XContentEntityMapper) {
+				return ((XContentEntityMapper) entityMapper).mapToObject(source, clazz);
+			}
+			return entityMapper.mapToObject(XContentHelper.convertToJson(source, false), clazz);
+		} catch (IOException e) {
+			throw new ElasticsearchException("failed to map source to class " + clazz.getSimpleName(), e);
+		}
+	}
+
 	@Override
 	public EntityMapper getEntityMapper() {
 		return this.entityMapper;
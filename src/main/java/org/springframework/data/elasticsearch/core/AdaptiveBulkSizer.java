@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import org.springframework.util.Assert;
+
+/**
+ * Tunes the number of documents per bulk request and the number of bulk requests in flight of a streamed bulk index
+ * from the responses it gets, additive increase / multiplicative decrease style: both grow slowly while requests are
+ * served within {@code targetTookInMillis}, and are halved as soon as a node rejects work or requests get slower than
+ * that. A bulk request is also cut once it reaches {@code maxBulkSizeInBytes}, whatever the number of documents.
+ * <p>
+ * A sizer keeps what it learned between two streamed bulk indexes, so it can be shared by successive loads of the same
+ * index. Its getters expose the current settings and the observed latencies.
+ */
+public class AdaptiveBulkSizer {
+
+	public static final long DEFAULT_TARGET_TOOK_IN_MILLIS = 1000;
+	public static final long DEFAULT_MAX_BULK_SIZE_IN_BYTES = 10 * 1024 * 1024;
+
+	private static final double WEIGHT = 0.2;
+
+	private final int minBulkSize;
+	private final int maxBulkSize;
+	private final int minConcurrentRequests;
+	private final int maxConcurrentRequests;
+	private final long targetTookInMillis;
+	private long maxBulkSizeInBytes = DEFAULT_MAX_BULK_SIZE_IN_BYTES;
+
+	private int bulkSize;
+	private int concurrentRequests;
+	private long bulkCount;
+	private long rejectedBulkCount;
+	private long lastTookInMillis;
+	private double averageTookInMillis;
+	private double averageSizeInBytes;
+
+	public AdaptiveBulkSizer(int minBulkSize, int maxBulkSize, int minConcurrentRequests, int maxConcurrentRequests) {
+		this(minBulkSize, maxBulkSize, minConcurrentRequests, maxConcurrentRequests, DEFAULT_TARGET_TOOK_IN_MILLIS);
+	}
+
+	public AdaptiveBulkSizer(int minBulkSize, int maxBulkSize, int minConcurrentRequests, int maxConcurrentRequests,
+			long targetTookInMillis) {
+		Assert.isTrue(minBulkSize > 0, "minBulkSize must be greater than 0");
+		Assert.isTrue(maxBulkSize >= minBulkSize, "maxBulkSize must not be less than minBulkSize");
+		Assert.isTrue(minConcurrentRequests > 0, "minConcurrentRequests must be greater than 0");
+		Assert.isTrue(maxConcurrentRequests >= minConcurrentRequests,
+				"maxConcurrentRequests must not be less than minConcurrentRequests");
+		Assert.isTrue(targetTookInMillis > 0, "targetTookInMillis must be greater than 0");
+		this.minBulkSize = minBulkSize;
+		this.maxBulkSize = maxBulkSize;
+		this.minConcurrentRequests = minConcurrentRequests;
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		this.targetTookInMillis = targetTookInMillis;
+		this.bulkSize = minBulkSize;
+		this.concurrentRequests = minConcurrentRequests;
+	}
+
+	/**
+	 * @return a sizer that never changes the given settings, only cutting requests at {@code maxBulkSizeInBytes}
+	 */
+	public static AdaptiveBulkSizer fixed(int bulkSize, int concurrentRequests) {
+		return new AdaptiveBulkSizer(bulkSize, bulkSize, concurrentRequests, concurrentRequests, Long.MAX_VALUE);
+	}
+
+	public synchronized void setMaxBulkSizeInBytes(long maxBulkSizeInBytes) {
+		Assert.isTrue(maxBulkSizeInBytes > 0, "maxBulkSizeInBytes must be greater than 0");
+		this.maxBulkSizeInBytes = maxBulkSizeInBytes;
+	}
+
+	/**
+	 * @param numberOfActions the number of documents sent
+	 * @param sizeInBytes the estimated size of the request
+	 * @param tookInMillis the time the cluster took to handle the request
+	 * @param rejected whether a node rejected some of the documents, even if a retry later succeeded
+	 */
+	public synchronized void onBulkResponse(int numberOfActions, long sizeInBytes, long tookInMillis, boolean rejected) {
+		bulkCount++;
+		lastTookInMillis = tookInMillis;
+		averageTookInMillis = bulkCount == 1 ? tookInMillis : average(averageTookInMillis, tookInMillis);
+		averageSizeInBytes = bulkCount == 1 ? sizeInBytes : average(averageSizeInBytes, sizeInBytes);
+		if (rejected) {
+			rejectedBulkCount++;
+			decreaseConcurrentRequests();
+			decreaseBulkSize();
+		} else if (tookInMillis > targetTookInMillis) {
+			decreaseBulkSize();
+		} else if (numberOfActions >= bulkSize) {
+			// only grow on full requests, the last one of a load says nothing about larger ones
+			if (bulkSize < maxBulkSize && sizeInBytes < maxBulkSizeInBytes) {
+				bulkSize = Math.min(maxBulkSize, bulkSize + minBulkSize);
+			} else if (concurrentRequests < maxConcurrentRequests && tookInMillis <= targetTookInMillis / 2) {
+				concurrentRequests++;
+			}
+		}
+	}
+
+	/**
+	 * @param rejected whether the whole request was rejected by an overloaded node
+	 */
+	public synchronized void onBulkFailure(boolean rejected) {
+		if (rejected) {
+			rejectedBulkCount++;
+			decreaseConcurrentRequests();
+			decreaseBulkSize();
+		}
+	}
+
+	private void decreaseBulkSize() {
+		bulkSize = Math.max(minBulkSize, bulkSize / 2);
+	}
+
+	private void decreaseConcurrentRequests() {
+		concurrentRequests = Math.max(minConcurrentRequests, concurrentRequests / 2);
+	}
+
+	private static double average(double average, long value) {
+		return average + WEIGHT * (value - average);
+	}
+
+	public synchronized int getBulkSize() {
+		return bulkSize;
+	}
+
+	public synchronized int getConcurrentRequests() {
+		return concurrentRequests;
+	}
+
+	public synchronized long getMaxBulkSizeInBytes() {
+		return maxBulkSizeInBytes;
+	}
+
+	public synchronized long getBulkCount() {
+		return bulkCount;
+	}
+
+	/**
+	 * @return the number of requests a node rejected documents of
+	 */
+	public synchronized long getRejectedBulkCount() {
+		return rejectedBulkCount;
+	}
+
+	public synchronized long getLastTookInMillis() {
+		return lastTookInMillis;
+	}
+
+	/**
+	 * @return the exponentially weighted moving average of the time taken by the cluster to handle a request
+	 */
+	public synchronized long getAverageTookInMillis() {
+		return Math.round(averageTookInMillis);
+	}
+
+	/**
+	 * @return the exponentially weighted moving average of the estimated size of a request
+	 */
+	public synchronized long getAverageSizeInBytes() {
+		return Math.round(averageSizeInBytes);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "AdaptiveBulkSizer{bulkSize=" + bulkSize + ", concurrentRequests=" + concurrentRequests + ", bulkCount="
+				+ bulkCount + ", rejectedBulkCount=" + rejectedBulkCount + ", averageTookInMillis="
+				+ getAverageTookInMillis() + "}";
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
+import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHitField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+
+/**
+ * Rebuilds the index behind an alias without downtime: a new index named after the alias and the current time is
+ * created with the given settings and mapping, the documents of the indices the alias points to are copied into it by
+ * scrolling them while bulk requests are in flight, then the alias is moved to the new index in a single aliases
+ * request.
+ * <p>
+ * Documents keep their versions, as external versions, so that catching up only writes again the documents that changed
+ * since they were copied, the others conflict and are skipped. When the type has {@code _timestamp} enabled, the copy
+ * is followed by two catch-up passes that only read the documents timestamped since the previous pass started, less a
+ * margin for clock skew and writes in flight. The old indices are made read-only, with {@code index.blocks.write},
+ * before the last one, so that no write lands on them after it read them: writes sent to the alias during that short
+ * last pass and until the alias moved are rejected rather than lost. Without {@code _timestamp}, or without catching
+ * up, the old indices are read-only for the whole copy. The block is lifted again if the reindex fails, and kept on old
+ * indices that are not deleted. Documents deleted during the copy are not caught up. When the alias name is still used by a concrete index, that index has to
+ * be deleted before the alias can be added, which leaves a short window without the alias.
+ */
+class AliasReindexer {
+
+	private static final Logger logger = LoggerFactory.getLogger(AliasReindexer.class);
+	private static final String WRITE_BLOCK = "index.blocks.write";
+	private static final long CATCH_UP_MARGIN = TimeUnit.MINUTES.toMillis(1);
+
+	private final ElasticsearchTemplate elasticsearchOperations;
+	private final Client client;
+	private final ReindexOptions options;
+
+	AliasReindexer(ElasticsearchTemplate elasticsearchOperations, Client client, ReindexOptions options) {
+		this.elasticsearchOperations = elasticsearchOperations;
+		this.client = client;
+		this.options = options;
+	}
+
+	String reindex(String aliasName, String type, Object settings, Object mapping) {
+		Set<String> oldIndices = getIndicesOf(aliasName);
+		boolean concreteIndex = oldIndices.isEmpty() && elasticsearchOperations.indexExists(aliasName);
+		if (concreteIndex) {
+			oldIndices = Collections.singleton(aliasName);
+		}
+		String newIndex = aliasName + "_" + new SimpleDateFormat("yyyyMMddHHmmssSSS").format(new Date());
+		elasticsearchOperations.createIndex(newIndex, settings);
+		try {
+			elasticsearchOperations.putMapping(newIndex, type, mapping);
+			if (!oldIndices.isEmpty()) {
+				copy(oldIndices, type, newIndex);
+			}
+		} catch (RuntimeException e) {
+			unblockWrites(oldIndices);
+			elasticsearchOperations.deleteIndex(newIndex);
+			throw e;
+		}
+		try {
+			swap(aliasName, oldIndices, concreteIndex, newIndex);
+		} catch (RuntimeException e) {
+			// once a concrete index was deleted, the new index holds the only copy of its documents
+			if (!concreteIndex || elasticsearchOperations.indexExists(aliasName)) {
+				unblockWrites(oldIndices);
+			}
+			throw e;
+		}
+		if (options.isDeleteOldIndices() && !concreteIndex) {
+			for (String oldIndex : oldIndices) {
+				elasticsearchOperations.deleteIndex(oldIndex);
+			}
+		}
+		return newIndex;
+	}
+
+	private Set<String> getIndicesOf(String aliasName) {
+		Set<String> indices = new LinkedHashSet<String>();
+		Iterator<String> keys = client.admin().indices().prepareGetAliases(aliasName).execute().actionGet().getAliases()
+				.keysIt();
+		while (keys.hasNext()) {
+			indices.add(keys.next());
+		}
+		return indices;
+	}
+
+	private void copy(Set<String> oldIndices, String type, String newIndex) {
+		BulkLoadSession session = options.isBulkLoad() ? elasticsearchOperations.startBulkLoad(newIndex) : null;
+		try {
+			AdaptiveBulkSizer bulkSizer = options.getBulkSizer();
+			boolean catchUp = options.isCatchUp() && hasTimestamps(oldIndices, type);
+			if (catchUp) {
+				refresh(oldIndices);
+			} else {
+				if (options.isCatchUp()) {
+					logger.warn("[" + type + "] has no _timestamp in " + oldIndices
+							+ " to catch up with, they are read-only for the whole copy");
+				}
+				blockWrites(oldIndices);
+			}
+			long copyStart = System.currentTimeMillis();
+			BulkIndexResult result = copy(oldIndices, type, newIndex, matchAllQuery(), bulkSizer, false);
+			logger.info("Copied " + result.getSuccessCount() + " documents from " + oldIndices + " to [" + newIndex + "]");
+			if (catchUp) {
+				long catchUpStart = System.currentTimeMillis();
+				refresh(oldIndices);
+				result = copy(oldIndices, type, newIndex, changedSince(copyStart), bulkSizer, true);
+				logger.info("Caught up " + result.getSuccessCount() + " documents changed during the copy to [" + newIndex
+						+ "]");
+				blockWrites(oldIndices);
+				result = copy(oldIndices, type, newIndex, changedSince(catchUpStart), bulkSizer, true);
+				logger.info("Caught up " + result.getSuccessCount() + " documents changed during the catch-up to ["
+						+ newIndex + "]");
+			}
+		} finally {
+			if (session != null) {
+				session.close();
+			} else {
+				elasticsearchOperations.refresh(newIndex, true);
+			}
+		}
+	}
+
+	private BulkIndexResult copy(Set<String> oldIndices, String type, String newIndex, QueryBuilder query,
+			AdaptiveBulkSizer bulkSizer, boolean catchUp) {
+		// documents that did not change since they were copied conflict with their copy
+		BulkIndexResult result = elasticsearchOperations.bulkIndex(new ScrollingIterator(oldIndices, type, newIndex,
+				query), bulkSizer, new BulkIndexResult(catchUp));
+		checkForFailures(result.getFailedDocuments(), result.getRejectedDocuments());
+		return result;
+	}
+
+	private static QueryBuilder changedSince(long time) {
+		return rangeQuery("_timestamp").gte(time - CATCH_UP_MARGIN);
+	}
+
+	private boolean hasTimestamps(Set<String> indices, String type) {
+		GetMappingsResponse response = client.admin().indices()
+				.prepareGetMappings(indices.toArray(new String[indices.size()])).setTypes(type).execute().actionGet();
+		for (String index : indices) {
+			ImmutableOpenMap<String, MappingMetaData> mappings = response.getMappings().get(index);
+			MappingMetaData mapping = mappings != null ? mappings.get(type) : null;
+			if (mapping == null || !mapping.timestamp().enabled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void blockWrites(Set<String> indices) {
+		setWriteBlock(indices, true);
+		// let the last pass see every write that made it in before the block
+		refresh(indices);
+	}
+
+	private void refresh(Set<String> indices) {
+		client.admin().indices().prepareRefresh(indices.toArray(new String[indices.size()])).execute().actionGet();
+	}
+
+	private void unblockWrites(Set<String> indices) {
+		if (indices.isEmpty()) {
+			return;
+		}
+		try {
+			setWriteBlock(indices, false);
+		} catch (RuntimeException e) {
+			logger.error("Failed to make " + indices + " writable again, reset [" + WRITE_BLOCK + "] on them", e);
+		}
+	}
+
+	private void setWriteBlock(Set<String> indices, boolean block) {
+		client.admin().indices().prepareUpdateSettings(indices.toArray(new String[indices.size()]))
+				.setSettings(ImmutableSettings.settingsBuilder().put(WRITE_BLOCK, block)).execute().actionGet();
+	}
+
+	private void checkForFailures(Map<String, String> failures, Map<String, String> rejections) {
+		Map<String, String> failedDocuments = new HashMap<String, String>(rejections);
+		failedDocuments.putAll(failures);
+		if (!failedDocuments.isEmpty()) {
+			throw new ElasticsearchException(
+					"Reindexing has failures. Use ElasticsearchException.getFailedDocuments() for detailed messages ["
+							+ failedDocuments + "]", failedDocuments);
+		}
+	}
+
+	private void swap(String aliasName, Set<String> oldIndices, boolean concreteIndex, String newIndex) {
+		if (concreteIndex) {
+			logger.warn("[" + aliasName + "] is an index, deleting it before adding an alias with the same name");
+			elasticsearchOperations.deleteIndex(aliasName);
+		}
+		IndicesAliasesRequestBuilder aliasesRequest = client.admin().indices().prepareAliases();
+		if (!concreteIndex) {
+			for (String oldIndex : oldIndices) {
+				aliasesRequest.removeAlias(oldIndex, aliasName);
+			}
+		}
+		aliasesRequest.addAlias(newIndex, aliasName);
+		aliasesRequest.execute().actionGet();
+		elasticsearchOperations.refresh(aliasName, true);
+	}
+
+	/**
+	 * Reads the documents of the old indices page by page, only asking for the next page once the current one has been
+	 * turned into index queries.
+	 */
+	private class ScrollingIterator implements Iterator<IndexQuery> {
+
+		private final String newIndex;
+		private final TimeValue keepAlive = TimeValue.timeValueMillis(options.getScrollTimeInMillis());
+		private String scrollId;
+		private Iterator<SearchHit> hits = Collections.<SearchHit> emptyList().iterator();
+
+		ScrollingIterator(Set<String> oldIndices, String type, String newIndex, QueryBuilder query) {
+			this.newIndex = newIndex;
+			this.scrollId = client.prepareSearch(oldIndices.toArray(new String[oldIndices.size()])).setTypes(type)
+					.setSearchType(SearchType.SCAN).setQuery(query).setSize(options.getScrollSize())
+					.setScroll(keepAlive).setVersion(true).setFetchSource(true).addFields("_parent", "_routing").execute()
+					.actionGet().getScrollId();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!hits.hasNext() && scrollId != null) {
+				SearchResponse response = client.prepareSearchScroll(scrollId).setScroll(keepAlive).execute().actionGet();
+				SearchHit[] page = response.getHits().getHits();
+				if (page.length == 0) {
+					client.prepareClearScroll().addScrollId(response.getScrollId()).execute().actionGet();
+					scrollId = null;
+				} else {
+					scrollId = response.getScrollId();
+					hits = Arrays.asList(page).iterator();
+				}
+			}
+			return hits.hasNext();
+		}
+
+		@Override
+		public IndexQuery next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			SearchHit hit = hits.next();
+			IndexQuery query = new IndexQuery();
+			query.setIndexName(newIndex);
+			query.setType(hit.getType());
+			query.setId(hit.getId());
+			// copied as is, whatever its content type
+			query.setSourceRef(hit.sourceRef());
+			query.setVersion(hit.getVersion());
+			SearchHitField parent = hit.field("_parent");
+			if (parent != null) {
+				query.setParentId(String.valueOf(parent.getValue()));
+			}
+			SearchHitField routing = hit.field("_routing");
+			if (routing != null) {
+				query.setRouting(String.valueOf(routing.getValue()));
+			}
+			return query;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.elasticsearch.rest.RestStatus;
+
+/**
+ * Summary of a streamed bulk index, counting the documents indexed and keeping the failure message of every document
+ * that could not be indexed. Documents still rejected by overloaded nodes once the {@link BulkRetryPolicy} gave up are
+ * kept apart from permanent failures, as sending them again later may succeed.
+ * <p>
+ * Failures are keyed by document id, the one elasticsearch generated for documents indexed without an id. Documents
+ * whose whole bulk request failed before elasticsearch generated their id are keyed by their position in the stream
+ * instead, such as {@code #42} for the 43rd document, so that they do not collapse into a single entry.
+ * <p>
+ * Where version conflicts are expected, such as when copying documents with external versions a second time, they are
+ * only counted rather than kept as failures.
+ */
+public class BulkIndexResult {
+
+	private long successCount;
+	private int bulkCount;
+	private final Map<String, String> failedDocuments = new LinkedHashMap<String, String>();
+	private final Map<String, String> rejectedDocuments = new LinkedHashMap<String, String>();
+	private final boolean versionConflictsExpected;
+	private long versionConflictCount;
+
+	public BulkIndexResult() {
+		this(false);
+	}
+
+	/**
+	 * @param versionConflictsExpected whether to only count version conflicts rather than keep them as failures
+	 */
+	BulkIndexResult(boolean versionConflictsExpected) {
+		this.versionConflictsExpected = versionConflictsExpected;
+	}
+
+	synchronized void addSuccess() {
+		successCount++;
+	}
+
+	synchronized void addFailure(String id, long position, String failureMessage) {
+		failedDocuments.put(keyOf(id, position), failureMessage);
+	}
+
+	synchronized void addFailure(String id, long position, String failureMessage, RestStatus status) {
+		if (versionConflictsExpected && status == RestStatus.CONFLICT) {
+			versionConflictCount++;
+		} else {
+			addFailure(id, position, failureMessage);
+		}
+	}
+
+	synchronized void addRejection(String id, long position, String failureMessage) {
+		rejectedDocuments.put(keyOf(id, position), failureMessage);
+	}
+
+	static String keyOf(String id, long position) {
+		return id != null ? id : "#" + position;
+	}
+
+	synchronized void addBulk() {
+		bulkCount++;
+	}
+
+	public synchronized long getSuccessCount() {
+		return successCount;
+	}
+
+	public synchronized int getFailureCount() {
+		return failedDocuments.size();
+	}
+
+	/**
+	 * @return the number of bulk requests sent
+	 */
+	public synchronized int getBulkCount() {
+		return bulkCount;
+	}
+
+	public synchronized int getRejectionCount() {
+		return rejectedDocuments.size();
+	}
+
+	/**
+	 * @return the number of expected version conflicts, which are not failures
+	 */
+	public synchronized long getVersionConflictCount() {
+		return versionConflictCount;
+	}
+
+	public synchronized boolean hasFailures() {
+		return !failedDocuments.isEmpty() || !rejectedDocuments.isEmpty();
+	}
+
+	/**
+	 * @return the documents that failed for good, such as on mapping errors or version conflicts
+	 */
+	public synchronized Map<String, String> getFailedDocuments() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, String>(failedDocuments));
+	}
+
+	/**
+	 * @return the documents still rejected by overloaded nodes after all retries
+	 */
+	public synchronized Map<String, String> getRejectedDocuments() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, String>(rejectedDocuments));
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "BulkIndexResult{successCount=" + successCount + ", failureCount=" + failedDocuments.size()
+				+ ", rejectionCount=" + rejectedDocuments.size() + ", versionConflictCount=" + versionConflictCount
+				+ ", bulkCount=" + bulkCount + "}";
+	}
+}
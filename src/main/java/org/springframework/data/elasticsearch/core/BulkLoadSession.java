@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.cache.IndexMetadataCache;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.util.Assert;
+
+/**
+ * Loads an index in bulk with settings that favour ingest over search: no periodic refresh and no replicas by default.
+ * Opening the session remembers the current values of those settings before changing them, closing it puts them back,
+ * refreshes the index and, if asked to, merges its segments. Always close a session in a {@code finally} block.
+ *
+ * <pre>
+ * BulkLoadSession session = elasticsearchTemplate.startBulkLoad(&quot;index&quot;);
+ * try {
+ * 	session.bulkIndex(queries, new AdaptiveBulkSizer(500, 5000, 1, 4));
+ * } finally {
+ * 	session.close();
+ * }
+ * </pre>
+ */
+public class BulkLoadSession implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(BulkLoadSession.class);
+
+	public static final Map<String, String> INGEST_SETTINGS;
+
+	/**
+	 * Values of settings that an index may not report because they were never set on it.
+	 */
+	private static final Map<String, String> DEFAULT_SETTINGS;
+
+	static {
+		Map<String, String> ingestSettings = new LinkedHashMap<String, String>();
+		ingestSettings.put("index.refresh_interval", "-1");
+		ingestSettings.put("index.number_of_replicas", "0");
+		INGEST_SETTINGS = Collections.unmodifiableMap(ingestSettings);
+		Map<String, String> defaultSettings = new HashMap<String, String>();
+		defaultSettings.put("index.refresh_interval", "1s");
+		DEFAULT_SETTINGS = Collections.unmodifiableMap(defaultSettings);
+	}
+
+	private final ElasticsearchOperations elasticsearchOperations;
+	private final Client client;
+	private final String indexName;
+	private final IndexMetadataCache metadataCache;
+	private final Map<String, String> previousSettings = new LinkedHashMap<String, String>();
+	private int maxNumSegments = -1;
+	private boolean closed;
+
+	BulkLoadSession(ElasticsearchOperations elasticsearchOperations, Client client, String indexName,
+			Map<String, String> ingestSettings, IndexMetadataCache metadataCache) {
+		Assert.notNull(elasticsearchOperations, "ElasticsearchOperations must not be null!");
+		Assert.notNull(client, "Client must not be null!");
+		Assert.notNull(indexName, "No index defined for bulk load");
+		Assert.notEmpty(ingestSettings, "Ingest settings must not be empty");
+		this.elasticsearchOperations = elasticsearchOperations;
+		this.client = client;
+		this.indexName = indexName;
+		this.metadataCache = metadataCache;
+		Map currentSettings = elasticsearchOperations.getSetting(indexName);
+		for (String key : ingestSettings.keySet()) {
+			Object value = currentSettings.get(key);
+			if (value == null) {
+				value = DEFAULT_SETTINGS.get(key);
+			}
+			if (value != null) {
+				previousSettings.put(key, String.valueOf(value));
+			} else {
+				logger.warn("No current value for [" + key + "] of index [" + indexName
+						+ "], it will keep its bulk load value once the session is closed");
+			}
+		}
+		try {
+			updateSettings(ingestSettings);
+		} catch (RuntimeException e) {
+			// some indices behind an alias may already have taken the ingest settings
+			restoreSettings();
+			throw e;
+		}
+	}
+
+	public String getIndexName() {
+		return indexName;
+	}
+
+	/**
+	 * @return the settings that will be put back when the session is closed
+	 */
+	public Map<String, String> getPreviousSettings() {
+		return Collections.unmodifiableMap(previousSettings);
+	}
+
+	/**
+	 * Merge the index down to the given number of segments once the session is closed, which speeds searches up on an
+	 * index that will not be written to much anymore.
+	 *
+	 * @param maxNumSegments the number of segments to merge down to, {@code -1} does not merge
+	 */
+	public void setMaxNumSegments(int maxNumSegments) {
+		this.maxNumSegments = maxNumSegments;
+	}
+
+	public void bulkIndex(List<IndexQuery> queries) {
+		assertOpen();
+		elasticsearchOperations.bulkIndex(queries);
+	}
+
+	public BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, int bulkSize, int concurrentRequests) {
+		assertOpen();
+		return elasticsearchOperations.bulkIndex(queries, bulkSize, concurrentRequests);
+	}
+
+	public BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, AdaptiveBulkSizer bulkSizer) {
+		assertOpen();
+		return elasticsearchOperations.bulkIndex(queries, bulkSizer);
+	}
+
+	/**
+	 * Put back the settings the index had when the session was opened, refresh it and merge its segments if
+	 * {@link #setMaxNumSegments(int)} was called. Closing a closed session does nothing.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (!previousSettings.isEmpty()) {
+			updateSettings(previousSettings);
+		}
+		elasticsearchOperations.refresh(indexName, true);
+		if (maxNumSegments > 0) {
+			client.admin().indices().prepareOptimize(indexName).setMaxNumSegments(maxNumSegments).execute().actionGet();
+		}
+	}
+
+	private void updateSettings(Map<String, String> settings) {
+		client.admin().indices().prepareUpdateSettings(indexName)
+				.setSettings(ImmutableSettings.settingsBuilder().put(settings)).execute().actionGet();
+		if (metadataCache != null) {
+			metadataCache.evict(indexName);
+		}
+	}
+
+	private void restoreSettings() {
+		if (previousSettings.isEmpty()) {
+			return;
+		}
+		try {
+			updateSettings(previousSettings);
+		} catch (RuntimeException e) {
+			logger.warn("Failed to put back the settings " + previousSettings + " of index [" + indexName + "]", e);
+		}
+	}
+
+	private void assertOpen() {
+		Assert.state(!closed, "Bulk load session of index [" + indexName + "] is closed");
+	}
+}
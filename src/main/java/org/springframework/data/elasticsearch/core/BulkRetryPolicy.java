@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.Random;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+import org.springframework.util.Assert;
+
+/**
+ * Decides which bulk items are worth sending again and how long to wait before doing so. Only items rejected because a
+ * node was overloaded (its bulk queue was full) are retried, anything else such as a mapping error or a version
+ * conflict is a permanent failure. Delays grow exponentially from {@code initialDelayInMillis} up to
+ * {@code maxDelayInMillis}, with a random half of each delay dropped so that clients rejected together do not come
+ * back together.
+ */
+public class BulkRetryPolicy {
+
+	public static final BulkRetryPolicy NO_RETRY = new BulkRetryPolicy(0, 0, 0);
+
+	private final int maxRetries;
+	private final long initialDelayInMillis;
+	private final long maxDelayInMillis;
+	private final Random random = new Random();
+
+	public BulkRetryPolicy(int maxRetries, long initialDelayInMillis, long maxDelayInMillis) {
+		Assert.isTrue(maxRetries >= 0, "maxRetries must not be negative");
+		Assert.isTrue(initialDelayInMillis >= 0, "initialDelayInMillis must not be negative");
+		Assert.isTrue(maxDelayInMillis >= initialDelayInMillis, "maxDelayInMillis must not be less than initialDelayInMillis");
+		this.maxRetries = maxRetries;
+		this.initialDelayInMillis = initialDelayInMillis;
+		this.maxDelayInMillis = maxDelayInMillis;
+	}
+
+	/**
+	 * @return a policy retrying up to 8 times, starting at 50ms and waiting at most 5s between two attempts
+	 */
+	public static BulkRetryPolicy exponentialBackoff() {
+		return new BulkRetryPolicy(8, 50, 5000);
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * @param retry the number of retries already done, starting at 0
+	 * @return the delay to wait for before the next retry
+	 */
+	public long delayInMillis(int retry) {
+		long delay = initialDelayInMillis << Math.min(retry, 30);
+		if (delay > maxDelayInMillis || delay < 0) {
+			delay = maxDelayInMillis;
+		}
+		long half = delay / 2;
+		return half + (long) (random.nextDouble() * (half + 1));
+	}
+
+	public boolean isRetryable(BulkItemResponse item) {
+		return item.isFailed() && item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS;
+	}
+
+	public boolean isRetryable(Throwable e) {
+		return ExceptionsHelper.unwrapCause(e) instanceof EsRejectedExecutionException;
+	}
+}
@@ -16,7 +16,11 @@
 package org.springframework.data.elasticsearch.core;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -25,9 +29,21 @@ import com.fasterxml.jackson.core.*;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentGenerator;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.beans.BeanUtils;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.core.geo.CustomGeoModule;
 import org.springframework.data.geo.*;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -39,29 +55,240 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 
 
 /**
- * DocumentMapper using jackson
+ * DocumentMapper using jackson. The {@link ObjectReader} and {@link ObjectWriter} of each type are resolved once and
+ * reused, {@link ElasticsearchTemplate} resolves those of the entities of its mapping context on startup. Jackson's afterburner module is only registered when asked for, as it changes how properties are accessed.
+ * Binary sources are streamed between jackson and the elasticsearch {@link XContentType} token by token, without an
+ * intermediate JSON string. Big decimals and integers that do not fit a long cannot be encoded exactly as binary
+ * sources and are rejected rather than rounded.
  *
  * @author Artur Konczak
  * @author Petar Tahchiev
  */
-public class DefaultEntityMapper implements EntityMapper {
+public class DefaultEntityMapper implements MapEntityMapper, XContentEntityMapper {
+
+	private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
 
 	private ObjectMapper objectMapper;
+	private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+	private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
 
 	public DefaultEntityMapper() {
+		this(false);
+	}
+
+	/**
+	 * @param afterburner whether to register jackson's afterburner module, which must then be on the classpath
+	 */
+	public DefaultEntityMapper(boolean afterburner) {
 		objectMapper = new ObjectMapper();
 		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 		objectMapper.configure(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
 		objectMapper.registerModule(new CustomGeoModule());
+		if (afterburner) {
+			ClassLoader classLoader = DefaultEntityMapper.class.getClassLoader();
+			Assert.state(ClassUtils.isPresent(AFTERBURNER_MODULE, classLoader), "Afterburner module " + AFTERBURNER_MODULE
+					+ " is not on the classpath");
+			objectMapper.registerModule((Module) BeanUtils.instantiate(ClassUtils.resolveClassName(AFTERBURNER_MODULE,
+					classLoader)));
+		}
 	}
 
 	@Override
 	public String mapToString(Object object) throws IOException {
-		return objectMapper.writeValueAsString(object);
+		return writerFor(object.getClass()).writeValueAsString(object);
 	}
 
 	@Override
 	public <T> T mapToObject(String source, Class<T> clazz) throws IOException {
-		return objectMapper.readValue(source, clazz);
+		return readerFor(clazz).readValue(source);
+	}
+
+	@Override
+	public <T> T mapToObject(Map<String, Object> values, Class<T> clazz) throws IOException {
+		try {
+			return objectMapper.convertValue(values, clazz);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("failed to map values to " + clazz.getName(), e);
+		}
+	}
+
+	@Override
+	public BytesReference mapToBytes(Object object, XContentType contentType) throws IOException {
+		BytesStreamOutput out = new BytesStreamOutput();
+		mapToStream(object, contentType, out);
+		return out.bytes();
+	}
+
+	@Override
+	public void mapToStream(Object object, XContentType contentType, OutputStream out) throws IOException {
+		if (contentType == XContentType.JSON) {
+			writerFor(object.getClass()).writeValue(out, object);
+			return;
+		}
+		TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+		writerFor(object.getClass()).writeValue(buffer, object);
+		XContentBuilder builder = XContentFactory.contentBuilder(contentType, out);
+		copyTokens(buffer.asParser(), builder.generator());
+		builder.flush();
+	}
+
+	@Override
+	public <T> T mapToObject(BytesReference source, Class<T> clazz) throws IOException {
+		if (XContentFactory.xContentType(source) == XContentType.JSON) {
+			return readerFor(clazz).readValue(source.streamInput());
+		}
+		XContentParser parser = XContentHelper.createParser(source);
+		try {
+			TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+			copyTokens(parser, buffer);
+			return readerFor(clazz).readValue(buffer.asParser());
+		} finally {
+			parser.close();
+		}
+	}
+
+	private static void copyTokens(JsonParser parser, XContentGenerator generator) throws IOException {
+		JsonToken token;
+		while ((token = parser.nextToken()) != null) {
+			switch (token) {
+				case START_OBJECT:
+					generator.writeStartObject();
+					break;
+				case END_OBJECT:
+					generator.writeEndObject();
+					break;
+				case START_ARRAY:
+					generator.writeStartArray();
+					break;
+				case END_ARRAY:
+					generator.writeEndArray();
+					break;
+				case FIELD_NAME:
+					generator.writeFieldName(parser.getCurrentName());
+					break;
+				case VALUE_STRING:
+					generator.writeString(parser.getText());
+					break;
+				case VALUE_NUMBER_INT:
+					if (parser.getNumberType() == JsonParser.NumberType.INT) {
+						generator.writeNumber(parser.getIntValue());
+					} else if (parser.getNumberType() == JsonParser.NumberType.LONG
+							|| parser.getBigIntegerValue().bitLength() < Long.SIZE) {
+						generator.writeNumber(parser.getLongValue());
+					} else {
+						throw inexactNumber(parser);
+					}
+					break;
+				case VALUE_NUMBER_FLOAT:
+					if (parser.getNumberType() == JsonParser.NumberType.FLOAT) {
+						generator.writeNumber(parser.getFloatValue());
+					} else if (parser.getNumberType() == JsonParser.NumberType.DOUBLE) {
+						generator.writeNumber(parser.getDoubleValue());
+					} else {
+						throw inexactNumber(parser);
+					}
+					break;
+				case VALUE_TRUE:
+				case VALUE_FALSE:
+					generator.writeBoolean(parser.getBooleanValue());
+					break;
+				case VALUE_EMBEDDED_OBJECT:
+					Object embedded = parser.getEmbeddedObject();
+					if (embedded instanceof byte[]) {
+						generator.writeBinary((byte[]) embedded);
+					} else {
+						generator.writeString(String.valueOf(embedded));
+					}
+					break;
+				default:
+					generator.writeNull();
+			}
+		}
+	}
+
+	private static IOException inexactNumber(JsonParser parser) throws IOException {
+		// elasticsearch generators only write ints, longs, floats and doubles
+		return new JsonGenerationException("Cannot encode " + parser.getNumberType() + " value " + parser.getText() + " of "
+				+ parser.getCurrentName() + " exactly as a binary source, map it as a string or use JSON sources");
+	}
+
+	private static void copyTokens(XContentParser parser, JsonGenerator generator) throws IOException {
+		XContentParser.Token token;
+		while ((token = parser.nextToken()) != null) {
+			switch (token) {
+				case START_OBJECT:
+					generator.writeStartObject();
+					break;
+				case END_OBJECT:
+					generator.writeEndObject();
+					break;
+				case START_ARRAY:
+					generator.writeStartArray();
+					break;
+				case END_ARRAY:
+					generator.writeEndArray();
+					break;
+				case FIELD_NAME:
+					generator.writeFieldName(parser.currentName());
+					break;
+				case VALUE_STRING:
+					generator.writeString(parser.text());
+					break;
+				case VALUE_NUMBER:
+					switch (parser.numberType()) {
+						case INT:
+							generator.writeNumber(parser.intValue());
+							break;
+						case LONG:
+							generator.writeNumber(parser.longValue());
+							break;
+						case FLOAT:
+							generator.writeNumber(parser.floatValue());
+							break;
+						default:
+							generator.writeNumber(parser.doubleValue());
+					}
+					break;
+				case VALUE_BOOLEAN:
+					generator.writeBoolean(parser.booleanValue());
+					break;
+				case VALUE_EMBEDDED_OBJECT:
+					generator.writeBinary(parser.binaryValue());
+					break;
+				default:
+					generator.writeNull();
+			}
+		}
+	}
+
+	/**
+	 * Resolve the readers and writers of the given types up front, rather than on the first read or write of each.
+	 *
+	 * @param types
+	 */
+	public void prepare(Iterable<Class<?>> types) {
+		for (Class<?> type : types) {
+			readerFor(type);
+			writerFor(type);
+		}
+	}
+
+	ObjectReader readerFor(Class<?> clazz) {
+		ObjectReader reader = readers.get(clazz);
+		if (reader == null) {
+			reader = objectMapper.readerFor(clazz);
+			readers.putIfAbsent(clazz, reader);
+		}
+		return reader;
+	}
+
+	ObjectWriter writerFor(Class<?> clazz) {
+		ObjectWriter writer = writers.get(clazz);
+		if (writer == null) {
+			// leave closing the target to the caller, so that buffers can be reused
+			writer = objectMapper.writerFor(clazz).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			writers.putIfAbsent(clazz, writer);
+		}
+		return writer;
 	}
 }
@@ -49,6 +49,8 @@ import org.springframework.data.mapping.context.MappingContext;
  */
 public class DefaultResultMapper extends AbstractResultMapper {
 
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
 	private MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
 
 	public DefaultResultMapper() {
@@ -78,7 +80,9 @@ public class DefaultResultMapper extends AbstractResultMapper {
 		for (SearchHit hit : response.getHits()) {
 			if (hit != null) {
 				T result = null;
-				if (!Strings.isNullOrEmpty(hit.sourceAsString())) {
+				if (isBinarySource(hit.sourceRef())) {
+					result = mapEntity(hit.sourceRef(), clazz);
+				} else if (!Strings.isNullOrEmpty(hit.sourceAsString())) {
 					result = mapEntity(hit.sourceAsString(), clazz);
 				} else {
 					result = mapEntity(hit.getFields().values(), clazz);
@@ -120,38 +124,54 @@ public class DefaultResultMapper extends AbstractResultMapper {
 								throw new ElasticsearchException("failed to access scripted field: " + name, e);
 							}
 						}
-					}
-                }
-                else {
-					field.setAccessible(true);
-					Map<String, Object> scriptFields = null;
-					try {
-						scriptFields = (Map<String, Object>)field.get(result);
-					} catch (IllegalAccessException e) {
-						throw new ElasticsearchException("failed to access scripted field: " + field.getName(), e);
-					}
-					for (String fieldName : hit.getFields().keySet()) {
-						SearchHitField searchHitField = hit.getFields().get(fieldName);
-						if (searchHitField != null && searchHitField.getValue() != null) {
-							scriptFields.put(fieldName, searchHitField.getValue() );
+					} else {
+						field.setAccessible(true);
+						Map<String, Object> scriptFields = null;
+						try {
+							scriptFields = (Map<String, Object>)field.get(result);
+						} catch (IllegalAccessException e) {
+							throw new ElasticsearchException("failed to access scripted field: " + field.getName(), e);
+						}
+						for (String fieldName : hit.getFields().keySet()) {
+							SearchHitField searchHitField = hit.getFields().get(fieldName);
+							if (searchHitField != null && searchHitField.getValue() != null) {
+								scriptFields.put(fieldName, searchHitField.getValue() );
+							}
 						}
 					}
-
-				}
+                }
             }
         }
     }
 
 
     private <T> T mapEntity(Collection<SearchHitField> values, Class<T> clazz) {
+		if (getEntityMapper() instanceof MapEntityMapper) {
+			return mapEntity(buildMapFromFields(values), clazz);
+		}
 		return mapEntity(buildJSONFromFields(values), clazz);
 	}
 
+	private <T> T mapEntity(Map<String, Object> values, Class<T> clazz) {
+		try {
+			return ((MapEntityMapper) getEntityMapper()).mapToObject(values, clazz);
+		} catch (IOException e) {
+			throw new ElasticsearchException("failed to map fields " + values + " to class " + clazz.getSimpleName(), e);
+		}
+	}
+
+	private Map<String, Object> buildMapFromFields(Collection<SearchHitField> values) {
+		Map<String, Object> fields = new LinkedHashMap<String, Object>(values.size());
+		for (SearchHitField value : values) {
+			fields.put(value.getName(), value.getValues().size() > 1 ? value.getValues() : value.getValue());
+		}
+		return fields;
+	}
+
 	private String buildJSONFromFields(Collection<SearchHitField> values) {
-		JsonFactory nodeFactory = new JsonFactory();
 		try {
 			ByteArrayOutputStream stream = new ByteArrayOutputStream();
-			JsonGenerator generator = nodeFactory.createGenerator(stream, JsonEncoding.UTF8);
+			JsonGenerator generator = JSON_FACTORY.createGenerator(stream, JsonEncoding.UTF8);
 			generator.writeStartObject();
 			for (SearchHitField value : values) {
 				if (value.getValues().size() > 1) {
@@ -174,7 +194,9 @@ public class DefaultResultMapper extends AbstractResultMapper {
 
 	@Override
 	public <T> T mapResult(GetResponse response, Class<T> clazz) {
-		T result = mapEntity(response.getSourceAsString(), clazz);
+		boolean binarySource = response.isExists() && isBinarySource(response.getSourceAsBytesRef());
+		T result = binarySource ? mapEntity(response.getSourceAsBytesRef(), clazz) : mapEntity(response.getSourceAsString(),
+				clazz);
 		if (result != null) {
 			setPersistentEntityId(result, response.getId(), clazz);
 		}
@@ -186,7 +208,9 @@ public class DefaultResultMapper extends AbstractResultMapper {
 		LinkedList<T> list = new LinkedList<T>();
 		for (MultiGetItemResponse response : responses.getResponses()) {
 			if (!response.isFailed() && response.getResponse().isExists()) {
-				T result = mapEntity(response.getResponse().getSourceAsString(), clazz);
+				GetResponse getResponse = response.getResponse();
+				T result = isBinarySource(getResponse.getSourceAsBytesRef()) ? mapEntity(getResponse.getSourceAsBytesRef(),
+						clazz) : mapEntity(getResponse.getSourceAsString(), clazz);
 				setPersistentEntityId(result, response.getResponse().getId(), clazz);
 				list.add(result);
 			}
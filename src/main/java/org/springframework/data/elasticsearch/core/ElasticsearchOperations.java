@@ -22,6 +22,8 @@ import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersiste
 import org.springframework.data.elasticsearch.core.query.*;
 import org.springframework.data.util.CloseableIterator;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +82,26 @@ public interface ElasticsearchOperations {
 	 */
 	<T> boolean putMapping(Class<T> clazz);
 
+	/**
+	 * Create the missing indices of the given classes and put their mappings. The existing indices are looked up in a
+	 * single request, then the indices are created and the mappings put with all requests of a step in flight at once.
+	 * Failures are reported in the summary instead of being thrown.
+	 *
+	 * @param classes
+	 * @return the summary of the indices and mappings created
+	 */
+	IndexBootstrapSummary createIndicesAndMappings(Collection<Class<?>> classes);
+
+	/**
+	 * Create the index and put the mapping of a class for a repository. An implementation may defer this while the
+	 * application starts up, to create the indices of all repositories together, and then log or throw the failures of
+	 * all of them at once.
+	 *
+	 * @param clazz
+	 * @see #createIndicesAndMappings(Collection)
+	 */
+	<T> void bootstrapIndex(Class<T> clazz);
+
 	/**
 	 * Create mapping for a given indexName and type
 	 *
@@ -365,6 +387,75 @@ public interface ElasticsearchOperations {
 	 */
 	void bulkIndex(List<IndexQuery> queries);
 
+	/**
+	 * Bulk index all objects returned by the given iterator, sending them in bulk requests of at most {@code bulkSize}
+	 * documents with at most {@code concurrentRequests} requests in flight. Queries are only pulled from the iterator
+	 * when a request slot is free, so the source is never fully held in memory. Failed documents do not stop the
+	 * indexing, they are reported in the returned result.
+	 *
+	 * @param queries
+	 * @param bulkSize
+	 * @param concurrentRequests
+	 * @return the number of documents indexed and the failure message of every document that could not be
+	 */
+	BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, int bulkSize, int concurrentRequests);
+
+	/**
+	 * Bulk index all objects returned by the given iterator like {@link #bulkIndex(Iterator, int, int)}, letting the
+	 * given sizer tune the number of documents per request and the number of requests in flight as responses come
+	 * back.
+	 *
+	 * @param queries
+	 * @param bulkSizer
+	 * @return the number of documents indexed and the failure message of every document that could not be
+	 */
+	BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, AdaptiveBulkSizer bulkSizer);
+
+	/**
+	 * Start loading the given index in bulk with {@link BulkLoadSession#INGEST_SETTINGS}. The previous settings are put
+	 * back when the returned session is closed.
+	 *
+	 * @param indexName
+	 * @return the session to index documents through
+	 */
+	BulkLoadSession startBulkLoad(String indexName);
+
+	/**
+	 * Start loading the given index in bulk with the given settings. The previous values of these settings are put
+	 * back when the returned session is closed.
+	 *
+	 * @param indexName
+	 * @param ingestSettings
+	 * @return the session to index documents through
+	 */
+	BulkLoadSession startBulkLoad(String indexName, Map<String, String> ingestSettings);
+
+	/**
+	 * Start loading the index of the given entity class in bulk with {@link BulkLoadSession#INGEST_SETTINGS}.
+	 *
+	 * @param clazz
+	 * @return the session to index documents through
+	 */
+	<T> BulkLoadSession startBulkLoad(Class<T> clazz);
+
+	/**
+	 * Rebuild the index of the given entity class with its current settings and mapping, using the index name of the
+	 * entity as an alias: a new index is created, documents are copied from the indices behind the alias and the alias is
+	 * then moved to the new index, so that readers and writers never see an index without documents.
+	 *
+	 * @param clazz
+	 * @return the name of the new index
+	 */
+	<T> String reindex(Class<T> clazz);
+
+	/**
+	 * @see #reindex(Class)
+	 * @param clazz
+	 * @param options
+	 * @return the name of the new index
+	 */
+	<T> String reindex(Class<T> clazz, ReindexOptions options);
+
 	/**
 	 * Bulk update all objects. Will do update
 	 *
@@ -399,6 +490,25 @@ public interface ElasticsearchOperations {
 	 */
 	<T> String delete(Class<T> clazz, String id);
 
+	/**
+	 * Delete the one object with provided id, stored on the shard of the given routing value
+	 *
+	 * @param clazz
+	 * @param id
+	 * @param routing
+	 * @return documentId of the document deleted
+	 */
+	<T> String delete(Class<T> clazz, String id, String routing);
+
+	/**
+	 * Delete the document of the given entity, from the index of its timestamp for a rolling index and on the shard of
+	 * its routing property if it has one
+	 *
+	 * @param entity
+	 * @return documentId of the document deleted
+	 */
+	String delete(Object entity);
+
 	/**
 	 * Delete all records matching the query
 	 *
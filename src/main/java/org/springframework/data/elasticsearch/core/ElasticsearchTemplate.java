@@ -20,7 +20,6 @@ import static org.apache.commons.lang.StringUtils.*;
 import static org.elasticsearch.action.search.SearchType.*;
 import static org.elasticsearch.client.Requests.*;
 import static org.elasticsearch.cluster.metadata.AliasAction.Type.*;
-import static org.elasticsearch.common.collect.Sets.*;
 import static org.elasticsearch.index.VersionType.*;
 import static org.springframework.data.elasticsearch.core.MappingBuilder.*;
 
@@ -28,18 +27,29 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.IndicesRequest;
 import org.elasticsearch.action.ListenableActionFuture;
-import org.elasticsearch.action.admin.cluster.state.ClusterStateRequest;
+import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
-import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
-import org.elasticsearch.action.admin.indices.mapping.delete.DeleteMappingRequest;
-import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsRequest;
+import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
+import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequestBuilder;
-import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateRequestBuilder;
 import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.count.CountRequestBuilder;
@@ -48,28 +58,46 @@ import org.elasticsearch.action.get.MultiGetRequest;
 import org.elasticsearch.action.get.MultiGetRequestBuilder;
 import org.elasticsearch.action.get.MultiGetResponse;
 import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.mlt.MoreLikeThisRequestBuilder;
+import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.action.suggest.SuggestRequestBuilder;
 import org.elasticsearch.action.suggest.SuggestResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.action.support.PlainListenableActionFuture;
 import org.elasticsearch.action.update.UpdateRequestBuilder;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.Client;
-import org.elasticsearch.client.Requests;
 import org.elasticsearch.cluster.metadata.AliasAction;
+import org.elasticsearch.cluster.metadata.AliasMetaData;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.collect.ImmutableList;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.collect.MapBuilder;
 import org.elasticsearch.common.collect.Maps;
+import org.elasticsearch.common.hppc.cursors.ObjectObjectCursor;
+import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.mapper.MergeMappingException;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.indices.IndexAlreadyExistsException;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.fetch.source.FetchSourceContext;
 import org.elasticsearch.search.facet.FacetBuilder;
 import org.elasticsearch.search.highlight.HighlightBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
@@ -78,8 +106,14 @@ import org.elasticsearch.search.suggest.SuggestBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
@@ -87,15 +121,23 @@ import org.springframework.data.elasticsearch.ElasticsearchException;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Mapping;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.RequestGuard.Operation;
+import org.springframework.data.elasticsearch.core.RequestHedger.Kind;
+import org.springframework.data.elasticsearch.core.SourceBufferPool.SourceBuffer;
+import org.springframework.data.elasticsearch.core.cache.GetResultCache;
+import org.springframework.data.elasticsearch.core.cache.IndexMetadataCache;
+import org.springframework.data.elasticsearch.core.cache.SearchResultCache;
 import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
 import org.springframework.data.elasticsearch.core.facet.FacetRequest;
 import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
 import org.springframework.data.elasticsearch.core.query.*;
 import org.springframework.data.mapping.PersistentProperty;
 import org.springframework.data.util.CloseableIterator;
 import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
 
 /**
  * ElasticsearchTemplate
@@ -107,13 +149,33 @@ import org.springframework.util.Assert;
  * @author Mason Chan
  */
 
-public class ElasticsearchTemplate implements ElasticsearchOperations, ApplicationContextAware {
+public class ElasticsearchTemplate implements ElasticsearchOperations, ApplicationContextAware, BeanNameAware,
+		SmartInitializingSingleton, DisposableBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(ElasticsearchTemplate.class);
 	private Client client;
+	private Client readClient;
 	private ElasticsearchConverter elasticsearchConverter;
 	private ResultsMapper resultsMapper;
 	private String searchTimeout;
+	private SearchResultCache resultCache;
+	private final GetResultCache nearCache = new GetResultCache();
+	private final RecentRollingWrites recentRollingWrites = new RecentRollingWrites();
+	private GetRequestCoalescer getRequestCoalescer;
+	private ConcurrentMap<String, PlainListenableActionFuture<SearchResponse>> inFlightSearches;
+	private final SourceBufferPool sourceBufferPool = new SourceBufferPool();
+	private BulkRetryPolicy bulkRetryPolicy = BulkRetryPolicy.NO_RETRY;
+	private ScheduledExecutorService bulkRetryScheduler;
+	private IndexMetadataCache metadataCache;
+	private RequestGuard requestGuard;
+	private RequestHedger requestHedger;
+	private boolean deferIndexCreation = true;
+	private boolean failOnIndexBootstrapFailure;
+	private String beanName;
+	private boolean startingUp;
+	private final Set<Class<?>> deferredIndexClasses = new LinkedHashSet<Class<?>>();
+	private final ConcurrentMap<String, String> mappings = new ConcurrentHashMap<String, String>();
+	private final ConcurrentMap<String, String> mappingHashes = new ConcurrentHashMap<String, String>();
 
 	public ElasticsearchTemplate(Client client) {
 		this(client, new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()));
@@ -142,6 +204,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		Assert.notNull(resultsMapper, "ResultsMapper must not be null!");
 
 		this.client = client;
+		this.readClient = client;
 		this.elasticsearchConverter = elasticsearchConverter;
 		this.resultsMapper = resultsMapper;
 	}
@@ -150,41 +213,271 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		this.searchTimeout = searchTimeout;
 	}
 
+	/**
+	 * Send the requests the template waits for through the given guard, which bounds the time waited for them, the
+	 * requests in flight per index and stops sending them while the cluster fails. Its search timeout replaces
+	 * {@link #setSearchTimeout(String)}.
+	 *
+	 * @param requestGuard the guard to use, {@literal null} sends requests as they come
+	 */
+	public void setRequestGuard(RequestGuard requestGuard) {
+		this.requestGuard = requestGuard;
+	}
+
+	public RequestGuard getRequestGuard() {
+		return requestGuard;
+	}
+
+	/**
+	 * Send single document gets, multi gets and searches a second time, with another preference, when they take longer
+	 * than most recent ones, and use whichever answers first. Requests with a preference of their own, gets sent through
+	 * the {@link GetRequestCoalescer} and scrolls are never hedged.
+	 *
+	 * @param requestHedger the hedger to use, {@literal null} sends every request once
+	 */
+	public void setRequestHedger(RequestHedger requestHedger) {
+		this.requestHedger = requestHedger;
+	}
+
+	public RequestHedger getRequestHedger() {
+		return requestHedger;
+	}
+
+	/**
+	 * Send gets, searches, counts and suggests through a separate client, e.g. one connected to dedicated search nodes.
+	 * Writes and index administration keep using the client the template was created with.
+	 *
+	 * @param readClient the client to read with, {@literal null} reads with the template client
+	 */
+	public void setReadClient(Client readClient) {
+		this.readClient = readClient != null ? readClient : client;
+	}
+
+	/**
+	 * Enable client side caching of search responses. Cached responses of an index are evicted whenever this template
+	 * writes to, refreshes or deletes that index. Responses read through an alias are evicted by writes to the indices
+	 * it points to when a {@link #setMetadataCache(IndexMetadataCache) metadata cache} resolves the alias, and only by
+	 * writes to the indices of their hits otherwise.
+	 *
+	 * @param resultCache the cache to use, {@literal null} disables caching
+	 */
+	public void setResultCache(SearchResultCache resultCache) {
+		this.resultCache = resultCache;
+	}
+
+	public SearchResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Let identical searches that are issued while one of them is still running wait for the response of the running
+	 * one instead of being sent to the cluster again. Each caller maps the shared response on its own.
+	 *
+	 * @param deduplicateSearches
+	 */
+	public void setDeduplicateSearches(boolean deduplicateSearches) {
+		this.inFlightSearches = deduplicateSearches
+				? new ConcurrentHashMap<String, PlainListenableActionFuture<SearchResponse>>() : null;
+	}
+
+	/**
+	 * @return the near cache holding documents of entities annotated with
+	 *         {@link org.springframework.data.elasticsearch.annotations.NearCache}
+	 */
+	public GetResultCache getNearCache() {
+		return nearCache;
+	}
+
+	/**
+	 * Send single document gets through the given coalescer, so that concurrent gets are combined into multi gets.
+	 *
+	 * @param getRequestCoalescer the coalescer to use, {@literal null} sends every get on its own
+	 */
+	public void setGetRequestCoalescer(GetRequestCoalescer getRequestCoalescer) {
+		this.getRequestCoalescer = getRequestCoalescer;
+	}
+
+	/**
+	 * Cache the aliases, settings and mappings read through this template for a short while.
+	 *
+	 * @param metadataCache the cache to use, {@literal null} disables caching
+	 */
+	public void setMetadataCache(IndexMetadataCache metadataCache) {
+		this.metadataCache = metadataCache;
+	}
+
+	public IndexMetadataCache getMetadataCache() {
+		return metadataCache;
+	}
+
+	/**
+	 * Defer the index creation of the repositories created while the application context starts up until all
+	 * singletons are instantiated, to create their indices and mappings together. Only applies to a non lazy singleton
+	 * template. Documents written by other beans while the context starts up, e.g. from an initialisation method, are
+	 * indexed before the mapping of their class is put: they create the index with dynamic mappings, and the mapping
+	 * put afterwards may then fail to merge. Disable deferral in applications writing documents during their startup.
+	 *
+	 * @param deferIndexCreation {@literal true} by default
+	 */
+	public void setDeferIndexCreation(boolean deferIndexCreation) {
+		this.deferIndexCreation = deferIndexCreation;
+	}
+
+	/**
+	 * Throw when the index or mapping of a repository cannot be created, which fails the startup of the application
+	 * context when index creation is deferred. Failures are only logged otherwise, by the template or the repository.
+	 *
+	 * @param failOnIndexBootstrapFailure {@literal false} by default
+	 */
+	public void setFailOnIndexBootstrapFailure(boolean failOnIndexBootstrapFailure) {
+		this.failOnIndexBootstrapFailure = failOnIndexBootstrapFailure;
+	}
+
+	/**
+	 * Re-send bulk items rejected by an overloaded node according to the given policy. Items still rejected once the
+	 * policy gives up are reported along with the other failures.
+	 *
+	 * @param bulkRetryPolicy the policy to use, {@literal null} never retries
+	 */
+	public void setBulkRetryPolicy(BulkRetryPolicy bulkRetryPolicy) {
+		this.bulkRetryPolicy = bulkRetryPolicy != null ? bulkRetryPolicy : BulkRetryPolicy.NO_RETRY;
+	}
+
+	/**
+	 * @return the scheduler of bulk retries, only started once a policy that retries is used
+	 */
+	private synchronized ScheduledExecutorService getBulkRetryScheduler() {
+		if (bulkRetryPolicy.getMaxRetries() == 0) {
+			return null;
+		}
+		if (bulkRetryScheduler == null) {
+			bulkRetryScheduler = Executors.newSingleThreadScheduledExecutor(EsExecutors.daemonThreadFactory("bulk-retry"));
+		}
+		return bulkRetryScheduler;
+	}
+
+	/**
+	 * Stop scheduling bulk retries. Retries already scheduled are still sent.
+	 */
+	@Override
+	public synchronized void destroy() {
+		if (bulkRetryScheduler != null) {
+			bulkRetryScheduler.shutdown();
+		}
+	}
+
 	@Override
 	public <T> boolean createIndex(Class<T> clazz) {
+		if (isRolling(clazz)) {
+			return putRollingIndexTemplate(clazz);
+		}
 		return createIndexIfNotCreated(clazz);
 	}
 
 	@Override
 	public boolean createIndex(String indexName) {
 		Assert.notNull(indexName, "No index defined for Query");
-		return client.admin().indices()
-				.create(Requests.createIndexRequest(indexName))
-				.actionGet().isAcknowledged();
+		boolean acknowledged = execute(Operation.ADMIN, client.admin().indices().prepareCreate(indexName), indexName)
+				.isAcknowledged();
+		evictMetadata(indexName);
+		return acknowledged;
 	}
 
 	@Override
 	public <T> boolean putMapping(Class<T> clazz) {
+		if (isRolling(clazz)) {
+			// the template maps the indices created from now on, the existing ones are mapped through their alias
+			putRollingIndexTemplate(clazz);
+			if (!indexExists(getPersistentEntityFor(clazz).getIndexName())) {
+				return true;
+			}
+		}
+		ElasticsearchPersistentEntity<T> persistentEntity = getPersistentEntityFor(clazz);
+		String mapping = getMappingFor(clazz);
+		ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetaData>> mappings = execute(Operation.ADMIN,
+				client.admin().indices().prepareGetMappings(persistentEntity.getIndexName())
+						.setIndicesOptions(IndicesOptions.lenientExpandOpen()), persistentEntity.getIndexName()).getMappings();
+		if (isMappingUpToDate(mappings, Arrays.asList(mappings.keys().toArray(String.class)),
+				persistentEntity.getIndexType(), getMappingHashFor(clazz))) {
+			logger.debug("Mapping of " + clazz.getName() + " is up to date, not putting it");
+			return true;
+		}
+		try {
+			return putMapping(clazz, mapping);
+		} catch (RuntimeException e) {
+			if (ExceptionsHelper.unwrapCause(e) instanceof MergeMappingException) {
+				throw new ElasticsearchException(getIncompatibleMappingMessage(clazz, e), e);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the mapping of the class, read or built once per class and type, with its hash in its {@code _meta}
+	 */
+	private <T> String getMappingFor(Class<T> clazz) {
+		String key = getMappingKey(clazz);
+		String mapping = mappings.get(key);
+		if (mapping == null) {
+			String type = getPersistentEntityFor(clazz).getIndexType();
+			mapping = readOrBuildMapping(clazz);
+			String mappingHash = DigestUtils.md5DigestAsHex(mapping.getBytes(Charset.forName("UTF-8")));
+			mappingHashes.putIfAbsent(key, mappingHash);
+			mapping = addMappingHash(mapping, type, mappingHash);
+			mappings.putIfAbsent(key, mapping);
+		}
+		return mapping;
+	}
+
+	/**
+	 * @return the hash of the mapping of the class, as read or built
+	 */
+	private <T> String getMappingHashFor(Class<T> clazz) {
+		getMappingFor(clazz);
+		return mappingHashes.get(getMappingKey(clazz));
+	}
+
+	private <T> String getMappingKey(Class<T> clazz) {
+		// the type may be an expression evaluated on every call
+		return clazz.getName() + "/" + getPersistentEntityFor(clazz).getIndexType();
+	}
+
+	private String addMappingHash(String mapping, String type, String mappingHash) {
+		try {
+			Map<String, Object> source = XContentHelper.convertToMap(new BytesArray(mapping), true).v2();
+			// the type is optional at the root of a mapping
+			Map<String, Object> typeMapping = source.size() == 1 && source.get(type) instanceof Map ? (Map) source
+					.get(type) : source;
+			Map<String, Object> meta = typeMapping.get(FIELD_META) instanceof Map ? (Map) typeMapping.get(FIELD_META)
+					: new LinkedHashMap<String, Object>();
+			meta.put(FIELD_MAPPING_HASH, mappingHash);
+			typeMapping.put(FIELD_META, meta);
+			return XContentFactory.jsonBuilder().map(source).string();
+		} catch (IOException e) {
+			throw new ElasticsearchException("Failed to add the mapping hash to the mapping of type " + type, e);
+		}
+	}
+
+	private <T> String readOrBuildMapping(Class<T> clazz) {
 		if (clazz.isAnnotationPresent(Mapping.class)) {
 			String mappingPath = clazz.getAnnotation(Mapping.class).mappingPath();
 			if (isNotBlank(mappingPath)) {
 				String mappings = readFileFromClasspath(mappingPath);
 				if (isNotBlank(mappings)) {
-					return putMapping(clazz, mappings);
+					return mappings;
 				}
 			} else {
 				logger.info("mappingPath in @Mapping has to be defined. Building mappings using @Field");
 			}
 		}
 		ElasticsearchPersistentEntity<T> persistentEntity = getPersistentEntityFor(clazz);
-		XContentBuilder xContentBuilder = null;
 		try {
-			xContentBuilder = buildMapping(clazz, persistentEntity.getIndexType(), persistentEntity
-					.getIdProperty().getFieldName(), persistentEntity.getParentType());
+			return buildMapping(clazz, persistentEntity.getIndexType(), persistentEntity
+					.getIdProperty().getFieldName(), persistentEntity.getParentType(),
+					persistentEntity.getRoutingProperty() != null).string();
 		} catch (Exception e) {
 			throw new ElasticsearchException("Failed to build mapping for " + clazz.getSimpleName(), e);
 		}
-		return putMapping(clazz, xContentBuilder);
 	}
 
 	@Override
@@ -194,6 +487,13 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public boolean putMapping(String indexName, String type, Object mapping) {
+		boolean acknowledged = execute(Operation.ADMIN, preparePutMapping(indexName, type, mapping), indexName)
+				.isAcknowledged();
+		evictMetadata(indexName);
+		return acknowledged;
+	}
+
+	private PutMappingRequestBuilder preparePutMapping(String indexName, String type, Object mapping) {
 		Assert.notNull(indexName, "No index defined for putMapping()");
 		Assert.notNull(type, "No type defined for putMapping()");
 		PutMappingRequestBuilder requestBuilder = client.admin().indices()
@@ -205,23 +505,264 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		} else if (mapping instanceof XContentBuilder) {
 			requestBuilder.setSource((XContentBuilder) mapping);
 		}
-		return requestBuilder.execute().actionGet().isAcknowledged();
+		return requestBuilder;
+	}
+
+	@Override
+	public IndexBootstrapSummary createIndicesAndMappings(Collection<Class<?>> classes) {
+		long start = System.currentTimeMillis();
+		IndexBootstrapSummary summary = new IndexBootstrapSummary();
+		Map<String, Class<?>> indices = new LinkedHashMap<String, Class<?>>();
+		for (Class<?> clazz : classes) {
+			String indexName = getPersistentEntityFor(clazz).getIndexName();
+			if (!indices.containsKey(indexName)) {
+				indices.put(indexName, clazz);
+			}
+		}
+		if (indices.isEmpty()) {
+			return summary;
+		}
+		String[] indexNames = indices.keySet().toArray(new String[indices.size()]);
+		GetIndexResponse response = execute(Operation.ADMIN, client.admin().indices().prepareGetIndex()
+				.addIndices(indexNames).setFeatures(GetIndexRequest.Feature.ALIASES, GetIndexRequest.Feature.MAPPINGS)
+				.setIndicesOptions(IndicesOptions.lenientExpandOpen()), indexNames);
+		Map<String, Set<String>> existingIndices = getConcreteIndices(response, indices.keySet());
+
+		// the indices first, as a mapping can only be put once its index exists
+		Map<Class<?>, ListenableActionFuture<?>> creations = new LinkedHashMap<Class<?>, ListenableActionFuture<?>>();
+		for (Map.Entry<String, Class<?>> index : indices.entrySet()) {
+			Class<?> clazz = index.getValue();
+			try {
+				if (isRolling(clazz)) {
+					creations.put(clazz, preparePutRollingIndexTemplate(clazz).execute());
+				} else if (!existingIndices.containsKey(index.getKey())) {
+					creations.put(clazz, prepareCreateIndex(index.getKey(), getSettingsFor(clazz)).execute());
+				}
+			} catch (RuntimeException e) {
+				summary.addFailure(clazz, e.getMessage());
+			}
+		}
+		for (Map.Entry<Class<?>, ListenableActionFuture<?>> creation : creations.entrySet()) {
+			Class<?> clazz = creation.getKey();
+			String indexName = getPersistentEntityFor(clazz).getIndexName();
+			try {
+				creation.getValue().actionGet();
+				if (isRolling(clazz)) {
+					summary.addCreatedTemplate(indexName);
+				} else {
+					summary.addCreatedIndex(indexName);
+					existingIndices.put(indexName, Collections.<String> emptySet());
+				}
+			} catch (RuntimeException e) {
+				if (ExceptionsHelper.unwrapCause(e) instanceof IndexAlreadyExistsException) {
+					// created in the meantime, e.g. by another instance of the application
+					existingIndices.put(indexName, Collections.<String> emptySet());
+				} else {
+					summary.addFailure(clazz, e.getMessage());
+				}
+			}
+		}
+
+		Map<Class<?>, ListenableActionFuture<?>> mappings = new LinkedHashMap<Class<?>, ListenableActionFuture<?>>();
+		for (Class<?> clazz : classes) {
+			ElasticsearchPersistentEntity<?> persistentEntity = getPersistentEntityFor(clazz);
+			Set<String> concreteIndices = existingIndices.get(persistentEntity.getIndexName());
+			// the indices of a rolling index that do not exist yet are mapped by its template
+			if (concreteIndices == null) {
+				continue;
+			}
+			try {
+				if (isMappingUpToDate(response.getMappings(), concreteIndices, persistentEntity.getIndexType(),
+						getMappingHashFor(clazz))) {
+					summary.addUnchangedMapping();
+					continue;
+				}
+				mappings.put(clazz, preparePutMapping(persistentEntity.getIndexName(), persistentEntity.getIndexType(),
+						getMappingFor(clazz)).execute());
+			} catch (RuntimeException e) {
+				summary.addFailure(clazz, e.getMessage());
+			}
+		}
+		for (Map.Entry<Class<?>, ListenableActionFuture<?>> mapping : mappings.entrySet()) {
+			try {
+				mapping.getValue().actionGet();
+				summary.addMapping();
+			} catch (RuntimeException e) {
+				Class<?> clazz = mapping.getKey();
+				if (ExceptionsHelper.unwrapCause(e) instanceof MergeMappingException) {
+					summary.addFailure(clazz, getIncompatibleMappingMessage(clazz, e));
+				} else {
+					summary.addFailure(clazz, e.getMessage());
+				}
+			}
+		}
+
+		evictMetadata(indices.keySet().toArray(new String[indices.size()]));
+		summary.setTookInMillis(System.currentTimeMillis() - start);
+		if (summary.hasFailures()) {
+			logger.error(summary.toString());
+		} else {
+			logger.info(summary.toString());
+		}
+		return summary;
+	}
+
+	/**
+	 * @return the concrete indices of the given names that are the names of existing indices or aliases
+	 */
+	private Map<String, Set<String>> getConcreteIndices(GetIndexResponse response, Set<String> names) {
+		Map<String, Set<String>> concreteIndices = new HashMap<String, Set<String>>();
+		for (String index : response.getIndices()) {
+			if (names.contains(index)) {
+				concreteIndices.put(index, Collections.singleton(index));
+			}
+		}
+		for (ObjectObjectCursor<String, ImmutableList<AliasMetaData>> aliases : response.getAliases()) {
+			for (AliasMetaData aliasMetaData : aliases.value) {
+				if (names.contains(aliasMetaData.alias())) {
+					if (!concreteIndices.containsKey(aliasMetaData.alias())) {
+						concreteIndices.put(aliasMetaData.alias(), new HashSet<String>());
+					}
+					concreteIndices.get(aliasMetaData.alias()).add(aliases.key);
+				}
+			}
+		}
+		return concreteIndices;
+	}
+
+	/**
+	 * @return whether the type is mapped in all the given indices, from a mapping with the given hash
+	 */
+	private boolean isMappingUpToDate(ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetaData>> mappings,
+			Collection<String> indices, String type, String mappingHash) {
+		if (indices.isEmpty()) {
+			return false;
+		}
+		for (String index : indices) {
+			ImmutableOpenMap<String, MappingMetaData> indexMappings = mappings.get(index);
+			MappingMetaData mapping = indexMappings != null ? indexMappings.get(type) : null;
+			if (mapping == null || !mappingHash.equals(getMappingHash(mapping))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String getMappingHash(MappingMetaData mapping) {
+		try {
+			Object meta = mapping.getSourceAsMap().get(FIELD_META);
+			return meta instanceof Map ? (String) ((Map) meta).get(FIELD_MAPPING_HASH) : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private String getIncompatibleMappingMessage(Class<?> clazz, Throwable e) {
+		return "The mapping of " + clazz.getName() + " in [" + getPersistentEntityFor(clazz).getIndexName()
+				+ "] drifted from the entity in a way that cannot be merged, the index has to be reindexed: "
+				+ ExceptionsHelper.detailedMessage(e);
+	}
+
+	@Override
+	public <T> void bootstrapIndex(Class<T> clazz) {
+		synchronized (deferredIndexClasses) {
+			if (startingUp && deferIndexCreation) {
+				deferredIndexClasses.add(clazz);
+				return;
+			}
+		}
+		bootstrapIndices(Collections.<Class<?>> singleton(clazz));
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		prepareEntityMapper();
+		List<Class<?>> classes;
+		synchronized (deferredIndexClasses) {
+			startingUp = false;
+			classes = new ArrayList<Class<?>>(deferredIndexClasses);
+			deferredIndexClasses.clear();
+		}
+		if (!classes.isEmpty()) {
+			bootstrapIndices(classes);
+		}
+	}
+
+	/**
+	 * Resolve the readers and writers of the entities the repositories registered, so that the first request of each
+	 * does not pay for it.
+	 */
+	private void prepareEntityMapper() {
+		EntityMapper entityMapper = resultsMapper.getEntityMapper();
+		if (!(entityMapper instanceof DefaultEntityMapper)) {
+			return;
+		}
+		List<Class<?>> types = new ArrayList<Class<?>>();
+		for (ElasticsearchPersistentEntity<?> entity : elasticsearchConverter.getMappingContext().getPersistentEntities()) {
+			types.add(entity.getType());
+		}
+		((DefaultEntityMapper) entityMapper).prepare(types);
+	}
+
+	private void bootstrapIndices(Collection<Class<?>> classes) {
+		IndexBootstrapSummary summary;
+		try {
+			summary = createIndicesAndMappings(classes);
+		} catch (org.elasticsearch.ElasticsearchException e) {
+			if (failOnIndexBootstrapFailure) {
+				throw new ElasticsearchException("Failed to create the indices of " + classes, e);
+			}
+			logger.error("failed to create the indices of " + classes + " : " + e.getDetailedMessage());
+			return;
+		}
+		if (summary.hasFailures() && failOnIndexBootstrapFailure) {
+			throw new ElasticsearchException("Failed to create the indices or mappings of "
+					+ summary.getFailures().keySet(), summary.getFailures());
+		}
 	}
 
 	@Override
 	public Map getMapping(String indexName, String type) {
 		Assert.notNull(indexName, "No index defined for putMapping()");
 		Assert.notNull(type, "No type defined for putMapping()");
-		Map mappings = null;
+		Map mappings = metadataCache != null ? metadataCache.getMapping(indexName, type) : null;
+		if (mappings != null) {
+			return (Map) copyOf(mappings);
+		}
 		try {
-			mappings = client.admin().indices().getMappings(new GetMappingsRequest().indices(indexName).types(type))
-					.actionGet().getMappings().get(indexName).get(type).getSourceAsMap();
+			mappings = execute(Operation.ADMIN, client.admin().indices().prepareGetMappings(indexName).setTypes(type),
+					indexName).getMappings().get(indexName).get(type).getSourceAsMap();
 		} catch (Exception e) {
 			throw new ElasticsearchException("Error while getting mapping for indexName : " + indexName + " type : " + type + " " + e.getMessage());
 		}
+		if (metadataCache != null) {
+			metadataCache.putMapping(indexName, type, Collections.unmodifiableMap((Map) copyOf(mappings)));
+		}
 		return mappings;
 	}
 
+	/**
+	 * @return a copy of the given metadata value, with copies of the maps and lists it holds, so that callers may
+	 *         modify what they get without changing the cached value
+	 */
+	private static Object copyOf(Object value) {
+		if (value instanceof Map) {
+			Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				copy.put(entry.getKey(), copyOf(entry.getValue()));
+			}
+			return copy;
+		}
+		if (value instanceof List) {
+			List<Object> copy = new ArrayList<Object>();
+			for (Object element : (List<?>) value) {
+				copy.add(copyOf(element));
+			}
+			return copy;
+		}
+		return value;
+	}
+
 	@Override
 	public <T> Map getMapping(Class<T> clazz) {
 		return getMapping(getPersistentEntityFor(clazz).getIndexName(), getPersistentEntityFor(clazz).getIndexType());
@@ -240,14 +781,66 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 	@Override
 	public <T> T queryForObject(GetQuery query, Class<T> clazz, GetResultMapper mapper) {
 		ElasticsearchPersistentEntity<T> persistentEntity = getPersistentEntityFor(clazz);
-		GetResponse response = client
-				.prepareGet(persistentEntity.getIndexName(), persistentEntity.getIndexType(), query.getId()).execute()
-				.actionGet();
+		String indexName = persistentEntity.getIndexName();
+		if (RollingIndices.isRolling(persistentEntity)) {
+			indexName = findRollingIndexOf(persistentEntity, query.getId());
+			if (indexName == null) {
+				return null;
+			}
+		}
+		GetResponse response = getDocument(indexName, persistentEntity.getIndexType(), query.getId(), query.getRouting(),
+				clazz);
 
 		T entity = mapper.mapResult(response, clazz);
 		return entity;
 	}
 
+	private <T> GetResponse getDocument(String indexName, String type, String id, String routing, Class<T> clazz) {
+		if (!GetResultCache.isCached(clazz)) {
+			return fetchDocument(indexName, type, id, routing);
+		}
+		GetResponse cached = nearCache.get(clazz, indexName, type, id);
+		if (cached != null) {
+			if (!GetResultCache.isRevalidated(clazz)) {
+				return cached;
+			}
+			// only fetch the version of the document to find out whether the cached one is still current
+			GetResponse current = execute(Operation.GET, readClient.prepareGet(indexName, type, id).setRouting(routing)
+					.setFetchSource(false), indexName);
+			if (!current.isExists()) {
+				nearCache.evict(indexName, type, id);
+				return current;
+			}
+			if (current.getVersion() == cached.getVersion()) {
+				return cached;
+			}
+		}
+		GetResponse response = fetchDocument(indexName, type, id, routing);
+		nearCache.put(clazz, indexName, response);
+		return response;
+	}
+
+	private GetResponse fetchDocument(final String indexName, final String type, final String id,
+			final String routing) {
+		if (getRequestCoalescer != null && routing == null) {
+			return execute(Operation.GET, new RequestGuard.Request<GetResponse>() {
+				@Override
+				public void send(ActionListener<GetResponse> listener) {
+					getRequestCoalescer.get(indexName, type, id, listener);
+				}
+			}, indexName);
+		}
+		if (requestHedger != null) {
+			return execute(Operation.GET, hedged(Kind.GET, new RequestHedger.Request<GetResponse>() {
+				@Override
+				public void send(String preference, ActionListener<GetResponse> listener) {
+					readClient.prepareGet(indexName, type, id).setRouting(routing).setPreference(preference).execute(listener);
+				}
+			}), indexName);
+		}
+		return execute(Operation.GET, readClient.prepareGet(indexName, type, id).setRouting(routing), indexName);
+	}
+
 	@Override
 	public <T> T queryForObject(CriteriaQuery query, Class<T> clazz) {
 		Page<T> page = queryForPage(query, clazz);
@@ -296,11 +889,9 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public <T> List<String> queryForIds(SearchQuery query) {
-		SearchRequestBuilder request = prepareSearch(query).setQuery(query.getQuery()).setNoFields();
-		if (query.getFilter() != null) {
-			request.setPostFilter(query.getFilter());
-		}
-		SearchResponse response = getSearchResponse(request.execute());
+		SearchRequestBuilder request = prepareSearch(query).setQuery(filteredQuery(query.getQuery(), query.getFilter()))
+				.setNoFields();
+		SearchResponse response = executeSearch(request);
 		return extractIds(response);
 	}
 
@@ -310,24 +901,17 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		FilterBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
 		SearchRequestBuilder searchRequestBuilder = prepareSearch(criteriaQuery, clazz);
 
-		if (elasticsearchQuery != null) {
-			searchRequestBuilder.setQuery(elasticsearchQuery);
-		} else {
-			searchRequestBuilder.setQuery(QueryBuilders.matchAllQuery());
-		}
+		searchRequestBuilder.setQuery(filteredQuery(elasticsearchQuery, elasticsearchFilter));
 
 		if (criteriaQuery.getMinScore() > 0) {
 			searchRequestBuilder.setMinScore(criteriaQuery.getMinScore());
 		}
 
-		if (elasticsearchFilter != null)
-			searchRequestBuilder.setPostFilter(elasticsearchFilter);
 		if (logger.isDebugEnabled()) {
 			logger.debug("doSearch query:\n" + searchRequestBuilder.toString());
 		}
 
-		SearchResponse response = getSearchResponse(searchRequestBuilder
-				.execute());
+		SearchResponse response = executeSearch(searchRequestBuilder);
 		return resultsMapper.mapResults(response, clazz, criteriaQuery.getPageable());
 	}
 
@@ -338,7 +922,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public <T> FacetedPage<T> queryForPage(StringQuery query, Class<T> clazz, SearchResultMapper mapper) {
-		SearchResponse response = getSearchResponse(prepareSearch(query, clazz).setQuery(query.getSource()).execute());
+		SearchResponse response = executeSearch(prepareSearch(query, clazz).setQuery(query.getSource()));
 		return mapper.mapResults(response, clazz, query.getPageable());
 	}
 
@@ -378,7 +962,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 				try {
 					// Clear scroll on cluster only in case of error (cause elasticsearch auto clear scroll when it's done)
 					if (!finished && scrollId != null && currentHits != null && currentHits.hasNext()) {
-						client.prepareClearScroll().addScrollId(scrollId).execute().actionGet();
+						readClient.prepareClearScroll().addScrollId(scrollId).execute().actionGet();
 					}
 				} finally {
 					currentHits = null;
@@ -395,8 +979,8 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 				// Test if it remains hits
 				if (currentHits == null || !currentHits.hasNext()) {
 					// Do a new request
-					SearchResponse response = getSearchResponse(client.prepareSearchScroll(scrollId)
-							.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)).execute());
+					SearchResponse response = getSearchResponse(readClient.prepareSearchScroll(scrollId)
+							.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)));
 					// Save hits and scroll id
 					currentHits = mapper.mapResults(response, clazz, null).iterator();
 					finished = !currentHits.hasNext();
@@ -420,12 +1004,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		QueryBuilder elasticsearchQuery = new CriteriaQueryProcessor().createQueryFromCriteria(criteriaQuery.getCriteria());
 		FilterBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
 
-		if (elasticsearchFilter == null) {
-			return doCount(prepareCount(criteriaQuery, clazz), elasticsearchQuery);
-		} else {
-			// filter could not be set into CountRequestBuilder, convert request into search request
-			return doCount(prepareSearch(criteriaQuery, clazz), elasticsearchQuery, elasticsearchFilter);
-		}
+		return doCount(prepareCount(criteriaQuery, clazz), filteredQuery(elasticsearchQuery, elasticsearchFilter));
 	}
 
 	@Override
@@ -433,12 +1012,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		QueryBuilder elasticsearchQuery = searchQuery.getQuery();
 		FilterBuilder elasticsearchFilter = searchQuery.getFilter();
 
-		if (elasticsearchFilter == null) {
-			return doCount(prepareCount(searchQuery, clazz), elasticsearchQuery);
-		} else {
-			// filter could not be set into CountRequestBuilder, convert request into search request
-			return doCount(prepareSearch(searchQuery, clazz), elasticsearchQuery, elasticsearchFilter);
-		}
+		return doCount(prepareCount(searchQuery, clazz), filteredQuery(elasticsearchQuery, elasticsearchFilter));
 	}
 
 	@Override
@@ -455,33 +1029,60 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		if (elasticsearchQuery != null) {
 			countRequestBuilder.setQuery(elasticsearchQuery);
 		}
-		return countRequestBuilder.execute().actionGet().getCount();
+		return execute(Operation.SEARCH, countRequestBuilder, countRequestBuilder.request().indices()).getCount();
 	}
 
-	private long doCount(SearchRequestBuilder searchRequestBuilder, QueryBuilder elasticsearchQuery, FilterBuilder elasticsearchFilter) {
-		if (elasticsearchQuery != null) {
-			searchRequestBuilder.setQuery(elasticsearchQuery);
-		} else {
-			searchRequestBuilder.setQuery(QueryBuilders.matchAllQuery());
+	/**
+	 * Folds the filter into the query, so that it narrows down the documents to score and gets cached, rather than
+	 * being applied to the hits of the query afterwards like a post filter.
+	 */
+	private static QueryBuilder filteredQuery(QueryBuilder elasticsearchQuery, FilterBuilder elasticsearchFilter) {
+		if (elasticsearchFilter == null) {
+			return elasticsearchQuery != null ? elasticsearchQuery : QueryBuilders.matchAllQuery();
 		}
-		if (elasticsearchFilter != null) {
-			searchRequestBuilder.setPostFilter(elasticsearchFilter);
+		return QueryBuilders.filteredQuery(elasticsearchQuery != null ? elasticsearchQuery : QueryBuilders.matchAllQuery(),
+				elasticsearchFilter);
+	}
+
+	/**
+	 * Facets and aggregations are computed on the hits of the query only, so a filter they must ignore has to stay a post
+	 * filter. Facets applying the query filter get it as their own facet filter anyway.
+	 */
+	private static boolean needsPostFilter(SearchQuery searchQuery) {
+		if (CollectionUtils.isNotEmpty(searchQuery.getAggregations())) {
+			return true;
+		}
+		if (CollectionUtils.isNotEmpty(searchQuery.getFacets())) {
+			for (FacetRequest facetRequest : searchQuery.getFacets()) {
+				if (!facetRequest.applyQueryFilter()) {
+					return true;
+				}
+			}
 		}
-		searchRequestBuilder.setSearchType(SearchType.COUNT);
-		return searchRequestBuilder.execute().actionGet().getHits().getTotalHits();
+		return false;
 	}
 
 	private <T> CountRequestBuilder prepareCount(Query query, Class<T> clazz) {
-		String indexName[] = isNotEmpty(query.getIndices()) ? query.getIndices().toArray(new String[query.getIndices().size()]) : retrieveIndexNameFromPersistentEntity(clazz);
+		String indexName[] = isNotEmpty(query.getIndices()) ? query.getIndices().toArray(new String[query.getIndices().size()]) : retrieveIndexNamesFor(query, clazz);
 		String types[] = isNotEmpty(query.getTypes()) ? query.getTypes().toArray(new String[query.getTypes().size()]) : retrieveTypeFromPersistentEntity(clazz);
 
 		Assert.notNull(indexName, "No index defined for Query");
 
-		CountRequestBuilder countRequestBuilder = client.prepareCount(indexName);
+		CountRequestBuilder countRequestBuilder = readClient.prepareCount(indexName);
 
 		if (types != null) {
 			countRequestBuilder.setTypes(types);
 		}
+		if (isRolling(clazz)) {
+			countRequestBuilder.setIndicesOptions(IndicesOptions.lenientExpandOpen());
+		}
+		if (query.getPreference() != null) {
+			countRequestBuilder.setPreference(query.getPreference());
+		}
+		String routing = retrieveRoutingFor(query, clazz);
+		if (routing != null) {
+			countRequestBuilder.setRouting(routing);
+		}
 		return countRequestBuilder;
 	}
 
@@ -490,16 +1091,31 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		return resultsMapper.mapResults(getMultiResponse(searchQuery, clazz), clazz);
 	}
 
-	private <T> MultiGetResponse getMultiResponse(Query searchQuery, Class<T> clazz) {
+	private <T> MultiGetResponse getMultiResponse(final Query searchQuery, Class<T> clazz) {
 
-		String indexName = isNotEmpty(searchQuery.getIndices()) ? searchQuery.getIndices().get(0) : getPersistentEntityFor(clazz).getIndexName();
-		String type = isNotEmpty(searchQuery.getTypes()) ? searchQuery.getTypes().get(0) : getPersistentEntityFor(clazz).getIndexType();
+		final String indexName = isNotEmpty(searchQuery.getIndices()) ? searchQuery.getIndices().get(0) : getPersistentEntityFor(clazz).getIndexName();
+		final String type = isNotEmpty(searchQuery.getTypes()) ? searchQuery.getTypes().get(0) : getPersistentEntityFor(clazz).getIndexType();
 
 		Assert.notNull(indexName, "No index defined for Query");
 		Assert.notNull(type, "No type define for Query");
 		Assert.notEmpty(searchQuery.getIds(), "No Id define for Query");
 
-		MultiGetRequestBuilder builder = client.prepareMultiGet();
+		if (requestHedger != null && searchQuery.getPreference() == null) {
+			return execute(Operation.GET, hedged(Kind.MULTI_GET, new RequestHedger.Request<MultiGetResponse>() {
+				@Override
+				public void send(String preference, ActionListener<MultiGetResponse> listener) {
+					prepareMultiGet(searchQuery, indexName, type).setPreference(preference).execute(listener);
+				}
+			}), indexName);
+		}
+		return execute(Operation.GET, prepareMultiGet(searchQuery, indexName, type), indexName);
+	}
+
+	private MultiGetRequestBuilder prepareMultiGet(Query searchQuery, String indexName, String type) {
+		MultiGetRequestBuilder builder = readClient.prepareMultiGet();
+		if (searchQuery.getPreference() != null) {
+			builder.setPreference(searchQuery.getPreference());
+		}
 
 		for (String id : searchQuery.getIds()) {
 
@@ -512,9 +1128,14 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 			if (searchQuery.getFields() != null && !searchQuery.getFields().isEmpty()) {
 				item = item.fields(toArray(searchQuery.getFields()));
 			}
+
+			if (searchQuery.getSourceFilter() != null) {
+				SourceFilter sourceFilter = searchQuery.getSourceFilter();
+				item = item.fetchSourceContext(new FetchSourceContext(sourceFilter.getIncludes(), sourceFilter.getExcludes()));
+			}
 			builder.add(item);
 		}
-		return builder.execute().actionGet();
+		return builder;
 	}
 
 	@Override
@@ -524,7 +1145,18 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public String index(IndexQuery query) {
-		String documentId = prepareIndex(query).execute().actionGet().getId();
+		IndexRequestBuilder indexRequestBuilder = prepareIndex(query);
+		IndexResponse indexResponse = execute(Operation.WRITE, indexRequestBuilder, indexRequestBuilder.request().index());
+		String documentId = indexResponse.getId();
+		Set<String> indexNames = new HashSet<String>();
+		addWrittenIndex(indexNames, indexResponse.getIndex(), query.getObject());
+		evictCachedResults(indexNames.toArray(new String[indexNames.size()]));
+		nearCache.evict(indexResponse.getIndex(), indexResponse.getType(), documentId);
+		if (query.getId() != null && isRolling(query.getObject() != null ? query.getObject().getClass() : null)) {
+			deleteStaleRollingCopies(getPersistentEntityFor(query.getObject().getClass()), Collections.singletonMap(
+					documentId, new RecentRollingWrites.Write(indexResponse.getIndex(), indexRequestBuilder.request()
+							.routing())));
+		}
 		// We should call this because we are not going through a mapper.
 		if (query.getObject() != null) {
 			setPersistentEntityId(query.getObject(), documentId);
@@ -534,17 +1166,25 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public UpdateResponse update(UpdateQuery query) {
-		return this.prepareUpdate(query).execute().actionGet();
+		UpdateRequestBuilder updateRequestBuilder = this.prepareUpdate(query);
+		UpdateResponse updateResponse = execute(Operation.WRITE, updateRequestBuilder, updateRequestBuilder.request()
+				.index());
+		evictCachedResults(updateResponse.getIndex());
+		nearCache.evict(updateResponse.getIndex(), updateResponse.getType(), updateResponse.getId());
+		return updateResponse;
 	}
 
 	private UpdateRequestBuilder prepareUpdate(UpdateQuery query) {
-		String indexName = isNotBlank(query.getIndexName()) ? query.getIndexName() : getPersistentEntityFor(query.getClazz()).getIndexName();
+		String indexName = isNotBlank(query.getIndexName()) ? query.getIndexName() : retrieveIndexNameFor(query.getClazz(), query.getId());
 		String type = isNotBlank(query.getType()) ? query.getType() : getPersistentEntityFor(query.getClazz()).getIndexType();
 		Assert.notNull(indexName, "No index defined for Query");
 		Assert.notNull(type, "No type define for Query");
 		Assert.notNull(query.getId(), "No Id define for Query");
 		Assert.notNull(query.getUpdateRequest(), "No IndexRequest define for Query");
 		UpdateRequestBuilder updateRequestBuilder = client.prepareUpdate(indexName, type, query.getId());
+		if (query.getRouting() != null) {
+			updateRequestBuilder.setRouting(query.getRouting());
+		}
 
 		if (query.getUpdateRequest().script() == null) {
 			// doc
@@ -568,41 +1208,191 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 	@Override
 	public void bulkIndex(List<IndexQuery> queries) {
 		BulkRequestBuilder bulkRequest = client.prepareBulk();
+		Set<String> indexNames = new HashSet<String>();
+		List<SourceBuffer> sourceBuffers = new ArrayList<SourceBuffer>(queries.size());
 		for (IndexQuery query : queries) {
-			bulkRequest.add(prepareIndex(query));
+			IndexRequestBuilder indexRequestBuilder = prepareIndex(query, sourceBuffers);
+			addWrittenIndex(indexNames, indexRequestBuilder.request().index(), query.getObject());
+			bulkRequest.add(indexRequestBuilder);
+		}
+		BulkResponse bulkResponse = executeBulk(bulkRequest);
+		// only reuse the buffers once the request is done with them
+		sourceBufferPool.release(sourceBuffers);
+		evictCachedResults(indexNames.toArray(new String[indexNames.size()]));
+		evictCachedDocuments(bulkResponse);
+		deleteStaleRollingCopies(queries, bulkResponse);
+		checkForBulkFailures(bulkResponse);
+	}
+
+	private void deleteStaleRollingCopies(List<IndexQuery> queries, BulkResponse bulkResponse) {
+		Map<Class<?>, Map<String, RecentRollingWrites.Write>> writtenIndices =
+				new HashMap<Class<?>, Map<String, RecentRollingWrites.Write>>();
+		for (BulkItemResponse item : bulkResponse.getItems()) {
+			IndexQuery query = queries.get(item.getItemId());
+			if (item.isFailed() || query.getId() == null || query.getObject() == null
+					|| !isRolling(query.getObject().getClass())) {
+				continue;
+			}
+			Map<String, RecentRollingWrites.Write> writes = writtenIndices.get(query.getObject().getClass());
+			if (writes == null) {
+				writes = new HashMap<String, RecentRollingWrites.Write>();
+				writtenIndices.put(query.getObject().getClass(), writes);
+			}
+			String routing = query.getRouting() != null ? query.getRouting() : retrieveRoutingFor(query.getObject());
+			writes.put(item.getId(), new RecentRollingWrites.Write(item.getIndex(), routing));
 		}
-		BulkResponse bulkResponse = bulkRequest.execute().actionGet();
-		if (bulkResponse.hasFailures()) {
-			Map<String, String> failedDocuments = new HashMap<String, String>();
-			for (BulkItemResponse item : bulkResponse.getItems()) {
-				if (item.isFailed())
-					failedDocuments.put(item.getId(), item.getFailureMessage());
+		for (Map.Entry<Class<?>, Map<String, RecentRollingWrites.Write>> entry : writtenIndices.entrySet()) {
+			deleteStaleRollingCopies(getPersistentEntityFor(entry.getKey()), entry.getValue());
+		}
+	}
+
+	/**
+	 * Delete the copies of documents just written to a rolling index that are left in the index of another period,
+	 * because the timestamp of their entity moved. The copies of documents recently written through this template are
+	 * deleted from the index they were written to, those of other documents are searched for, which only finds the
+	 * copies indexed before the last refresh.
+	 *
+	 * @param writes the index and routing each document was written with, by document id
+	 */
+	private void deleteStaleRollingCopies(ElasticsearchPersistentEntity persistentEntity,
+			final Map<String, RecentRollingWrites.Write> writes) {
+		String type = persistentEntity.getIndexType();
+		BulkRequestBuilder bulkRequest = client.prepareBulk();
+		List<String> unknownIds = new ArrayList<String>();
+		for (Map.Entry<String, RecentRollingWrites.Write> write : writes.entrySet()) {
+			RecentRollingWrites.Write previous = recentRollingWrites.put(persistentEntity, write.getKey(), write.getValue());
+			if (previous == null) {
+				unknownIds.add(write.getKey());
+			} else if (!previous.getIndex().equals(write.getValue().getIndex())) {
+				bulkRequest.add(client.prepareDelete(previous.getIndex(), type, write.getKey()).setRouting(
+						previous.getRouting()));
+			}
+		}
+		if (!unknownIds.isEmpty()) {
+			SearchResponse response = execute(Operation.SEARCH, readClient.prepareSearch(persistentEntity.getIndexName())
+					.setTypes(type).setIndicesOptions(IndicesOptions.lenientExpandOpen())
+					.setQuery(QueryBuilders.idsQuery(type).ids(unknownIds.toArray(new String[unknownIds.size()])))
+					// room for the written copy and a stale one of each document
+					.addField("_routing").setSize(2 * unknownIds.size()), persistentEntity.getIndexName());
+			for (SearchHit hit : response.getHits().getHits()) {
+				if (!hit.getIndex().equals(writes.get(hit.getId()).getIndex())) {
+					SearchHitField routing = hit.field("_routing");
+					bulkRequest.add(client.prepareDelete(hit.getIndex(), type, hit.getId()).setRouting(
+							routing != null ? String.valueOf(routing.getValue()) : null));
+				}
+			}
+		}
+		if (bulkRequest.numberOfActions() == 0) {
+			return;
+		}
+		BulkResponse bulkResponse = execute(Operation.BULK, bulkRequest, persistentEntity.getIndexName());
+		evictCachedResults(persistentEntity.getIndexName());
+		evictCachedDocuments(bulkResponse);
+	}
+
+	@Override
+	public BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, int bulkSize, int concurrentRequests) {
+		Assert.isTrue(bulkSize > 0, "bulkSize must be greater than 0");
+		Assert.isTrue(concurrentRequests > 0, "concurrentRequests must be greater than 0");
+		return bulkIndex(queries, AdaptiveBulkSizer.fixed(bulkSize, concurrentRequests));
+	}
+
+	@Override
+	public BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, AdaptiveBulkSizer bulkSizer) {
+		Assert.notNull(queries, "Queries must not be null!");
+		Assert.notNull(bulkSizer, "BulkSizer must not be null!");
+		return bulkIndex(queries, bulkSizer, new BulkIndexResult());
+	}
+
+	BulkIndexResult bulkIndex(Iterator<IndexQuery> queries, AdaptiveBulkSizer bulkSizer, BulkIndexResult result) {
+		BulkRequestSlots slots = new BulkRequestSlots();
+		long position = 0;
+		try {
+			while (queries.hasNext()) {
+				slots.acquire(bulkSizer);
+				int bulkSize = bulkSizer.getBulkSize();
+				long maxBulkSizeInBytes = bulkSizer.getMaxBulkSizeInBytes();
+				BulkChunkListener listener = new BulkChunkListener(result, slots, bulkSizer, bulkSize, position);
+				boolean sent = false;
+				try {
+					BulkRequestBuilder bulkRequest = client.prepareBulk();
+					while (bulkRequest.numberOfActions() < bulkSize && queries.hasNext()
+							&& bulkRequest.request().estimatedSizeInBytes() < maxBulkSizeInBytes) {
+						IndexQuery query = queries.next();
+						IndexRequestBuilder indexRequestBuilder = prepareIndex(query, listener.sourceBuffers);
+						addWrittenIndex(listener.indexNames, indexRequestBuilder.request().index(), query.getObject());
+						listener.ids.add(indexRequestBuilder.request().id());
+						bulkRequest.add(indexRequestBuilder);
+					}
+					position += listener.ids.size();
+					result.addBulk();
+					listener.sizeInBytes = bulkRequest.request().estimatedSizeInBytes();
+					listener.request = new RetryingBulkRequest(client, bulkRequest.request(), bulkRetryPolicy, listener,
+							getBulkRetryScheduler());
+					listener.request.execute();
+					sent = true;
+				} finally {
+					if (!sent) {
+						listener.release();
+					}
+				}
+			}
+			slots.awaitAll();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ElasticsearchException("Interrupted while bulk indexing", e);
+		}
+		return result;
+	}
+
+	@Override
+	public BulkLoadSession startBulkLoad(String indexName) {
+		return startBulkLoad(indexName, BulkLoadSession.INGEST_SETTINGS);
+	}
+
+	@Override
+	public BulkLoadSession startBulkLoad(String indexName, Map<String, String> ingestSettings) {
+		return new BulkLoadSession(this, client, indexName, ingestSettings, metadataCache);
+	}
+
+	@Override
+	public <T> BulkLoadSession startBulkLoad(Class<T> clazz) {
+		return startBulkLoad(getPersistentEntityFor(clazz).getIndexName());
+	}
+
+	@Override
+	public <T> String reindex(Class<T> clazz) {
+		return reindex(clazz, new ReindexOptions());
+	}
+
+	@Override
+	public <T> String reindex(Class<T> clazz, ReindexOptions options) {
+		Assert.notNull(options, "ReindexOptions must not be null!");
+		ElasticsearchPersistentEntity<T> persistentEntity = getPersistentEntityFor(clazz);
+		try {
+			return new AliasReindexer(this, client, options).reindex(persistentEntity.getIndexName(),
+					persistentEntity.getIndexType(), getSettingsFor(clazz), getMappingFor(clazz));
+		} finally {
+			// the alias moved to indices that are not all known here
+			if (metadataCache != null) {
+				metadataCache.clear();
 			}
-			throw new ElasticsearchException(
-					"Bulk indexing has failures. Use ElasticsearchException.getFailedDocuments() for detailed messages ["
-							+ failedDocuments + "]", failedDocuments
-			);
 		}
 	}
 
 	@Override
 	public void bulkUpdate(List<UpdateQuery> queries) {
 		BulkRequestBuilder bulkRequest = client.prepareBulk();
+		Set<String> indexNames = new HashSet<String>();
 		for (UpdateQuery query : queries) {
-			bulkRequest.add(prepareUpdate(query));
-		}
-		BulkResponse bulkResponse = bulkRequest.execute().actionGet();
-		if (bulkResponse.hasFailures()) {
-			Map<String, String> failedDocuments = new HashMap<String, String>();
-			for (BulkItemResponse item : bulkResponse.getItems()) {
-				if (item.isFailed())
-					failedDocuments.put(item.getId(), item.getFailureMessage());
-			}
-			throw new ElasticsearchException(
-					"Bulk indexing has failures. Use ElasticsearchException.getFailedDocuments() for detailed messages ["
-							+ failedDocuments + "]", failedDocuments
-			);
+			UpdateRequestBuilder updateRequestBuilder = prepareUpdate(query);
+			indexNames.add(updateRequestBuilder.request().index());
+			bulkRequest.add(updateRequestBuilder);
 		}
+		BulkResponse bulkResponse = executeBulk(bulkRequest);
+		evictCachedResults(indexNames.toArray(new String[indexNames.size()]));
+		evictCachedDocuments(bulkResponse);
+		checkForBulkFailures(bulkResponse);
 	}
 
 	@Override
@@ -612,62 +1402,134 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public boolean indexExists(String indexName) {
-		return client.admin().indices().exists(indicesExistsRequest(indexName)).actionGet().isExists();
+		return execute(Operation.ADMIN, client.admin().indices().prepareExists(indexName), indexName).isExists();
 	}
 
 	@Override
 	public boolean typeExists(String index, String type) {
-		return client.admin().cluster().prepareState().execute().actionGet()
-				.getState().metaData().index(index).mappings().containsKey(type);
+		return execute(Operation.ADMIN, client.admin().cluster().prepareState(), index).getState().metaData().index(index)
+				.mappings().containsKey(type);
 	}
 
 	@Override
 	public <T> boolean deleteIndex(Class<T> clazz) {
-		return deleteIndex(getPersistentEntityFor(clazz).getIndexName());
+		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
+		if (RollingIndices.isRolling(persistentEntity)) {
+			return deleteRollingIndices(persistentEntity);
+		}
+		return deleteIndex(persistentEntity.getIndexName());
+	}
+
+	/**
+	 * Delete the indices behind the alias of a rolling index that are named after one of its periods, rather than all
+	 * indices sharing the prefix of their names.
+	 */
+	private boolean deleteRollingIndices(ElasticsearchPersistentEntity persistentEntity) {
+		String aliasName = persistentEntity.getIndexName();
+		evictCachedResults(aliasName);
+		evictMetadata(aliasName);
+		boolean acknowledged = false;
+		Iterator<String> indices = execute(Operation.ADMIN, client.admin().indices().prepareGetAliases(aliasName),
+				aliasName).getAliases().keysIt();
+		while (indices.hasNext()) {
+			String index = indices.next();
+			if (RollingIndices.isIndexOf(persistentEntity, index)) {
+				acknowledged |= deleteIndex(index);
+			}
+		}
+		return acknowledged;
 	}
 
 	@Override
 	public boolean deleteIndex(String indexName) {
 		Assert.notNull(indexName, "No index defined for delete operation");
 		if (indexExists(indexName)) {
-			return client.admin().indices().delete(new DeleteIndexRequest(indexName)).actionGet().isAcknowledged();
+			boolean acknowledged = execute(Operation.ADMIN, client.admin().indices().prepareDelete(indexName), indexName)
+					.isAcknowledged();
+			evictCachedResults(indexName);
+			nearCache.evict(indexName);
+			evictMetadata(indexName);
+			// the documents of any rolling index may have been in it
+			recentRollingWrites.clear();
+			return acknowledged;
 		}
 		return false;
 	}
 
 	@Override
 	public void deleteType(String index, String type) {
-		ImmutableOpenMap<String, MappingMetaData> mappings = client.admin().cluster().prepareState().execute().actionGet()
-				.getState().metaData().index(index).mappings();
-		if (mappings.containsKey(type)) {
-			client.admin().indices().deleteMapping(new DeleteMappingRequest(index).types(type)).actionGet();
+		ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetaData>> mappings = execute(Operation.ADMIN,
+				client.admin().indices().prepareGetMappings(index).setTypes(type), index).getMappings();
+		if (mappings.containsKey(index) && mappings.get(index).containsKey(type)) {
+			execute(Operation.ADMIN, client.admin().indices().prepareDeleteMapping(index).setType(type), index);
+			evictCachedResults(index);
+			nearCache.evict(index);
+			evictMetadata(index);
 		}
 	}
 
 	@Override
 	public String delete(String indexName, String type, String id) {
-		return client.prepareDelete(indexName, type, id).execute().actionGet().getId();
+		return delete(indexName, type, id, null);
+	}
+
+	private String delete(String indexName, String type, String id, String routing) {
+		String documentId = execute(Operation.WRITE, client.prepareDelete(indexName, type, id).setRouting(routing),
+				indexName).getId();
+		evictCachedResults(indexName);
+		nearCache.evict(indexName, type, id);
+		return documentId;
 	}
 
 	@Override
 	public <T> String delete(Class<T> clazz, String id) {
+		return delete(clazz, id, null);
+	}
+
+	@Override
+	public <T> String delete(Class<T> clazz, String id, String routing) {
 		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
-		return delete(persistentEntity.getIndexName(), persistentEntity.getIndexType(), id);
+		String indexName = persistentEntity.getIndexName();
+		if (RollingIndices.isRolling(persistentEntity)) {
+			indexName = findRollingIndexOf(persistentEntity, id);
+			if (indexName == null) {
+				throw new ElasticsearchException("Cannot find the index of document [id: " + id + "] of "
+						+ clazz.getSimpleName() + ", it is missing or was not refreshed yet, delete the entity itself instead");
+			}
+			recentRollingWrites.remove(persistentEntity, id);
+		}
+		return delete(indexName, persistentEntity.getIndexType(), id, routing);
+	}
+
+	@Override
+	public String delete(Object entity) {
+		Assert.notNull(entity, "Cannot delete 'null' entity.");
+		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(entity.getClass());
+		String id = getPersistentEntityId(entity);
+		Assert.notNull(id, "Cannot delete an entity without id");
+		if (RollingIndices.isRolling(persistentEntity)) {
+			recentRollingWrites.remove(persistentEntity, id);
+		}
+		return delete(retrieveIndexNameFor(entity), persistentEntity.getIndexType(), id, retrieveRoutingFor(entity));
 	}
 
 	@Override
 	public <T> void delete(DeleteQuery deleteQuery, Class<T> clazz) {
 		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
-		client.prepareDeleteByQuery(persistentEntity.getIndexName()).setTypes(persistentEntity.getIndexType())
-				.setQuery(deleteQuery.getQuery()).execute().actionGet();
+		execute(Operation.WRITE, client.prepareDeleteByQuery(persistentEntity.getIndexName())
+				.setTypes(persistentEntity.getIndexType()).setQuery(deleteQuery.getQuery()), persistentEntity.getIndexName());
+		evictCachedResults(persistentEntity.getIndexName());
+		nearCache.evict(persistentEntity.getIndexName());
 	}
 
 	@Override
 	public void delete(DeleteQuery deleteQuery) {
 		Assert.notNull(deleteQuery.getIndex(), "No index defined for Query");
 		Assert.notNull(deleteQuery.getType(), "No type define for Query");
-		client.prepareDeleteByQuery(deleteQuery.getIndex()).setTypes(deleteQuery.getType())
-				.setQuery(deleteQuery.getQuery()).execute().actionGet();
+		execute(Operation.WRITE, client.prepareDeleteByQuery(deleteQuery.getIndex()).setTypes(deleteQuery.getType())
+				.setQuery(deleteQuery.getQuery()), deleteQuery.getIndex());
+		evictCachedResults(deleteQuery.getIndex());
+		nearCache.evict(deleteQuery.getIndex());
 	}
 
 	@Override
@@ -701,11 +1563,19 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	private <T> SearchRequestBuilder prepareScan(Query query, long scrollTimeInMillis, boolean noFields, Class<T> clazz) {
 		setPersistentEntityIndexAndType(query, clazz);
-		return prepareScan(query, scrollTimeInMillis, noFields);
+		SearchRequestBuilder requestBuilder = prepareScan(query, scrollTimeInMillis, noFields);
+		if (isRolling(clazz)) {
+			requestBuilder.setIndicesOptions(IndicesOptions.lenientExpandOpen());
+		}
+		String routing = retrieveRoutingFor(query, clazz);
+		if (routing != null) {
+			requestBuilder.setRouting(routing);
+		}
+		return requestBuilder;
 	}
 
 	private SearchRequestBuilder prepareScan(Query query, long scrollTimeInMillis, boolean noFields) {
-		SearchRequestBuilder requestBuilder = client.prepareSearch(toArray(query.getIndices())).setSearchType(SCAN)
+		SearchRequestBuilder requestBuilder = readClient.prepareSearch(toArray(query.getIndices())).setSearchType(SCAN)
 				.setTypes(toArray(query.getTypes()))
 				.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)).setFrom(0)
 				.setSize(query.getPageable().getPageSize());
@@ -714,9 +1584,22 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 			requestBuilder.addFields(toArray(query.getFields()));
 		}
 
+		if (query.getSourceFilter() != null) {
+			SourceFilter sourceFilter = query.getSourceFilter();
+			requestBuilder.setFetchSource(sourceFilter.getIncludes(), sourceFilter.getExcludes());
+		}
+
 		if (noFields) {
 			requestBuilder.setNoFields();
 		}
+
+		if (query.getPreference() != null) {
+			requestBuilder.setPreference(query.getPreference());
+		}
+
+		if (query.getRoute() != null) {
+			requestBuilder.setRouting(query.getRoute());
+		}
 		return requestBuilder;
 	}
 
@@ -728,17 +1611,9 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		QueryBuilder elasticsearchQuery = new CriteriaQueryProcessor().createQueryFromCriteria(criteriaQuery.getCriteria());
 		FilterBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
 
-		if (elasticsearchQuery != null) {
-			requestBuilder.setQuery(elasticsearchQuery);
-		} else {
-			requestBuilder.setQuery(QueryBuilders.matchAllQuery());
-		}
-
-		if (elasticsearchFilter != null) {
-			requestBuilder.setPostFilter(elasticsearchFilter);
-		}
+		requestBuilder.setQuery(filteredQuery(elasticsearchQuery, elasticsearchFilter));
 
-		return getSearchResponse(requestBuilder.execute()).getScrollId();
+		return getSearchResponse(requestBuilder).getScrollId();
 	}
 
 	private String doScan(SearchRequestBuilder requestBuilder, SearchQuery searchQuery) {
@@ -746,24 +1621,22 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		Assert.notNull(searchQuery.getTypes(), "No type define for Query");
 		Assert.notNull(searchQuery.getPageable(), "Query.pageable is required for scan & scroll");
 
-		if (searchQuery.getFilter() != null) {
-			requestBuilder.setPostFilter(searchQuery.getFilter());
-		}
+		requestBuilder.setQuery(filteredQuery(searchQuery.getQuery(), searchQuery.getFilter()));
 
-		return getSearchResponse(requestBuilder.setQuery(searchQuery.getQuery()).execute()).getScrollId();
+		return getSearchResponse(requestBuilder).getScrollId();
 	}
 
 	@Override
 	public <T> Page<T> scroll(String scrollId, long scrollTimeInMillis, Class<T> clazz) {
-		SearchResponse response = getSearchResponse(client.prepareSearchScroll(scrollId)
-				.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)).execute());
+		SearchResponse response = getSearchResponse(readClient.prepareSearchScroll(scrollId)
+				.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)));
 		return resultsMapper.mapResults(response, clazz, null);
 	}
 
 	@Override
 	public <T> Page<T> scroll(String scrollId, long scrollTimeInMillis, SearchResultMapper mapper) {
-		SearchResponse response = getSearchResponse(client.prepareSearchScroll(scrollId)
-				.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)).execute());
+		SearchResponse response = getSearchResponse(readClient.prepareSearchScroll(scrollId)
+				.setScroll(TimeValue.timeValueMillis(scrollTimeInMillis)));
 		return mapper.mapResults(response, null, null);
 	}
 
@@ -778,7 +1651,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		Assert.notNull(type, "No 'type' defined for MoreLikeThisQuery");
 		Assert.notNull(query.getId(), "No document id defined for MoreLikeThisQuery");
 
-		MoreLikeThisRequestBuilder requestBuilder = client.prepareMoreLikeThis(indexName, type, query.getId());
+		MoreLikeThisRequestBuilder requestBuilder = readClient.prepareMoreLikeThis(indexName, type, query.getId());
 
 		if (query.getPageable() != null) {
 			startRecord = query.getPageable().getPageNumber() * query.getPageable().getPageSize();
@@ -826,12 +1699,13 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 			requestBuilder.setBoostTerms(query.getBoostTerms());
 		}
 
-		SearchResponse response = getSearchResponse(requestBuilder.execute());
+		SearchResponse response = getSearchResponse(requestBuilder);
 		return resultsMapper.mapResults(response, clazz, query.getPageable());
 	}
 
 	private SearchResponse doSearch(SearchRequestBuilder searchRequest, SearchQuery searchQuery) {
-		if (searchQuery.getFilter() != null) {
+		boolean postFilter = searchQuery.getFilter() != null && needsPostFilter(searchQuery);
+		if (postFilter) {
 			searchRequest.setPostFilter(searchQuery.getFilter());
 		}
 
@@ -869,11 +1743,326 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 				searchRequest.addAggregation(aggregationBuilder);
 			}
 		}
-		return getSearchResponse(searchRequest.setQuery(searchQuery.getQuery()).execute());
+		return executeSearch(searchRequest.setQuery(postFilter ? searchQuery.getQuery() : filteredQuery(
+				searchQuery.getQuery(), searchQuery.getFilter())));
+	}
+
+	private SearchResponse executeSearch(SearchRequestBuilder searchRequest) {
+		// the builder serialises its source again on every call to request(), the request is built once and sent as is
+		final SearchRequest request = searchRequest.request();
+		if (resultCache == null && inFlightSearches == null) {
+			return execute(Operation.SEARCH, new RequestGuard.Request<SearchResponse>() {
+				@Override
+				public void send(ActionListener<SearchResponse> listener) {
+					search(request, listener);
+				}
+			}, request.indices());
+		}
+		final String requestKey = SearchResultCache.keyFor(request);
+		SearchResponse response = resultCache != null ? resultCache.get(requestKey) : null;
+		if (response == null) {
+			response = execute(Operation.SEARCH, new RequestGuard.Request<SearchResponse>() {
+				@Override
+				public void send(ActionListener<SearchResponse> listener) {
+					executeOnce(requestKey, request, listener);
+				}
+			}, request.indices());
+			if (resultCache != null) {
+				resultCache.put(requestKey, withConcreteIndices(request.indices(), response), response);
+			}
+		}
+		return response;
+	}
+
+	/**
+	 * @return the given index names with the indices the aliases among them point to, so that writes reported on those
+	 *         indices evict the responses read through the aliases. Without a metadata cache to resolve the aliases
+	 *         through, only the indices of the returned hits are known.
+	 */
+	private String[] withConcreteIndices(String[] indexNames, SearchResponse response) {
+		if (indexNames == null || indexNames.length == 0) {
+			return indexNames;
+		}
+		for (String indexName : indexNames) {
+			if (MetaData.ALL.equals(indexName) || Regex.isSimpleMatchPattern(indexName)) {
+				// evicted by writes to any index anyway
+				return indexNames;
+			}
+		}
+		Set<String> names = new LinkedHashSet<String>(Arrays.asList(indexNames));
+		if (metadataCache != null) {
+			for (String indexName : indexNames) {
+				names.addAll(getConcreteIndices(indexName));
+			}
+		} else {
+			for (SearchHit hit : response.getHits()) {
+				names.add(hit.getIndex());
+			}
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	private Set<String> getConcreteIndices(String indexName) {
+		Set<String> indices = metadataCache.getIndices(indexName);
+		if (indices == null) {
+			GetIndexResponse response = execute(Operation.ADMIN, client.admin().indices().prepareGetIndex()
+					.setIndices(indexName).setFeatures(GetIndexRequest.Feature.ALIASES)
+					.setIndicesOptions(IndicesOptions.lenientExpandOpen()), indexName);
+			indices = Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(response.indices())));
+			metadataCache.putIndices(indexName, indices);
+		}
+		return indices;
+	}
+
+	private void executeOnce(final String requestKey, SearchRequest request, ActionListener<SearchResponse> caller) {
+		final ConcurrentMap<String, PlainListenableActionFuture<SearchResponse>> searches = inFlightSearches;
+		if (searches == null) {
+			search(request, caller);
+			return;
+		}
+		final PlainListenableActionFuture<SearchResponse> future = new PlainListenableActionFuture<SearchResponse>(false,
+				client.threadPool());
+		PlainListenableActionFuture<SearchResponse> inFlight = searches.putIfAbsent(requestKey, future);
+		if (inFlight != null) {
+			inFlight.addListener(caller);
+			return;
+		}
+		future.addListener(caller);
+		ActionListener<SearchResponse> listener = new ActionListener<SearchResponse>() {
+			@Override
+			public void onResponse(SearchResponse response) {
+				searches.remove(requestKey, future);
+				future.onResponse(response);
+			}
+
+			@Override
+			public void onFailure(Throwable e) {
+				searches.remove(requestKey, future);
+				future.onFailure(e);
+			}
+		};
+		search(request, listener);
+	}
+
+	private void search(SearchRequest request, ActionListener<SearchResponse> listener) {
+		if (requestHedger != null && request.preference() == null) {
+			requestHedger.execute(Kind.SEARCH, hedgedSearch(request), listener);
+		} else {
+			readClient.search(request, listener);
+		}
+	}
+
+	private RequestHedger.Request<SearchResponse> hedgedSearch(final SearchRequest request) {
+		return new RequestHedger.Request<SearchResponse>() {
+			@Override
+			public void send(String preference, ActionListener<SearchResponse> listener) {
+				if (preference == null) {
+					readClient.search(request, listener);
+				} else {
+					readClient.search(new SearchRequest(request, request).preference(preference), listener);
+				}
+			}
+		};
+	}
+
+	private <T> RequestGuard.Request<T> hedged(final Kind kind, final RequestHedger.Request<T> request) {
+		return new RequestGuard.Request<T>() {
+			@Override
+			public void send(ActionListener<T> listener) {
+				requestHedger.execute(kind, request, listener);
+			}
+		};
+	}
+
+	private SearchResponse getSearchResponse(ActionRequestBuilder<?, SearchResponse, ?, ?> requestBuilder) {
+		String[] indices = requestBuilder instanceof SearchRequestBuilder ? ((SearchRequestBuilder) requestBuilder)
+				.request().indices() : null;
+		return execute(Operation.SEARCH, requestBuilder, indices);
+	}
+
+	private <T extends ActionResponse> T execute(Operation operation,
+			final ActionRequestBuilder<?, T, ?, ?> requestBuilder, String... indices) {
+		return execute(operation, new RequestGuard.Request<T>() {
+			@Override
+			public void send(ActionListener<T> listener) {
+				requestBuilder.execute(listener);
+			}
+		}, indices);
+	}
+
+	private <T> T execute(Operation operation, RequestGuard.Request<T> request, String... indices) {
+		if (requestGuard != null) {
+			return requestGuard.execute(operation, request, indices);
+		}
+		PlainActionFuture<T> response = PlainActionFuture.newFuture();
+		request.send(response);
+		return operation == Operation.SEARCH && searchTimeout != null ? response.actionGet(searchTimeout) : response
+				.actionGet();
+	}
+
+	private BulkResponse executeBulk(BulkRequestBuilder bulkRequest) {
+		final BulkRequest request = bulkRequest.request();
+		Set<String> indices = new HashSet<String>();
+		for (ActionRequest item : request.requests()) {
+			if (item instanceof IndicesRequest) {
+				Collections.addAll(indices, ((IndicesRequest) item).indices());
+			}
+		}
+		return execute(Operation.BULK, new RequestGuard.Request<BulkResponse>() {
+			@Override
+			public void send(ActionListener<BulkResponse> listener) {
+				new RetryingBulkRequest(client, request, bulkRetryPolicy, listener, getBulkRetryScheduler()).execute();
+			}
+		}, indices.toArray(new String[indices.size()]));
+	}
+
+	private void checkForBulkFailures(BulkResponse bulkResponse) {
+		if (bulkResponse.hasFailures()) {
+			Map<String, String> failedDocuments = new HashMap<String, String>();
+			Set<String> rejectedDocuments = new HashSet<String>();
+			for (BulkItemResponse item : bulkResponse.getItems()) {
+				if (item.isFailed()) {
+					failedDocuments.put(item.getId(), item.getFailureMessage());
+					if (bulkRetryPolicy.isRetryable(item)) {
+						rejectedDocuments.add(item.getId());
+					}
+				}
+			}
+			String rejected = rejectedDocuments.isEmpty() ? "" : " (" + rejectedDocuments.size()
+					+ " still rejected after " + bulkRetryPolicy.getMaxRetries() + " retries: " + rejectedDocuments + ")";
+			throw new ElasticsearchException(
+					"Bulk indexing has failures. Use ElasticsearchException.getFailedDocuments() for detailed messages ["
+							+ failedDocuments + "]" + rejected, failedDocuments
+			);
+		}
+	}
+
+	/**
+	 * Collect the index a document was written to and, for entities with rolling indices, the alias they are searched
+	 * through, as cached searches resolved that alias before the index of a new period existed.
+	 */
+	private void addWrittenIndex(Set<String> indexNames, String indexName, Object entity) {
+		indexNames.add(indexName);
+		if (entity != null && isRolling(entity.getClass())) {
+			indexNames.add(getPersistentEntityFor(entity.getClass()).getIndexName());
+		}
+	}
+
+	private void evictCachedResults(String... indexNames) {
+		if (resultCache != null) {
+			resultCache.evict(indexNames);
+		}
+	}
+
+	private void evictMetadata(String... indexNames) {
+		if (metadataCache != null) {
+			metadataCache.evict(indexNames);
+		}
+	}
+
+	private void evictCachedDocuments(BulkResponse bulkResponse) {
+		for (BulkItemResponse item : bulkResponse.getItems()) {
+			nearCache.evict(item.getIndex(), item.getType(), item.getId());
+		}
+	}
+
+	/**
+	 * Records the outcome of one chunk of a streamed bulk index and hands its request slot back once done.
+	 */
+	private class BulkChunkListener implements ActionListener<BulkResponse> {
+
+		private final BulkIndexResult result;
+		private final BulkRequestSlots slots;
+		private final AdaptiveBulkSizer bulkSizer;
+		private final List<SourceBuffer> sourceBuffers;
+		private final List<String> ids;
+		private final long firstPosition;
+		private final Set<String> indexNames = new HashSet<String>();
+		private RetryingBulkRequest request;
+		private long sizeInBytes;
+
+		BulkChunkListener(BulkIndexResult result, BulkRequestSlots slots, AdaptiveBulkSizer bulkSizer, int bulkSize,
+				long firstPosition) {
+			this.result = result;
+			this.slots = slots;
+			this.bulkSizer = bulkSizer;
+			this.sourceBuffers = new ArrayList<SourceBuffer>(bulkSize);
+			this.ids = new ArrayList<String>(bulkSize);
+			this.firstPosition = firstPosition;
+		}
+
+		@Override
+		public void onResponse(BulkResponse bulkResponse) {
+			try {
+				evictCachedResults(indexNames.toArray(new String[indexNames.size()]));
+				evictCachedDocuments(bulkResponse);
+				boolean rejected = request.getRetries() > 0;
+				for (BulkItemResponse item : bulkResponse.getItems()) {
+					if (bulkRetryPolicy.isRetryable(item)) {
+						rejected = true;
+						result.addRejection(item.getId(), firstPosition + item.getItemId(), item.getFailureMessage());
+					} else if (item.isFailed()) {
+						result.addFailure(item.getId(), firstPosition + item.getItemId(), item.getFailureMessage(), item
+								.getFailure().getStatus());
+					} else {
+						result.addSuccess();
+					}
+				}
+				bulkSizer.onBulkResponse(ids.size(), sizeInBytes, bulkResponse.getTookInMillis(), rejected);
+			} finally {
+				release();
+			}
+		}
+
+		@Override
+		public void onFailure(Throwable e) {
+			try {
+				logger.warn("Bulk request of " + ids.size() + " documents failed", e);
+				evictCachedResults(indexNames.toArray(new String[indexNames.size()]));
+				boolean rejected = bulkRetryPolicy.isRetryable(e);
+				for (int i = 0; i < ids.size(); i++) {
+					if (rejected) {
+						result.addRejection(ids.get(i), firstPosition + i, e.getMessage());
+					} else {
+						result.addFailure(ids.get(i), firstPosition + i, e.getMessage());
+					}
+				}
+				bulkSizer.onBulkFailure(rejected);
+			} finally {
+				release();
+			}
+		}
+
+		void release() {
+			sourceBufferPool.release(sourceBuffers);
+			slots.release();
+		}
 	}
 
-	private SearchResponse getSearchResponse(ListenableActionFuture<SearchResponse> response) {
-		return searchTimeout == null ? response.actionGet() : response.actionGet(searchTimeout);
+	/**
+	 * Bounds the bulk requests in flight of a streamed bulk index to the current setting of its sizer.
+	 */
+	private static class BulkRequestSlots {
+
+		private int inFlight;
+
+		synchronized void acquire(AdaptiveBulkSizer bulkSizer) throws InterruptedException {
+			while (inFlight >= bulkSizer.getConcurrentRequests()) {
+				wait();
+			}
+			inFlight++;
+		}
+
+		synchronized void release() {
+			inFlight--;
+			notifyAll();
+		}
+
+		synchronized void awaitAll() throws InterruptedException {
+			while (inFlight > 0) {
+				wait();
+			}
+		}
 	}
 
 	private <T> boolean createIndexIfNotCreated(Class<T> clazz) {
@@ -881,22 +2070,33 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 	}
 
 	private <T> boolean createIndexWithSettings(Class<T> clazz) {
+		return createIndex(getPersistentEntityFor(clazz).getIndexName(), getSettingsFor(clazz));
+	}
+
+	private <T> Object getSettingsFor(Class<T> clazz) {
 		if (clazz.isAnnotationPresent(Setting.class)) {
 			String settingPath = clazz.getAnnotation(Setting.class).settingPath();
 			if (isNotBlank(settingPath)) {
 				String settings = readFileFromClasspath(settingPath);
 				if (isNotBlank(settings)) {
-					return createIndex(getPersistentEntityFor(clazz).getIndexName(), settings);
+					return settings;
 				}
 			} else {
 				logger.info("settingPath in @Setting has to be defined. Using default instead.");
 			}
 		}
-		return createIndex(getPersistentEntityFor(clazz).getIndexName(), getDefaultSettings(getPersistentEntityFor(clazz)));
+		return getDefaultSettings(getPersistentEntityFor(clazz));
 	}
 
 	@Override
 	public boolean createIndex(String indexName, Object settings) {
+		boolean acknowledged = execute(Operation.ADMIN, prepareCreateIndex(indexName, settings), indexName)
+				.isAcknowledged();
+		evictMetadata(indexName);
+		return acknowledged;
+	}
+
+	private CreateIndexRequestBuilder prepareCreateIndex(String indexName, Object settings) {
 		CreateIndexRequestBuilder createIndexRequestBuilder = client.admin().indices().prepareCreate(indexName);
 		if (settings instanceof String) {
 			createIndexRequestBuilder.setSettings(String.valueOf(settings));
@@ -905,7 +2105,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		} else if (settings instanceof XContentBuilder) {
 			createIndexRequestBuilder.setSettings((XContentBuilder) settings);
 		}
-		return createIndexRequestBuilder.execute().actionGet().isAcknowledged();
+		return createIndexRequestBuilder;
 	}
 
 	@Override
@@ -932,13 +2132,41 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 	@Override
 	public Map getSetting(String indexName) {
 		Assert.notNull(indexName, "No index defined for getSettings");
-		return client.admin().indices().getSettings(new GetSettingsRequest())
-				.actionGet().getIndexToSettings().get(indexName).getAsMap();
+		Map settings = metadataCache != null ? metadataCache.getSettings(indexName) : null;
+		if (settings != null) {
+			return new LinkedHashMap(settings);
+		}
+		ImmutableOpenMap<String, Settings> indexToSettings = execute(Operation.ADMIN,
+				client.admin().indices().prepareGetSettings(indexName), indexName).getIndexToSettings();
+		Settings indexSettings = indexToSettings.get(indexName);
+		if (indexSettings == null && indexToSettings.size() == 1) {
+			// the name of an alias pointing to a single index
+			indexSettings = indexToSettings.valuesIt().next();
+		}
+		if (indexSettings == null) {
+			throw new ElasticsearchException("Cannot get the settings of [" + indexName + "], it "
+					+ (indexToSettings.isEmpty() ? "matches no index" : "points to several indices "
+							+ Arrays.toString(indexToSettings.keys().toArray(String.class))));
+		}
+		settings = indexSettings.getAsMap();
+		if (metadataCache != null) {
+			metadataCache.putSettings(indexName, settings, indexToSettings.keys().toArray(String.class));
+		}
+		return new LinkedHashMap(settings);
 	}
 
 	private <T> SearchRequestBuilder prepareSearch(Query query, Class<T> clazz) {
 		setPersistentEntityIndexAndType(query, clazz);
-		return prepareSearch(query);
+		SearchRequestBuilder searchRequestBuilder = prepareSearch(query);
+		if (isRolling(clazz)) {
+			// indices of periods without documents are never created
+			searchRequestBuilder.setIndicesOptions(IndicesOptions.lenientExpandOpen());
+		}
+		String routing = retrieveRoutingFor(query, clazz);
+		if (routing != null) {
+			searchRequestBuilder.setRouting(routing);
+		}
+		return searchRequestBuilder;
 	}
 
 	private SearchRequestBuilder prepareSearch(Query query) {
@@ -946,7 +2174,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		Assert.notNull(query.getTypes(), "No type defined for Query");
 
 		int startRecord = 0;
-		SearchRequestBuilder searchRequestBuilder = client.prepareSearch(toArray(query.getIndices()))
+		SearchRequestBuilder searchRequestBuilder = readClient.prepareSearch(toArray(query.getIndices()))
 				.setSearchType(query.getSearchType()).setTypes(toArray(query.getTypes()));
 
 		if (query.getPageable() != null) {
@@ -959,6 +2187,11 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 			searchRequestBuilder.addFields(toArray(query.getFields()));
 		}
 
+		if (query.getSourceFilter() != null) {
+			SourceFilter sourceFilter = query.getSourceFilter();
+			searchRequestBuilder.setFetchSource(sourceFilter.getIncludes(), sourceFilter.getExcludes());
+		}
+
 		if (query.getSort() != null) {
 			for (Sort.Order order : query.getSort()) {
 				searchRequestBuilder.addSort(order.getProperty(), order.getDirection() == Sort.Direction.DESC ? SortOrder.DESC
@@ -969,13 +2202,28 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		if (query.getMinScore() > 0) {
 			searchRequestBuilder.setMinScore(query.getMinScore());
 		}
+
+		if (query.getPreference() != null) {
+			searchRequestBuilder.setPreference(query.getPreference());
+		}
+
+		if (query.getRoute() != null) {
+			searchRequestBuilder.setRouting(query.getRoute());
+		}
 		return searchRequestBuilder;
 	}
 
 	private IndexRequestBuilder prepareIndex(IndexQuery query) {
+		return prepareIndex(query, null);
+	}
+
+	/**
+	 * @param sourceBuffers collects the pooled buffers the source is serialised into, {@literal null} to serialise the
+	 *          source without pooled buffers
+	 */
+	private IndexRequestBuilder prepareIndex(IndexQuery query, List<SourceBuffer> sourceBuffers) {
 		try {
-			String indexName = isBlank(query.getIndexName()) ? retrieveIndexNameFromPersistentEntity(query.getObject()
-					.getClass())[0] : query.getIndexName();
+			String indexName = isBlank(query.getIndexName()) ? retrieveIndexNameFor(query.getObject()) : query.getIndexName();
 			String type = isBlank(query.getType()) ? retrieveTypeFromPersistentEntity(query.getObject().getClass())[0]
 					: query.getType();
 
@@ -992,7 +2240,22 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 				} else {
 					indexRequestBuilder = client.prepareIndex(indexName, type);
 				}
-				indexRequestBuilder.setSource(resultsMapper.getEntityMapper().mapToString(query.getObject()));
+				XContentType sourceEncoding = isDocument(query.getObject().getClass()) ? getPersistentEntityFor(
+						query.getObject().getClass()).getSourceEncoding() : XContentType.JSON;
+				EntityMapper entityMapper = resultsMapper.getEntityMapper();
+				if (sourceBuffers != null && entityMapper instanceof XContentEntityMapper) {
+					SourceBuffer sourceBuffer = sourceBufferPool.acquire();
+					sourceBuffers.add(sourceBuffer);
+					((XContentEntityMapper) entityMapper).mapToStream(query.getObject(), sourceEncoding, sourceBuffer);
+					indexRequestBuilder.setSource(sourceBuffer.bytes());
+				} else if (sourceEncoding != XContentType.JSON && entityMapper instanceof XContentEntityMapper) {
+					indexRequestBuilder.setSource(((XContentEntityMapper) entityMapper).mapToBytes(query.getObject(),
+							sourceEncoding));
+				} else {
+					indexRequestBuilder.setSource(entityMapper.mapToString(query.getObject()));
+				}
+			} else if (query.getSourceRef() != null) {
+				indexRequestBuilder = client.prepareIndex(indexName, type, query.getId()).setSource(query.getSourceRef());
 			} else if (query.getSource() != null) {
 				indexRequestBuilder = client.prepareIndex(indexName, type, query.getId()).setSource(query.getSource());
 			} else {
@@ -1007,6 +2270,11 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 				indexRequestBuilder.setParent(query.getParentId());
 			}
 
+			String routing = query.getRouting() != null ? query.getRouting() : retrieveRoutingFor(query.getObject());
+			if (routing != null) {
+				indexRequestBuilder.setRouting(routing);
+			}
+
 			return indexRequestBuilder;
 		} catch (IOException e) {
 			throw new ElasticsearchException("failed to index the document [id: " + query.getId() + "]", e);
@@ -1015,14 +2283,16 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	@Override
 	public void refresh(String indexName, boolean waitForOperation) {
-		client.admin().indices().refresh(refreshRequest(indexName).force(waitForOperation)).actionGet();
+		execute(Operation.ADMIN, client.admin().indices().prepareRefresh(indexName).setForce(waitForOperation), indexName);
+		evictCachedResults(indexName);
 	}
 
 	@Override
 	public <T> void refresh(Class<T> clazz, boolean waitForOperation) {
 		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
-		client.admin().indices()
-				.refresh(refreshRequest(persistentEntity.getIndexName()).force(waitForOperation)).actionGet();
+		execute(Operation.ADMIN, client.admin().indices().prepareRefresh(persistentEntity.getIndexName())
+				.setForce(waitForOperation), persistentEntity.getIndexName());
+		evictCachedResults(persistentEntity.getIndexName());
 	}
 
 	@Override
@@ -1041,23 +2311,52 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		} else if (isNotBlank(query.getIndexRouting())) {
 			aliasAction.indexRouting(query.getIndexRouting());
 		}
-		return client.admin().indices().prepareAliases().addAliasAction(aliasAction).execute().actionGet().isAcknowledged();
+		boolean acknowledged = execute(Operation.ADMIN, client.admin().indices().prepareAliases()
+				.addAliasAction(aliasAction), query.getIndexName(), query.getAliasName()).isAcknowledged();
+		evictAlias(query.getIndexName(), query.getAliasName());
+		return acknowledged;
 	}
 
 	@Override
 	public Boolean removeAlias(AliasQuery query) {
 		Assert.notNull(query.getIndexName(), "No index defined for Alias");
 		Assert.notNull(query.getAliasName(), "No alias defined");
-		return client.admin().indices().prepareAliases().removeAlias(query.getIndexName(), query.getAliasName())
-				.execute().actionGet().isAcknowledged();
+		boolean acknowledged = execute(Operation.ADMIN, client.admin().indices().prepareAliases()
+				.removeAlias(query.getIndexName(), query.getAliasName()), query.getIndexName(), query.getAliasName())
+				.isAcknowledged();
+		evictAlias(query.getIndexName(), query.getAliasName());
+		return acknowledged;
+	}
+
+	/**
+	 * Evict what was read through an alias, which now points to other indices.
+	 */
+	private void evictAlias(String indexName, String aliasName) {
+		evictCachedResults(indexName, aliasName);
+		nearCache.evict(aliasName);
+		evictMetadata(indexName, aliasName);
 	}
 
 	@Override
 	public Set<String> queryForAlias(String indexName) {
-		ClusterStateRequest clusterStateRequest = Requests.clusterStateRequest()
-				.routingTable(true).nodes(true).indices(indexName);
-		Iterator<String> iterator = client.admin().cluster().state(clusterStateRequest).actionGet().getState().getMetaData().aliases().keysIt();
-		return newHashSet(iterator);
+		Set<String> aliases = metadataCache != null ? metadataCache.getAliases(indexName) : null;
+		if (aliases != null) {
+			return new HashSet<String>(aliases);
+		}
+		aliases = new HashSet<String>();
+		ImmutableOpenMap<String, List<AliasMetaData>> indexToAliases = execute(Operation.ADMIN,
+				client.admin().indices().prepareGetAliases().setIndices(indexName), indexName).getAliases();
+		Iterator<List<AliasMetaData>> iterator = indexToAliases.valuesIt();
+		while (iterator.hasNext()) {
+			for (AliasMetaData aliasMetaData : iterator.next()) {
+				aliases.add(aliasMetaData.alias());
+			}
+		}
+		if (metadataCache != null) {
+			metadataCache.putAliases(indexName, Collections.unmodifiableSet(new HashSet<String>(aliases)),
+					indexToAliases.keys().toArray(String.class));
+		}
+		return aliases;
 	}
 
 	@Override
@@ -1102,7 +2401,7 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 
 	private void setPersistentEntityIndexAndType(Query query, Class clazz) {
 		if (query.getIndices().isEmpty()) {
-			query.addIndices(retrieveIndexNameFromPersistentEntity(clazz));
+			query.addIndices(retrieveIndexNamesFor(query, clazz));
 		}
 		if (query.getTypes().isEmpty()) {
 			query.addTypes(retrieveTypeFromPersistentEntity(clazz));
@@ -1116,6 +2415,153 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		return null;
 	}
 
+	/**
+	 * @return the indices the query has to search, only the indices of the periods in range for a criteria query on a
+	 *         rolling index
+	 */
+	private String[] retrieveIndexNamesFor(Query query, Class clazz) {
+		if (clazz != null && query instanceof CriteriaQuery) {
+			ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
+			if (RollingIndices.isRolling(persistentEntity)) {
+				String[] indexNames = RollingIndices.indexNamesFor(persistentEntity, ((CriteriaQuery) query).getCriteria());
+				if (indexNames != null) {
+					return indexNames;
+				}
+			}
+		}
+		return retrieveIndexNameFromPersistentEntity(clazz);
+	}
+
+	/**
+	 * @return the index the entity is written to
+	 */
+	private String retrieveIndexNameFor(Object entity) {
+		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(entity.getClass());
+		if (RollingIndices.isRolling(persistentEntity)) {
+			return RollingIndices.indexNameFor(persistentEntity, entity);
+		}
+		return persistentEntity.getIndexName();
+	}
+
+	/**
+	 * @return the index holding the document with the given id
+	 */
+	private String retrieveIndexNameFor(Class clazz, String id) {
+		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
+		if (!RollingIndices.isRolling(persistentEntity)) {
+			return persistentEntity.getIndexName();
+		}
+		String indexName = findRollingIndexOf(persistentEntity, id);
+		if (indexName == null) {
+			throw new ElasticsearchException("Cannot find the index of document [id: " + id
+					+ "], set the index name of the query");
+		}
+		return indexName;
+	}
+
+	/**
+	 * Find the index a document with the given id was written to, among the indices of a rolling index. Documents
+	 * recently written through this template are found without a search, others are searched for, which only finds the
+	 * documents indexed before the last refresh.
+	 *
+	 * @return the name of the index, {@literal null} if no index holds the document
+	 */
+	private String findRollingIndexOf(ElasticsearchPersistentEntity persistentEntity, String id) {
+		RecentRollingWrites.Write write = recentRollingWrites.get(persistentEntity, id);
+		if (write != null) {
+			return write.getIndex();
+		}
+		SearchResponse response = execute(Operation.SEARCH, readClient.prepareSearch(persistentEntity.getIndexName())
+				.setTypes(persistentEntity.getIndexType()).setIndicesOptions(IndicesOptions.lenientExpandOpen())
+				.setQuery(QueryBuilders.idsQuery(persistentEntity.getIndexType()).ids(id)).setNoFields().setSize(1),
+				persistentEntity.getIndexName());
+		SearchHit[] hits = response.getHits().getHits();
+		return hits.length > 0 ? hits[0].getIndex() : null;
+	}
+
+	/**
+	 * @return the routing value of the entity, {@literal null} if it is not routed by one of its properties
+	 */
+	private String retrieveRoutingFor(Object entity) {
+		if (entity == null || !isDocument(entity.getClass())) {
+			return null;
+		}
+		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(entity.getClass());
+		ElasticsearchPersistentProperty routingProperty = persistentEntity.getRoutingProperty();
+		if (routingProperty == null) {
+			return null;
+		}
+		Object routing = persistentEntity.getPropertyAccessor(entity).getProperty(routingProperty);
+		return routing != null ? String.valueOf(routing) : null;
+	}
+
+	/**
+	 * @return the route of the query or, for a criteria query whose {@code AND} chain matches a single value of the
+	 *         routing property, that value, so that only the shard holding the matching documents is searched
+	 */
+	private String retrieveRoutingFor(Query query, Class clazz) {
+		if (query.getRoute() != null) {
+			return query.getRoute();
+		}
+		if (clazz == null || !(query instanceof CriteriaQuery) || ((CriteriaQuery) query).getCriteria() == null) {
+			return null;
+		}
+		ElasticsearchPersistentProperty routingProperty = getPersistentEntityFor(clazz).getRoutingProperty();
+		if (routingProperty == null) {
+			return null;
+		}
+		String routing = null;
+		for (Criteria criteria : ((CriteriaQuery) query).getCriteria().getCriteriaChain()) {
+			if (criteria.isOr()) {
+				return null;
+			}
+			if (criteria.isNegating() || criteria.getField() == null
+					|| !routingProperty.getFieldName().equals(criteria.getField().getName())) {
+				continue;
+			}
+			for (Criteria.CriteriaEntry entry : criteria.getQueryCriteriaEntries()) {
+				if (entry.getKey() == Criteria.OperationKey.EQUALS && entry.getValue() != null) {
+					routing = String.valueOf(entry.getValue());
+				}
+			}
+		}
+		return routing;
+	}
+
+	private boolean isRolling(Class clazz) {
+		return clazz != null && isDocument(clazz) && RollingIndices.isRolling(getPersistentEntityFor(clazz));
+	}
+
+	/**
+	 * Put the index template creating the indices of a rolling index with the settings and mapping of the entity, and
+	 * adding them to the alias named after the index name of the entity.
+	 */
+	private <T> boolean putRollingIndexTemplate(Class<T> clazz) {
+		return execute(Operation.ADMIN, preparePutRollingIndexTemplate(clazz), getPersistentEntityFor(clazz).getIndexName())
+				.isAcknowledged();
+	}
+
+	private <T> PutIndexTemplateRequestBuilder preparePutRollingIndexTemplate(Class<T> clazz) {
+		ElasticsearchPersistentEntity<T> persistentEntity = getPersistentEntityFor(clazz);
+		PutIndexTemplateRequestBuilder requestBuilder = client.admin().indices()
+				.preparePutTemplate(persistentEntity.getIndexName())
+				.setTemplate(RollingIndices.indexPattern(persistentEntity))
+				.addAlias(new Alias(persistentEntity.getIndexName()));
+		Object settings = getSettingsFor(clazz);
+		if (settings instanceof String) {
+			requestBuilder.setSettings(String.valueOf(settings));
+		} else if (settings instanceof Map) {
+			requestBuilder.setSettings((Map) settings);
+		}
+		Object mapping = getMappingFor(clazz);
+		if (mapping instanceof String) {
+			requestBuilder.addMapping(persistentEntity.getIndexType(), String.valueOf(mapping));
+		} else if (mapping instanceof XContentBuilder) {
+			requestBuilder.addMapping(persistentEntity.getIndexType(), (XContentBuilder) mapping);
+		}
+		return requestBuilder;
+	}
+
 	private String[] retrieveTypeFromPersistentEntity(Class clazz) {
 		if (clazz != null) {
 			return new String[]{getPersistentEntityFor(clazz).getIndexType()};
@@ -1133,13 +2579,37 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 		return ids;
 	}
 
+	@Override
+	public void setBeanName(String beanName) {
+		this.beanName = beanName;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext context) throws BeansException {
+		synchronized (deferredIndexClasses) {
+			startingUp = isPreInstantiatedSingleton(context);
+		}
 		if (elasticsearchConverter instanceof ApplicationContextAware) {
 			((ApplicationContextAware) elasticsearchConverter).setApplicationContext(context);
 		}
 	}
 
+	/**
+	 * @return whether this template is a non lazy singleton of the context, the only kind of bean told once all
+	 *         singletons are instantiated
+	 */
+	private boolean isPreInstantiatedSingleton(ApplicationContext context) {
+		if (beanName == null || !(context instanceof ConfigurableApplicationContext)) {
+			return false;
+		}
+		ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) context).getBeanFactory();
+		if (!beanFactory.containsBeanDefinition(beanName)) {
+			return false;
+		}
+		BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+		return beanDefinition.isSingleton() && !beanDefinition.isLazyInit();
+	}
+
 	private static String[] toArray(List<String> values) {
 		String[] valuesAsArray = new String[values.size()];
 		return values.toArray(valuesAsArray);
@@ -1183,9 +2653,9 @@ public class ElasticsearchTemplate implements ElasticsearchOperations, Applicati
 	}
 
 	public SuggestResponse suggest(SuggestBuilder.SuggestionBuilder<?> suggestion, String... indices) {
-		SuggestRequestBuilder suggestRequestBuilder = client.prepareSuggest(indices);
+		SuggestRequestBuilder suggestRequestBuilder = readClient.prepareSuggest(indices);
 		suggestRequestBuilder.addSuggestion(suggestion);
-		return suggestRequestBuilder.execute().actionGet();
+		return execute(Operation.SEARCH, suggestRequestBuilder, indices);
 	}
 
 	public SuggestResponse suggest(SuggestBuilder.SuggestionBuilder<?> suggestion, Class clazz) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.get.MultiGetItemResponse;
+import org.elasticsearch.action.get.MultiGetRequest;
+import org.elasticsearch.action.get.MultiGetResponse;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces concurrent single document gets on the same index and type into one multi get. A batch is sent once it
+ * holds {@code maxBatchSize} distinct ids or {@code maxDelayInMicros} after its first get, whichever comes first.
+ * Every caller gets its own future, completed from the shared response.
+ */
+public class GetRequestCoalescer implements DisposableBean {
+
+	public static final long DEFAULT_MAX_DELAY_IN_MICROS = 1000;
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	private final Client client;
+	private final long maxDelayInMicros;
+	private final int maxBatchSize;
+	private final ScheduledExecutorService scheduler;
+	private final Map<String, Batch> pendingBatches = new HashMap<String, Batch>();
+
+	public GetRequestCoalescer(Client client) {
+		this(client, DEFAULT_MAX_DELAY_IN_MICROS, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	public GetRequestCoalescer(Client client, long maxDelayInMicros, int maxBatchSize) {
+		Assert.notNull(client, "Client must not be null!");
+		Assert.isTrue(maxDelayInMicros >= 0, "maxDelayInMicros must not be negative");
+		Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be greater than 0");
+		this.client = client;
+		this.maxDelayInMicros = maxDelayInMicros;
+		this.maxBatchSize = maxBatchSize;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(EsExecutors.daemonThreadFactory("get-coalescer"));
+	}
+
+	public ActionFuture<GetResponse> get(String indexName, String type, String id) {
+		PlainActionFuture<GetResponse> future = PlainActionFuture.newFuture();
+		get(indexName, type, id, future);
+		return future;
+	}
+
+	/**
+	 * @param listener notified of the response once the batch the get was added to answered
+	 */
+	public void get(String indexName, String type, String id, ActionListener<GetResponse> listener) {
+		Batch batchToSend = null;
+		synchronized (pendingBatches) {
+			String key = indexName + "/" + type;
+			Batch batch = pendingBatches.get(key);
+			if (batch == null) {
+				final Batch newBatch = new Batch(key, indexName, type);
+				pendingBatches.put(key, newBatch);
+				scheduler.schedule(new Runnable() {
+					@Override
+					public void run() {
+						if (remove(newBatch)) {
+							newBatch.send();
+						}
+					}
+				}, maxDelayInMicros, TimeUnit.MICROSECONDS);
+				batch = newBatch;
+			}
+			batch.add(id, listener);
+			if (batch.size() >= maxBatchSize) {
+				pendingBatches.remove(key);
+				batchToSend = batch;
+			}
+		}
+		if (batchToSend != null) {
+			batchToSend.send();
+		}
+	}
+
+	private boolean remove(Batch batch) {
+		synchronized (pendingBatches) {
+			if (pendingBatches.get(batch.key) == batch) {
+				pendingBatches.remove(batch.key);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdown();
+	}
+
+	private class Batch implements ActionListener<MultiGetResponse> {
+
+		private final String key;
+		private final String indexName;
+		private final String type;
+		private final Map<String, List<ActionListener<GetResponse>>> listenersById = new LinkedHashMap<String, List<ActionListener<GetResponse>>>();
+
+		Batch(String key, String indexName, String type) {
+			this.key = key;
+			this.indexName = indexName;
+			this.type = type;
+		}
+
+		void add(String id, ActionListener<GetResponse> listener) {
+			List<ActionListener<GetResponse>> listeners = listenersById.get(id);
+			if (listeners == null) {
+				listeners = new ArrayList<ActionListener<GetResponse>>(1);
+				listenersById.put(id, listeners);
+			}
+			listeners.add(listener);
+		}
+
+		int size() {
+			return listenersById.size();
+		}
+
+		void send() {
+			MultiGetRequest request = new MultiGetRequest();
+			for (String id : listenersById.keySet()) {
+				request.add(indexName, type, id);
+			}
+			client.multiGet(request, this);
+		}
+
+		@Override
+		public void onResponse(MultiGetResponse response) {
+			for (MultiGetItemResponse item : response.getResponses()) {
+				List<ActionListener<GetResponse>> listeners = listenersById.get(item.getId());
+				if (listeners == null) {
+					continue;
+				}
+				for (ActionListener<GetResponse> listener : listeners) {
+					if (item.isFailed()) {
+						listener.onFailure(new ElasticsearchException(item.getFailure().getMessage()));
+					} else {
+						listener.onResponse(item.getResponse());
+					}
+				}
+			}
+		}
+
+		@Override
+		public void onFailure(Throwable e) {
+			for (List<ActionListener<GetResponse>> listeners : listenersById.values()) {
+				for (ActionListener<GetResponse> listener : listeners) {
+					listener.onFailure(e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of {@link ElasticsearchOperations#createIndicesAndMappings(java.util.Collection)}: the indices and index
+ * templates created, the number of mappings put or left unchanged and the failure message of every entity whose index
+ * or mapping could not be created.
+ */
+public class IndexBootstrapSummary {
+
+	private final List<String> createdIndices = new ArrayList<String>();
+	private final List<String> createdTemplates = new ArrayList<String>();
+	private int mappingCount;
+	private int unchangedMappingCount;
+	private final Map<String, String> failures = new LinkedHashMap<String, String>();
+	private long tookInMillis;
+
+	void addCreatedIndex(String indexName) {
+		createdIndices.add(indexName);
+	}
+
+	void addCreatedTemplate(String templateName) {
+		createdTemplates.add(templateName);
+	}
+
+	void addMapping() {
+		mappingCount++;
+	}
+
+	void addUnchangedMapping() {
+		unchangedMappingCount++;
+	}
+
+	void addFailure(Class<?> clazz, String failureMessage) {
+		failures.put(clazz.getName(), failureMessage);
+	}
+
+	void setTookInMillis(long tookInMillis) {
+		this.tookInMillis = tookInMillis;
+	}
+
+	public List<String> getCreatedIndices() {
+		return Collections.unmodifiableList(createdIndices);
+	}
+
+	/**
+	 * @return the index templates put for entities with a rolling index
+	 */
+	public List<String> getCreatedTemplates() {
+		return Collections.unmodifiableList(createdTemplates);
+	}
+
+	public int getMappingCount() {
+		return mappingCount;
+	}
+
+	/**
+	 * @return the number of mappings not put because the stored ones were built from the same mapping
+	 */
+	public int getUnchangedMappingCount() {
+		return unchangedMappingCount;
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	/**
+	 * @return the failure messages by entity class name
+	 */
+	public Map<String, String> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	public long getTookInMillis() {
+		return tookInMillis;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder("Created ").append(createdIndices.size()).append(" indices ")
+				.append(createdIndices).append(" and ").append(createdTemplates.size()).append(" index templates ")
+				.append(createdTemplates).append(", put ").append(mappingCount).append(" mappings (").append(unchangedMappingCount)
+				.append(" unchanged) in ")
+				.append(tookInMillis).append(" ms");
+		if (!failures.isEmpty()) {
+			summary.append(", ").append(failures.size()).append(" failed ").append(failures);
+		}
+		return summary.toString();
+	}
+}
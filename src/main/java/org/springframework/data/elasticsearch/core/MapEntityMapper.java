@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@link EntityMapper} that can also bind already parsed values, e.g. the stored fields of a search hit, without
+ * writing them to json first.
+ */
+public interface MapEntityMapper extends EntityMapper {
+
+	public <T> T mapToObject(Map<String, Object> values, Class<T> clazz) throws IOException;
+}
@@ -22,6 +22,7 @@ import static org.springframework.util.StringUtils.*;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -57,6 +58,10 @@ class MappingBuilder {
 	public static final String FIELD_INDEX_ANALYZER = "index_analyzer";
 	public static final String FIELD_PROPERTIES = "properties";
 	public static final String FIELD_PARENT = "_parent";
+	public static final String FIELD_ROUTING = "_routing";
+	public static final String FIELD_REQUIRED = "required";
+	public static final String FIELD_META = "_meta";
+	public static final String FIELD_MAPPING_HASH = "mapping_hash";
 
 	public static final String COMPLETION_PAYLOADS = "payloads";
 	public static final String COMPLETION_PRESERVE_SEPARATORS = "preserve_separators";
@@ -73,25 +78,37 @@ class MappingBuilder {
 	private static SimpleTypeHolder SIMPLE_TYPE_HOLDER = new SimpleTypeHolder();
 
 	static XContentBuilder buildMapping(Class clazz, String indexType, String idFieldName, String parentType) throws IOException {
+		return buildMapping(clazz, indexType, idFieldName, parentType, false);
+	}
+
+	static XContentBuilder buildMapping(Class clazz, String indexType, String idFieldName, String parentType,
+			boolean routingRequired) throws IOException {
 
 		XContentBuilder mapping = jsonBuilder().startObject().startObject(indexType);
 		// Parent
 		if (hasText(parentType)) {
 			mapping.startObject(FIELD_PARENT).field(FIELD_TYPE, parentType).endObject();
 		}
+		// Routing, so that a document indexed or fetched without its routing value fails instead of going to another shard
+		if (routingRequired) {
+			mapping.startObject(FIELD_ROUTING).field(FIELD_REQUIRED, true).endObject();
+		}
 
 		// Properties
 		XContentBuilder xContentBuilder = mapping.startObject(FIELD_PROPERTIES);
 
-		mapEntity(xContentBuilder, clazz, true, idFieldName, EMPTY, false, FieldType.Auto, null);
+		// the fields by class are only kept while building the mapping, a nested type may be met several times
+		mapEntity(xContentBuilder, clazz, true, idFieldName, EMPTY, false, FieldType.Auto, null,
+				new HashMap<Class, java.lang.reflect.Field[]>());
 
 		return xContentBuilder.endObject().endObject().endObject();
 	}
 
 	private static void mapEntity(XContentBuilder xContentBuilder, Class clazz, boolean isRootObject, String idFieldName,
-								  String nestedObjectFieldName, boolean nestedOrObjectField, FieldType fieldType, Field fieldAnnotation) throws IOException {
+								  String nestedObjectFieldName, boolean nestedOrObjectField, FieldType fieldType, Field fieldAnnotation,
+								  Map<Class, java.lang.reflect.Field[]> fieldsByClass) throws IOException {
 
-		java.lang.reflect.Field[] fields = retrieveFields(clazz);
+		java.lang.reflect.Field[] fields = retrieveFields(clazz, fieldsByClass);
 
 		if (!isRootObject && (isAnyPropertyAnnotatedAsField(fields) || nestedOrObjectField)) {
 			String type = FieldType.Object.toString().toLowerCase();
@@ -121,7 +138,7 @@ class MappingBuilder {
 					continue;
 				}
 				boolean nestedOrObject = isNestedOrObjectField(field);
-				mapEntity(xContentBuilder, getFieldType(field), false, EMPTY, field.getName(), nestedOrObject, singleField.type(), field.getAnnotation(Field.class));
+				mapEntity(xContentBuilder, getFieldType(field), false, EMPTY, field.getName(), nestedOrObject, singleField.type(), field.getAnnotation(Field.class), fieldsByClass);
 				if (nestedOrObject) {
 					continue;
 				}
@@ -152,7 +169,11 @@ class MappingBuilder {
 		}
 	}
 
-	private static java.lang.reflect.Field[] retrieveFields(Class clazz) {
+	private static java.lang.reflect.Field[] retrieveFields(Class clazz, Map<Class, java.lang.reflect.Field[]> fieldsByClass) {
+		java.lang.reflect.Field[] cached = fieldsByClass.get(clazz);
+		if (cached != null) {
+			return cached;
+		}
 		// Create list of fields.
 		List<java.lang.reflect.Field> fields = new ArrayList<java.lang.reflect.Field>();
 
@@ -164,7 +185,9 @@ class MappingBuilder {
 		}
 		while (targetClass != null && targetClass != Object.class);
 
-		return fields.toArray(new java.lang.reflect.Field[fields.size()]);
+		java.lang.reflect.Field[] retrieved = fields.toArray(new java.lang.reflect.Field[fields.size()]);
+		fieldsByClass.put(clazz, retrieved);
+		return retrieved;
 	}
 
 	private static boolean isAnnotated(java.lang.reflect.Field field) {
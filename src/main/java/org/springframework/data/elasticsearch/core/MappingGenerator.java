@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Writes the mappings that {@link ElasticsearchTemplate#putMapping(Class)} would build from the {@code @Field}
+ * annotations of entities to files, so that they can be generated during the build, for instance with the
+ * {@code exec-maven-plugin} in the {@code process-classes} phase, reviewed along with the code and loaded through
+ * {@link org.springframework.data.elasticsearch.annotations.Mapping#mappingPath()} instead of being built when the
+ * application starts.
+ *
+ * <pre>
+ * java org.springframework.data.elasticsearch.core.MappingGenerator target/classes/mappings com.acme.Book com.acme.Author
+ * </pre>
+ *
+ * Every mapping is written pretty printed to {@code <fully qualified class name>.json}.
+ */
+public class MappingGenerator {
+
+	private final SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+
+	/**
+	 * @param args the output directory followed by the names of the entity classes
+	 */
+	public static void main(String[] args) throws Exception {
+		Assert.isTrue(args.length > 1, "Usage: MappingGenerator <output directory> <entity class>...");
+		MappingGenerator generator = new MappingGenerator();
+		File directory = new File(args[0]);
+		for (String className : Arrays.asList(args).subList(1, args.length)) {
+			Class<?> clazz = ClassUtils.forName(className, MappingGenerator.class.getClassLoader());
+			File file = generator.writeMapping(clazz, directory);
+			System.out.println("Wrote the mapping of " + className + " to " + file);
+		}
+	}
+
+	/**
+	 * @return the mapping of the entity built from its annotations, ignoring its
+	 *         {@link org.springframework.data.elasticsearch.annotations.Mapping} annotation
+	 */
+	public String generateMapping(Class<?> clazz) throws IOException {
+		ElasticsearchPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(clazz);
+		Assert.notNull(persistentEntity.getIdProperty(), "No id property found for " + clazz.getName());
+		XContentBuilder mapping = MappingBuilder.buildMapping(clazz, persistentEntity.getIndexType(),
+				persistentEntity.getIdProperty().getFieldName(), persistentEntity.getParentType(),
+				persistentEntity.getRoutingProperty() != null);
+		return XContentHelper.convertToJson(mapping.bytes(), true, true);
+	}
+
+	/**
+	 * @return the file the mapping was written to
+	 */
+	public File writeMapping(Class<?> clazz, File directory) throws IOException {
+		Assert.isTrue(directory.isDirectory() || directory.mkdirs(), "Cannot create directory " + directory);
+		File file = new File(directory, clazz.getName() + ".json");
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(generateMapping(clazz).getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+}
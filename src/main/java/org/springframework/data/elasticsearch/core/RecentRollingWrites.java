@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+/**
+ * Remembers the index and routing of the documents recently written to a rolling index through the template, so that
+ * they are found again without searching the alias, and before a refresh made them searchable. Documents written by
+ * other clients, or longer ago than the time to live, are still looked up with a search.
+ */
+class RecentRollingWrites {
+
+	static final long DEFAULT_MAXIMUM_SIZE = 10000;
+	static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(1);
+
+	private final Cache<String, Write> writes;
+
+	RecentRollingWrites() {
+		this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+	}
+
+	RecentRollingWrites(long maximumSize, long timeToLiveInMillis) {
+		this.writes = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+				.build();
+	}
+
+	/**
+	 * @return the last write of the document with the given id, {@literal null} if it is not known
+	 */
+	Write get(ElasticsearchPersistentEntity<?> persistentEntity, String id) {
+		return writes.getIfPresent(keyOf(persistentEntity, id));
+	}
+
+	/**
+	 * @return the previous write of the document with the given id, {@literal null} if it is not known
+	 */
+	Write put(ElasticsearchPersistentEntity<?> persistentEntity, String id, Write write) {
+		return writes.asMap().put(keyOf(persistentEntity, id), write);
+	}
+
+	void remove(ElasticsearchPersistentEntity<?> persistentEntity, String id) {
+		writes.invalidate(keyOf(persistentEntity, id));
+	}
+
+	void clear() {
+		writes.invalidateAll();
+	}
+
+	private static String keyOf(ElasticsearchPersistentEntity<?> persistentEntity, String id) {
+		return persistentEntity.getIndexName() + '/' + persistentEntity.getIndexType() + '/' + id;
+	}
+
+	static class Write {
+
+		private final String index;
+		private final String routing;
+
+		Write(String index, String routing) {
+			this.index = index;
+			this.routing = routing;
+		}
+
+		String getIndex() {
+			return index;
+		}
+
+		String getRouting() {
+			return routing;
+		}
+	}
+}
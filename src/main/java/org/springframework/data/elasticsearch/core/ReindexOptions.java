@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import org.springframework.util.Assert;
+
+/**
+ * Options of {@link ElasticsearchOperations#reindex(Class, ReindexOptions)}.
+ */
+public class ReindexOptions {
+
+	private int scrollSize = 500;
+	private long scrollTimeInMillis = 60000;
+	private AdaptiveBulkSizer bulkSizer;
+	private boolean catchUp = true;
+	private boolean bulkLoad = true;
+	private boolean deleteOldIndices;
+
+	/**
+	 * @param scrollSize the number of documents read per shard and scroll request
+	 */
+	public ReindexOptions withScrollSize(int scrollSize) {
+		Assert.isTrue(scrollSize > 0, "scrollSize must be greater than 0");
+		this.scrollSize = scrollSize;
+		return this;
+	}
+
+	public ReindexOptions withScrollTimeInMillis(long scrollTimeInMillis) {
+		Assert.isTrue(scrollTimeInMillis > 0, "scrollTimeInMillis must be greater than 0");
+		this.scrollTimeInMillis = scrollTimeInMillis;
+		return this;
+	}
+
+	/**
+	 * @param bulkSizer the sizer of the bulk requests writing the new index, an adaptive one is used by default
+	 */
+	public ReindexOptions withBulkSizer(AdaptiveBulkSizer bulkSizer) {
+		this.bulkSizer = bulkSizer;
+		return this;
+	}
+
+	/**
+	 * @param catchUp whether to copy the documents written to the old indices during the copy with catch-up passes
+	 *          that only read the documents timestamped since the previous pass, which needs {@code _timestamp} enabled
+	 *          on the type. Only documents with a higher version than in the new index are written again. The old
+	 *          indices are read-only during the last, short, catch-up pass, or during the whole copy without catching up
+	 */
+	public ReindexOptions withCatchUp(boolean catchUp) {
+		this.catchUp = catchUp;
+		return this;
+	}
+
+	/**
+	 * @param bulkLoad whether to load the new index in a {@link BulkLoadSession}
+	 */
+	public ReindexOptions withBulkLoad(boolean bulkLoad) {
+		this.bulkLoad = bulkLoad;
+		return this;
+	}
+
+	/**
+	 * @param deleteOldIndices whether to delete the indices the alias pointed to once it was swapped, indices that are
+	 *          kept stay read-only
+	 */
+	public ReindexOptions withDeleteOldIndices(boolean deleteOldIndices) {
+		this.deleteOldIndices = deleteOldIndices;
+		return this;
+	}
+
+	public int getScrollSize() {
+		return scrollSize;
+	}
+
+	public long getScrollTimeInMillis() {
+		return scrollTimeInMillis;
+	}
+
+	public AdaptiveBulkSizer getBulkSizer() {
+		return bulkSizer != null ? bulkSizer : new AdaptiveBulkSizer(500, 5000, 1, 4);
+	}
+
+	public boolean isCatchUp() {
+		return catchUp;
+	}
+
+	public boolean isBulkLoad() {
+		return bulkLoad;
+	}
+
+	public boolean isDeleteOldIndices() {
+		return deleteOldIndices;
+	}
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.util.Assert;
+
+/**
+ * Bounds the requests {@link ElasticsearchTemplate} waits for, so that a degraded cluster does not hold all the threads
+ * of the application:
+ * <ul>
+ * <li>a timeout per kind of operation, after which the caller stops waiting for the response,</li>
+ * <li>a limit of concurrent requests per index, beyond which requests are rejected right away; a request the caller
+ * stopped waiting for counts until it completes,</li>
+ * <li>a circuit breaker that rejects all requests for a while once too many of the recent ones failed on the cluster
+ * side, then lets a single request through to find out whether the cluster recovered.</li>
+ * </ul>
+ * Only server errors, rejections and timeouts count as failures, not missing documents or version conflicts. Requests
+ * rejected by the guard fail with an {@link ElasticsearchException}. Every kind of operation has its {@link Stats}.
+ * <p>
+ * A few requests do not go through the guard:
+ * <ul>
+ * <li>the chunks of {@link ElasticsearchTemplate#bulkIndex(java.util.Iterator, AdaptiveBulkSizer)}, which are sent
+ * without waiting for them and already bounded by the concurrent requests of the {@link AdaptiveBulkSizer}, that
+ * backs off when the cluster rejects them,</li>
+ * <li>clearing a scroll the caller stopped reading, so that an open circuit does not leave it on the cluster,</li>
+ * <li>the requests of {@link ElasticsearchTemplate#reindex(Class, ReindexOptions)} and of a {@link BulkLoadSession},
+ * which run for long as a whole and must not be stopped half way by a timeout or an open circuit.</li>
+ * </ul>
+ */
+public class RequestGuard {
+
+	private static final Logger logger = LoggerFactory.getLogger(RequestGuard.class);
+
+	public enum Operation {
+		GET, SEARCH, WRITE, BULK, ADMIN
+	}
+
+	public enum CircuitState {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final Map<Operation, TimeValue> timeouts = new EnumMap<Operation, TimeValue>(Operation.class);
+	private final Map<Operation, Stats> stats = new EnumMap<Operation, Stats>(Operation.class);
+	// only the indices with requests in flight, so that short lived indices do not pile up
+	private final Map<String, Integer> requestsInFlight = new HashMap<String, Integer>();
+	private int maxConcurrentRequestsPerIndex;
+	private double failureRateThreshold = 0.5;
+	private int minimumRequests = 20;
+	private long windowInMillis = 10000;
+	private long openInMillis = 30000;
+
+	private CircuitState state = CircuitState.CLOSED;
+	private long windowStart = System.currentTimeMillis();
+	private int windowRequests;
+	private int windowFailures;
+	private long openedAt;
+	private boolean trialInFlight;
+
+	public RequestGuard() {
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new Stats());
+		}
+	}
+
+	/**
+	 * @param timeout the time to wait for the response to an operation, for instance {@code 500ms}, {@literal null} waits
+	 *          as long as it takes
+	 */
+	public void setTimeout(Operation operation, String timeout) {
+		Assert.notNull(operation, "Operation must not be null!");
+		if (timeout == null) {
+			timeouts.remove(operation);
+		} else {
+			timeouts.put(operation, TimeValue.parseTimeValue(timeout, null));
+		}
+	}
+
+	public TimeValue getTimeout(Operation operation) {
+		return timeouts.get(operation);
+	}
+
+	/**
+	 * @param maxConcurrentRequestsPerIndex the number of requests that may be in flight at once on an index, {@code 0}
+	 *          does not limit them
+	 */
+	public void setMaxConcurrentRequestsPerIndex(int maxConcurrentRequestsPerIndex) {
+		Assert.isTrue(maxConcurrentRequestsPerIndex >= 0, "maxConcurrentRequestsPerIndex must not be negative");
+		this.maxConcurrentRequestsPerIndex = maxConcurrentRequestsPerIndex;
+	}
+
+	/**
+	 * @param failureRateThreshold the rate of failed requests, between {@code 0} and {@code 1}, that opens the circuit
+	 */
+	public void setFailureRateThreshold(double failureRateThreshold) {
+		Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1,
+				"failureRateThreshold must be greater than 0 and not greater than 1");
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	/**
+	 * @param minimumRequests the number of requests a window needs before its failure rate may open the circuit
+	 */
+	public void setMinimumRequests(int minimumRequests) {
+		Assert.isTrue(minimumRequests > 0, "minimumRequests must be greater than 0");
+		this.minimumRequests = minimumRequests;
+	}
+
+	/**
+	 * @param windowInMillis the period over which the failure rate is measured
+	 */
+	public void setWindowInMillis(long windowInMillis) {
+		Assert.isTrue(windowInMillis > 0, "windowInMillis must be greater than 0");
+		this.windowInMillis = windowInMillis;
+	}
+
+	/**
+	 * @param openInMillis how long the circuit rejects all requests once opened, before letting a trial request through
+	 */
+	public void setOpenInMillis(long openInMillis) {
+		Assert.isTrue(openInMillis > 0, "openInMillis must be greater than 0");
+		this.openInMillis = openInMillis;
+	}
+
+	public synchronized CircuitState getCircuitState() {
+		return state;
+	}
+
+	public Stats getStats(Operation operation) {
+		return stats.get(operation);
+	}
+
+	/**
+	 * Send a request unless the circuit is open or one of its indices has too many requests in flight, and wait for its
+	 * response at most the timeout of the operation.
+	 *
+	 * @param operation the kind of operation
+	 * @param request sends the request
+	 * @param indices the indices of the request, none for requests the concurrency limit does not apply to
+	 * @return the response
+	 */
+	public <T> T execute(Operation operation, Request<T> request, String... indices) {
+		Stats operationStats = stats.get(operation);
+		if (!allowRequest()) {
+			operationStats.shortCircuited.incrementAndGet();
+			throw new ElasticsearchException("Circuit breaker is open, not sending " + operation + " request");
+		}
+		List<String> permits;
+		try {
+			permits = acquirePermits(indices);
+		} catch (ElasticsearchException e) {
+			cancelTrial();
+			operationStats.rejected.incrementAndGet();
+			throw e;
+		}
+		operationStats.requests.incrementAndGet();
+		PlainActionFuture<T> future = PlainActionFuture.newFuture();
+		PermitReleasingListener<T> listener = new PermitReleasingListener<T>(permits, future);
+		try {
+			try {
+				request.send(listener);
+			} catch (RuntimeException e) {
+				listener.releasePermits();
+				throw e;
+			}
+			TimeValue timeout = timeouts.get(operation);
+			T response = timeout == null ? future.actionGet() : future.actionGet(timeout);
+			recordResult(false);
+			return response;
+		} catch (RuntimeException e) {
+			boolean failure = isFailure(e);
+			if (ExceptionsHelper.unwrapCause(e) instanceof ElasticsearchTimeoutException) {
+				operationStats.timeouts.incrementAndGet();
+			}
+			if (failure) {
+				operationStats.failures.incrementAndGet();
+			}
+			recordResult(failure);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the indices a request was let through on, to release once it completes
+	 */
+	private List<String> acquirePermits(String... indices) {
+		int maxConcurrentRequests = maxConcurrentRequestsPerIndex;
+		if (maxConcurrentRequests == 0 || indices == null) {
+			return Collections.emptyList();
+		}
+		List<String> permits = new ArrayList<String>(new LinkedHashSet<String>(Arrays.asList(indices)));
+		// all indices at once and without waiting, so that requests on several indices cannot block each other
+		synchronized (requestsInFlight) {
+			for (String index : permits) {
+				Integer inFlight = requestsInFlight.get(index);
+				if (inFlight != null && inFlight >= maxConcurrentRequests) {
+					throw new ElasticsearchException("Too many concurrent requests on index [" + index + "], at most "
+							+ maxConcurrentRequests + " allowed");
+				}
+			}
+			for (String index : permits) {
+				Integer inFlight = requestsInFlight.get(index);
+				requestsInFlight.put(index, inFlight == null ? 1 : inFlight + 1);
+			}
+		}
+		return permits;
+	}
+
+	private void releasePermits(List<String> permits) {
+		if (permits.isEmpty()) {
+			return;
+		}
+		synchronized (requestsInFlight) {
+			for (String index : permits) {
+				Integer inFlight = requestsInFlight.get(index);
+				if (inFlight == null || inFlight <= 1) {
+					requestsInFlight.remove(index);
+				} else {
+					requestsInFlight.put(index, inFlight - 1);
+				}
+			}
+		}
+	}
+
+	private synchronized boolean allowRequest() {
+		if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= openInMillis) {
+			state = CircuitState.HALF_OPEN;
+		}
+		if (state == CircuitState.HALF_OPEN) {
+			if (trialInFlight) {
+				return false;
+			}
+			trialInFlight = true;
+			return true;
+		}
+		return state == CircuitState.CLOSED;
+	}
+
+	private synchronized void cancelTrial() {
+		trialInFlight = false;
+	}
+
+	private synchronized void recordResult(boolean failure) {
+		long now = System.currentTimeMillis();
+		if (state == CircuitState.HALF_OPEN) {
+			trialInFlight = false;
+			if (failure) {
+				open(now);
+			} else {
+				logger.info("Closing the circuit breaker, the trial request succeeded");
+				state = CircuitState.CLOSED;
+				resetWindow(now);
+			}
+			return;
+		}
+		if (state == CircuitState.OPEN) {
+			// responses to requests sent before the circuit was opened
+			return;
+		}
+		if (now - windowStart > windowInMillis) {
+			resetWindow(now);
+		}
+		windowRequests++;
+		if (failure) {
+			windowFailures++;
+		}
+		if (windowRequests >= minimumRequests && windowFailures >= failureRateThreshold * windowRequests) {
+			open(now);
+		}
+	}
+
+	private void open(long now) {
+		logger.warn("Opening the circuit breaker for " + openInMillis + " ms after " + windowFailures + " failures in "
+				+ windowRequests + " requests");
+		state = CircuitState.OPEN;
+		openedAt = now;
+		resetWindow(now);
+	}
+
+	private void resetWindow(long now) {
+		windowStart = now;
+		windowRequests = 0;
+		windowFailures = 0;
+	}
+
+	private boolean isFailure(Throwable e) {
+		if (ExceptionsHelper.unwrapCause(e) instanceof ElasticsearchTimeoutException) {
+			return true;
+		}
+		RestStatus status = ExceptionsHelper.status(e);
+		return status.getStatus() >= 500 || status == RestStatus.TOO_MANY_REQUESTS;
+	}
+
+	/**
+	 * Sends a request, only called once the guard let it through.
+	 */
+	public interface Request<T> {
+
+		/**
+		 * @param listener to notify of the response, which releases the permits of the request
+		 */
+		void send(ActionListener<T> listener);
+	}
+
+	/**
+	 * Releases the permits of a request once it completes, even when the caller stopped waiting for it before.
+	 */
+	private class PermitReleasingListener<T> implements ActionListener<T> {
+
+		private final List<String> permits;
+		private final ActionListener<T> listener;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		PermitReleasingListener(List<String> permits, ActionListener<T> listener) {
+			this.permits = permits;
+			this.listener = listener;
+		}
+
+		void releasePermits() {
+			if (released.compareAndSet(false, true)) {
+				RequestGuard.this.releasePermits(permits);
+			}
+		}
+
+		@Override
+		public void onResponse(T response) {
+			releasePermits();
+			listener.onResponse(response);
+		}
+
+		@Override
+		public void onFailure(Throwable e) {
+			releasePermits();
+			listener.onFailure(e);
+		}
+	}
+
+	/**
+	 * Counters of the requests of a kind of operation since the guard was created.
+	 */
+	public static class Stats {
+
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong timeouts = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private final AtomicLong shortCircuited = new AtomicLong();
+
+		/**
+		 * @return the number of requests sent
+		 */
+		public long getRequests() {
+			return requests.get();
+		}
+
+		/**
+		 * @return the number of requests sent that failed on the cluster side or timed out
+		 */
+		public long getFailures() {
+			return failures.get();
+		}
+
+		public long getTimeouts() {
+			return timeouts.get();
+		}
+
+		/**
+		 * @return the number of requests not sent because an index had too many requests in flight
+		 */
+		public long getRejected() {
+			return rejected.get();
+		}
+
+		/**
+		 * @return the number of requests not sent because the circuit was open
+		 */
+		public long getShortCircuited() {
+			return shortCircuited.get();
+		}
+
+		@Override
+		public String toString() {
+			return "requests=" + requests + ", failures=" + failures + ", timeouts=" + timeouts + ", rejected=" + rejected
+					+ ", shortCircuited=" + shortCircuited;
+		}
+	}
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * Sends a second copy of a read request when the first one has not answered within the usual latency of its kind of
+ * request, and completes with whichever answers first. The delay is a percentile of the latencies of the last
+ * {@value #SAMPLE_SIZE} requests of the same kind, so that only the slowest requests, typically those stuck on a slow
+ * shard copy, are sent twice. Requests are not hedged before {@code minimumSamples} latencies were measured.
+ * <p>
+ * The second copy is sent with its own custom {@code preference}, so that it is most likely served by other shard
+ * copies than the first. Elasticsearch cannot abort a get or search already sent, the response of the slower copy is
+ * simply dropped; a second copy not sent yet is cancelled once the first one answered.
+ */
+public class RequestHedger implements DisposableBean {
+
+	public static final int SAMPLE_SIZE = 1000;
+	public static final double DEFAULT_PERCENTILE = 95;
+	public static final long DEFAULT_MIN_DELAY_IN_MILLIS = 5;
+	public static final int DEFAULT_MINIMUM_SAMPLES = 50;
+
+	private static final String PREFERENCE_PREFIX = "hedge-";
+
+	public enum Kind {
+		GET, MULTI_GET, SEARCH
+	}
+
+	private final Map<Kind, Latencies> latencies = new EnumMap<Kind, Latencies>(Kind.class);
+	private final Map<Kind, Stats> stats = new EnumMap<Kind, Stats>(Kind.class);
+	private final ScheduledExecutorService scheduler;
+	private final AtomicLong preferences = new AtomicLong();
+	private volatile double percentile = DEFAULT_PERCENTILE;
+	private volatile long minDelayInMillis = DEFAULT_MIN_DELAY_IN_MILLIS;
+	private volatile int minimumSamples = DEFAULT_MINIMUM_SAMPLES;
+
+	public RequestHedger() {
+		for (Kind kind : Kind.values()) {
+			latencies.put(kind, new Latencies());
+			stats.put(kind, new Stats());
+		}
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(EsExecutors.daemonThreadFactory("request-hedger"));
+	}
+
+	/**
+	 * @param percentile the percentile of the recent latencies after which the second copy is sent, between {@code 0}
+	 *          excluded and {@code 100}
+	 */
+	public void setPercentile(double percentile) {
+		Assert.isTrue(percentile > 0 && percentile <= 100, "percentile must be greater than 0 and not greater than 100");
+		this.percentile = percentile;
+	}
+
+	/**
+	 * @param minDelayInMillis the shortest delay after which the second copy is sent, however fast recent requests were
+	 */
+	public void setMinDelayInMillis(long minDelayInMillis) {
+		Assert.isTrue(minDelayInMillis > 0, "minDelayInMillis must be greater than 0");
+		this.minDelayInMillis = minDelayInMillis;
+	}
+
+	/**
+	 * @param minimumSamples the number of latencies to measure before requests of a kind are hedged
+	 */
+	public void setMinimumSamples(int minimumSamples) {
+		Assert.isTrue(minimumSamples > 0 && minimumSamples <= SAMPLE_SIZE, "minimumSamples must be between 1 and "
+				+ SAMPLE_SIZE);
+		this.minimumSamples = minimumSamples;
+	}
+
+	/**
+	 * @return the delay after which a request of the given kind is sent again, {@code -1} while too few latencies were
+	 *         measured
+	 */
+	public long getDelayInMillis(Kind kind) {
+		long delay = latencies.get(kind).percentileInMillis(percentile, minimumSamples);
+		return delay < 0 ? -1 : Math.max(delay, minDelayInMillis);
+	}
+
+	public Stats getStats(Kind kind) {
+		return stats.get(kind);
+	}
+
+	/**
+	 * Send a request, and send it again if it did not answer within the delay of its kind.
+	 *
+	 * @param kind the kind of request, whose latencies determine the delay
+	 * @param request sends the request, with no preference the first time and a custom one the second time
+	 * @return the first response, or the failure of the last copy to fail
+	 */
+	public <T> ActionFuture<T> execute(Kind kind, Request<T> request) {
+		PlainActionFuture<T> future = PlainActionFuture.newFuture();
+		execute(kind, request, future);
+		return future;
+	}
+
+	/**
+	 * Send a request, and send it again if it did not answer within the delay of its kind.
+	 *
+	 * @param kind the kind of request, whose latencies determine the delay
+	 * @param request sends the request, with no preference the first time and a custom one the second time
+	 * @param listener notified of the first response, or of the failure of the last copy to fail
+	 */
+	public <T> void execute(Kind kind, Request<T> request, ActionListener<T> listener) {
+		Assert.notNull(kind, "Kind must not be null!");
+		Assert.notNull(request, "Request must not be null!");
+		stats.get(kind).requests.incrementAndGet();
+		final HedgedRequest<T> hedgedRequest = new HedgedRequest<T>(kind, request, listener);
+		long delay = getDelayInMillis(kind);
+		if (delay >= 0) {
+			hedgedRequest.schedule(scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					hedgedRequest.sendSecond();
+				}
+			}, delay, TimeUnit.MILLISECONDS));
+		}
+		hedgedRequest.sendFirst();
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdown();
+	}
+
+	/**
+	 * Sends one copy of a request.
+	 */
+	public interface Request<T> {
+
+		/**
+		 * @param preference the preference to send the request with, {@literal null} for the first copy
+		 * @param listener to notify of the response
+		 */
+		void send(String preference, ActionListener<T> listener);
+	}
+
+	private class HedgedRequest<T> {
+
+		private final Kind kind;
+		private final Request<T> request;
+		private final ActionListener<T> listener;
+		private final long startedAt = System.nanoTime();
+		private ScheduledFuture<?> second;
+		private int inFlight;
+		private boolean done;
+
+		HedgedRequest(Kind kind, Request<T> request, ActionListener<T> listener) {
+			this.kind = kind;
+			this.request = request;
+			this.listener = listener;
+		}
+
+		synchronized void schedule(ScheduledFuture<?> second) {
+			if (done) {
+				second.cancel(false);
+			} else {
+				this.second = second;
+			}
+		}
+
+		void sendFirst() {
+			send(null, false);
+		}
+
+		void sendSecond() {
+			send(PREFERENCE_PREFIX + preferences.incrementAndGet(), true);
+		}
+
+		private void send(String preference, final boolean hedge) {
+			synchronized (this) {
+				if (done) {
+					return;
+				}
+				inFlight++;
+			}
+			if (hedge) {
+				stats.get(kind).hedged.incrementAndGet();
+			}
+			try {
+				request.send(preference, new ActionListener<T>() {
+					@Override
+					public void onResponse(T response) {
+						if (!hedge) {
+							latencies.get(kind).add(System.nanoTime() - startedAt);
+						}
+						HedgedRequest.this.onResponse(response, hedge);
+					}
+
+					@Override
+					public void onFailure(Throwable e) {
+						HedgedRequest.this.onFailure(e);
+					}
+				});
+			} catch (RuntimeException e) {
+				onFailure(e);
+			}
+		}
+
+		private void onResponse(T response, boolean hedge) {
+			synchronized (this) {
+				inFlight--;
+				if (done) {
+					return;
+				}
+				done = true;
+				cancelSecond();
+			}
+			if (hedge) {
+				stats.get(kind).hedgeWins.incrementAndGet();
+			}
+			listener.onResponse(response);
+		}
+
+		private void onFailure(Throwable e) {
+			synchronized (this) {
+				inFlight--;
+				if (done || inFlight > 0) {
+					// the other copy may still answer
+					return;
+				}
+				if (!cancelSecond() && second != null && !second.isDone()) {
+					// the second copy is being sent
+					return;
+				}
+				done = true;
+			}
+			listener.onFailure(e);
+		}
+
+		private boolean cancelSecond() {
+			return second != null && second.cancel(false);
+		}
+	}
+
+	private static class Latencies {
+
+		private static final int UPDATE_INTERVAL = 64;
+
+		private final long[] samples = new long[SAMPLE_SIZE];
+		private int count;
+		private int sinceUpdate;
+		private double updatedPercentile;
+		private long percentileInNanos = -1;
+
+		synchronized void add(long latencyInNanos) {
+			samples[count % SAMPLE_SIZE] = latencyInNanos;
+			count++;
+			sinceUpdate++;
+		}
+
+		synchronized long percentileInMillis(double percentile, int minimumSamples) {
+			int size = Math.min(count, SAMPLE_SIZE);
+			if (size < minimumSamples) {
+				return -1;
+			}
+			// sorting the samples on every request would cost more than the hedging saves
+			if (percentileInNanos < 0 || sinceUpdate >= UPDATE_INTERVAL || updatedPercentile != percentile) {
+				long[] sorted = Arrays.copyOf(samples, size);
+				Arrays.sort(sorted);
+				percentileInNanos = sorted[Math.max(0, (int) Math.ceil(percentile / 100 * size) - 1)];
+				updatedPercentile = percentile;
+				sinceUpdate = 0;
+			}
+			return TimeUnit.NANOSECONDS.toMillis(percentileInNanos);
+		}
+	}
+
+	/**
+	 * Counters of the requests of a kind since the hedger was created.
+	 */
+	public static class Stats {
+
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong hedged = new AtomicLong();
+		private final AtomicLong hedgeWins = new AtomicLong();
+
+		public long getRequests() {
+			return requests.get();
+		}
+
+		/**
+		 * @return the number of requests sent a second time
+		 */
+		public long getHedged() {
+			return hedged.get();
+		}
+
+		/**
+		 * @return the number of requests the second copy answered first
+		 */
+		public long getHedgeWins() {
+			return hedgeWins.get();
+		}
+
+		@Override
+		public String toString() {
+			return "requests=" + requests + ", hedged=" + hedged + ", hedgeWins=" + hedgeWins;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.client.Client;
+
+/**
+ * Sends a bulk request and re-sends, after a backoff delay, only the items its {@link BulkRetryPolicy} considers
+ * retryable. The listener is called once with a response holding the last outcome of every item, in the order of the
+ * original request, and the time spent in all attempts. When a retry fails as a whole, the items it was sending are
+ * reported as failed with its cause, the items answered by earlier attempts are kept; only a request none of whose
+ * attempts answered fails the listener.
+ */
+class RetryingBulkRequest implements ActionListener<BulkResponse> {
+
+	private final Client client;
+	private final BulkRequest original;
+	private final BulkRetryPolicy retryPolicy;
+	private final ActionListener<BulkResponse> listener;
+	private final ScheduledExecutorService scheduler;
+	private final BulkItemResponse[] responses;
+	private BulkRequest current;
+	private List<Integer> currentPositions;
+	private int retries;
+	private long tookInMillis;
+
+	/**
+	 * @param scheduler schedules the retries, may be {@literal null} when the policy does not retry
+	 */
+	RetryingBulkRequest(Client client, BulkRequest request, BulkRetryPolicy retryPolicy,
+			ActionListener<BulkResponse> listener, ScheduledExecutorService scheduler) {
+		this.client = client;
+		this.original = request;
+		this.retryPolicy = retryPolicy;
+		this.listener = listener;
+		this.scheduler = scheduler;
+		this.responses = new BulkItemResponse[request.numberOfActions()];
+		this.current = request;
+		this.currentPositions = new ArrayList<Integer>(request.numberOfActions());
+		for (int i = 0; i < request.numberOfActions(); i++) {
+			currentPositions.add(i);
+		}
+	}
+
+	void execute() {
+		client.bulk(current, this);
+	}
+
+	/**
+	 * @return the number of times some items were sent again
+	 */
+	int getRetries() {
+		return retries;
+	}
+
+	@Override
+	public void onResponse(BulkResponse response) {
+		tookInMillis += response.getTookInMillis();
+		List<Integer> retryPositions = new ArrayList<Integer>();
+		for (BulkItemResponse item : response.getItems()) {
+			int position = currentPositions.get(item.getItemId());
+			if (retries < retryPolicy.getMaxRetries() && retryPolicy.isRetryable(item)) {
+				retryPositions.add(position);
+			}
+			// report the item at its position in the original request, not in the retry
+			responses[position] = item.isFailed() ? new BulkItemResponse(position, item.getOpType(), item.getFailure())
+					: new BulkItemResponse(position, item.getOpType(), item.getResponse());
+		}
+		if (retryPositions.isEmpty()) {
+			listener.onResponse(new BulkResponse(responses, tookInMillis));
+		} else {
+			retry(retryPositions);
+		}
+	}
+
+	@Override
+	public void onFailure(Throwable e) {
+		if (retries < retryPolicy.getMaxRetries() && retryPolicy.isRetryable(e)) {
+			retry(currentPositions);
+		} else {
+			fail(e);
+		}
+	}
+
+	private void fail(Throwable e) {
+		if (currentPositions.isEmpty() || responses[currentPositions.get(0)] == null) {
+			// no attempt answered, all attempts sent the same items
+			listener.onFailure(e);
+			return;
+		}
+		for (Integer position : currentPositions) {
+			BulkItemResponse previous = responses[position];
+			responses[position] = new BulkItemResponse(position, previous.getOpType(), new BulkItemResponse.Failure(
+					previous.getIndex(), previous.getType(), previous.getId(), e));
+		}
+		listener.onResponse(new BulkResponse(responses, tookInMillis));
+	}
+
+	private void retry(List<Integer> positions) {
+		List<ActionRequest> requests = original.requests();
+		BulkRequest retry = new BulkRequest();
+		retry.refresh(original.refresh());
+		retry.timeout(original.timeout());
+		retry.consistencyLevel(original.consistencyLevel());
+		for (Integer position : positions) {
+			retry.add(requests.get(position));
+		}
+		current = retry;
+		currentPositions = positions;
+		long delay = retryPolicy.delayInMillis(retries++);
+		try {
+			scheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						execute();
+					} catch (Throwable e) {
+						fail(e);
+					}
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// the template was destroyed
+			fail(e);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.annotations.IndexPeriod;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+
+/**
+ * Names the indices of entities with a {@link org.springframework.data.elasticsearch.annotations.RollingIndex}: the
+ * index a document is written to, the pattern of the index template and the indices a criteria query has to search.
+ */
+class RollingIndices {
+
+	/**
+	 * Above this number of indices in range, a query searches the alias of all indices instead.
+	 */
+	static final int MAX_INDICES_PER_QUERY = 100;
+
+	private RollingIndices() {
+	}
+
+	static boolean isRolling(ElasticsearchPersistentEntity<?> persistentEntity) {
+		return persistentEntity.getRollingIndexProperty() != null;
+	}
+
+	/**
+	 * @return the pattern of the index template, with a wildcard per date field of the period, so that other indices
+	 *         sharing the prefix of the index name, such as {@code events-archive}, are not taken for rolling indices.
+	 *         Index templates only support {@code *} wildcards, the pattern assumes years from 2000 to 2999
+	 */
+	static String indexPattern(ElasticsearchPersistentEntity<?> persistentEntity) {
+		String datePattern = persistentEntity.getRollingIndexPeriod().getPattern().replaceAll("[a-zA-Z]+", "*");
+		return persistentEntity.getIndexName() + "-2" + datePattern;
+	}
+
+	/**
+	 * @return whether the given index is one of the periods of a rolling index, named exactly after its period format
+	 */
+	static boolean isIndexOf(ElasticsearchPersistentEntity<?> persistentEntity, String indexName) {
+		String prefix = persistentEntity.getIndexName() + "-";
+		if (!indexName.startsWith(prefix)) {
+			return false;
+		}
+		String period = indexName.substring(prefix.length());
+		SimpleDateFormat format = new SimpleDateFormat(persistentEntity.getRollingIndexPeriod().getPattern());
+		format.setTimeZone(persistentEntity.getRollingIndexTimeZone());
+		format.setLenient(false);
+		ParsePosition position = new ParsePosition(0);
+		Date date = format.parse(period, position);
+		return date != null && position.getIndex() == period.length() && format.format(date).equals(period);
+	}
+
+	static String indexName(ElasticsearchPersistentEntity<?> persistentEntity, long timestamp) {
+		SimpleDateFormat format = new SimpleDateFormat(persistentEntity.getRollingIndexPeriod().getPattern());
+		format.setTimeZone(persistentEntity.getRollingIndexTimeZone());
+		return persistentEntity.getIndexName() + "-" + format.format(new Date(timestamp));
+	}
+
+	/**
+	 * @return the index the given entity is written to
+	 */
+	static String indexNameFor(ElasticsearchPersistentEntity<?> persistentEntity, Object entity) {
+		ElasticsearchPersistentProperty property = persistentEntity.getRollingIndexProperty();
+		Long timestamp = toMillis(persistentEntity.getPropertyAccessor(entity).getProperty(property));
+		if (timestamp == null) {
+			throw new ElasticsearchException("Cannot find the index of " + entity.getClass().getSimpleName()
+					+ ", its rolling index property [" + property.getName() + "] is null or not a date");
+		}
+		return indexName(persistentEntity, timestamp);
+	}
+
+	/**
+	 * Find the indices of the periods overlapping the range the criteria put on the rolling index property. Only
+	 * criteria joined with {@code AND} that bound the property on both sides, with dates, calendars or numbers, narrow
+	 * the indices down.
+	 *
+	 * @return the names of the indices in range, {@literal null} if all indices have to be searched
+	 */
+	static String[] indexNamesFor(ElasticsearchPersistentEntity<?> persistentEntity, Criteria criteria) {
+		if (criteria == null) {
+			return null;
+		}
+		String fieldName = persistentEntity.getRollingIndexProperty().getFieldName();
+		Long from = null;
+		Long to = null;
+		for (Criteria chained : criteria.getCriteriaChain()) {
+			if (chained.isOr()) {
+				return null;
+			}
+			if (chained.isNegating() || chained.getField() == null || !fieldName.equals(chained.getField().getName())) {
+				continue;
+			}
+			for (Criteria.CriteriaEntry entry : chained.getQueryCriteriaEntries()) {
+				Long lower = null;
+				Long upper = null;
+				switch (entry.getKey()) {
+					case EQUALS:
+						lower = toMillis(entry.getValue());
+						upper = lower;
+						break;
+					case BETWEEN:
+						Object[] bounds = (Object[]) entry.getValue();
+						lower = toMillis(bounds[0]);
+						upper = toMillis(bounds[1]);
+						break;
+					case GREATER:
+					case GREATER_EQUAL:
+						lower = toMillis(entry.getValue());
+						break;
+					case LESS:
+					case LESS_EQUAL:
+						upper = toMillis(entry.getValue());
+						break;
+					default:
+						break;
+				}
+				if (lower != null) {
+					from = from == null ? lower : Math.max(from, lower);
+				}
+				if (upper != null) {
+					to = to == null ? upper : Math.min(to, upper);
+				}
+			}
+		}
+		if (from == null || to == null || from > to) {
+			return null;
+		}
+		return indexNames(persistentEntity, from, to);
+	}
+
+	private static String[] indexNames(ElasticsearchPersistentEntity<?> persistentEntity, long from, long to) {
+		Calendar calendar = Calendar.getInstance(persistentEntity.getRollingIndexTimeZone());
+		calendar.setTimeInMillis(from);
+		IndexPeriod period = persistentEntity.getRollingIndexPeriod();
+		truncate(calendar, period);
+		List<String> indexNames = new ArrayList<String>();
+		while (calendar.getTimeInMillis() <= to) {
+			if (indexNames.size() == MAX_INDICES_PER_QUERY) {
+				return null;
+			}
+			indexNames.add(indexName(persistentEntity, calendar.getTimeInMillis()));
+			calendar.add(calendarField(period), 1);
+		}
+		return indexNames.toArray(new String[indexNames.size()]);
+	}
+
+	private static void truncate(Calendar calendar, IndexPeriod period) {
+		// each period falls through to reset the fields of the shorter ones
+		switch (period) {
+			case YEAR:
+				calendar.set(Calendar.MONTH, Calendar.JANUARY);
+			case MONTH:
+				calendar.set(Calendar.DAY_OF_MONTH, 1);
+			case DAY:
+				calendar.set(Calendar.HOUR_OF_DAY, 0);
+			case HOUR:
+				calendar.set(Calendar.MINUTE, 0);
+				calendar.set(Calendar.SECOND, 0);
+				calendar.set(Calendar.MILLISECOND, 0);
+		}
+	}
+
+	private static int calendarField(IndexPeriod period) {
+		switch (period) {
+			case HOUR:
+				return Calendar.HOUR_OF_DAY;
+			case DAY:
+				return Calendar.DAY_OF_MONTH;
+			case MONTH:
+				return Calendar.MONTH;
+			default:
+				return Calendar.YEAR;
+		}
+	}
+
+	private static Long toMillis(Object value) {
+		if (value instanceof Date) {
+			return ((Date) value).getTime();
+		}
+		if (value instanceof Calendar) {
+			return ((Calendar) value).getTimeInMillis();
+		}
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		return null;
+	}
+}
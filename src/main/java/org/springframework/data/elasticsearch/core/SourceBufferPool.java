@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+
+/**
+ * Pool of buffers to serialise document sources into for bulk requests. A buffer must only be released once the
+ * request holding its bytes has completed. New buffers are sized after the documents seen so far, buffers that grew
+ * beyond {@code maxRetainedCapacity} are left to the garbage collector.
+ */
+class SourceBufferPool {
+
+	static final int DEFAULT_MAX_POOLED_BUFFERS = 1024;
+	static final int DEFAULT_MAX_RETAINED_CAPACITY = 1024 * 1024;
+	private static final int MIN_CAPACITY = 256;
+
+	private final BlockingQueue<SourceBuffer> buffers;
+	private final int maxRetainedCapacity;
+	private volatile int averageSize = MIN_CAPACITY;
+
+	SourceBufferPool() {
+		this(DEFAULT_MAX_POOLED_BUFFERS, DEFAULT_MAX_RETAINED_CAPACITY);
+	}
+
+	SourceBufferPool(int maxPooledBuffers, int maxRetainedCapacity) {
+		this.buffers = new ArrayBlockingQueue<SourceBuffer>(maxPooledBuffers);
+		this.maxRetainedCapacity = maxRetainedCapacity;
+	}
+
+	SourceBuffer acquire() {
+		SourceBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			// leave some headroom, so that documents slightly above average do not have to grow the buffer
+			buffer = new SourceBuffer(Math.min(averageSize + averageSize / 4, maxRetainedCapacity));
+		}
+		return buffer;
+	}
+
+	void release(Collection<SourceBuffer> released) {
+		for (SourceBuffer buffer : released) {
+			// exponentially weighted, updates racing each other only lose a sample
+			averageSize = Math.max(MIN_CAPACITY, (int) (averageSize * 0.9 + buffer.size() * 0.1));
+			if (buffer.capacity() <= maxRetainedCapacity) {
+				buffer.reset();
+				buffers.offer(buffer);
+			}
+		}
+	}
+
+	int averageSize() {
+		return averageSize;
+	}
+
+	int size() {
+		return buffers.size();
+	}
+
+	static class SourceBuffer extends ByteArrayOutputStream {
+
+		SourceBuffer(int capacity) {
+			super(capacity);
+		}
+
+		int capacity() {
+			return buf.length;
+		}
+
+		/**
+		 * @return the written bytes, backed by this buffer
+		 */
+		BytesReference bytes() {
+			return new BytesArray(buf, 0, count);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentType;
+
+/**
+ * {@link EntityMapper} that can write and read sources in binary formats like SMILE or CBOR directly, and write sources
+ * straight to a stream.
+ */
+public interface XContentEntityMapper extends EntityMapper {
+
+	public BytesReference mapToBytes(Object object, XContentType contentType) throws IOException;
+
+	public void mapToStream(Object object, XContentType contentType, OutputStream out) throws IOException;
+
+	public <T> T mapToObject(BytesReference source, Class<T> clazz) throws IOException;
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.CacheStats;
+import org.springframework.data.elasticsearch.annotations.NearCache;
+
+/**
+ * Near cache of {@link GetResponse}s for entities annotated with {@link NearCache}. The raw response is cached, so
+ * every lookup maps a fresh entity instance and callers never share state.
+ * <p/>
+ * Documents are cached under the index name they were read through, which may be an alias. The concrete index of every
+ * response is remembered, so that writes reported on the concrete index also evict the documents read through its
+ * aliases.
+ */
+public class GetResultCache {
+
+	private static final String SEPARATOR = "/";
+
+	private final ConcurrentMap<Class<?>, Cache<String, GetResponse>> caches = new ConcurrentHashMap<Class<?>, Cache<String, GetResponse>>();
+	private final ConcurrentMap<String, Set<String>> aliasesByIndex = new ConcurrentHashMap<String, Set<String>>();
+
+	public static boolean isCached(Class<?> clazz) {
+		return clazz != null && clazz.isAnnotationPresent(NearCache.class);
+	}
+
+	public static boolean isRevalidated(Class<?> clazz) {
+		return isCached(clazz) && clazz.getAnnotation(NearCache.class).revalidate();
+	}
+
+	public GetResponse get(Class<?> clazz, String indexName, String type, String id) {
+		if (!isCached(clazz)) {
+			return null;
+		}
+		return getOrCreateCache(clazz).getIfPresent(keyFor(indexName, type, id));
+	}
+
+	/**
+	 * @param clazz
+	 * @param indexName the index name the document was read through, an index or an alias
+	 * @param response
+	 */
+	public void put(Class<?> clazz, String indexName, GetResponse response) {
+		if (!isCached(clazz) || !response.isExists()) {
+			return;
+		}
+		if (!indexName.equals(response.getIndex())) {
+			Set<String> aliases = aliasesByIndex.get(response.getIndex());
+			if (aliases == null) {
+				aliasesByIndex.putIfAbsent(response.getIndex(),
+						Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+				aliases = aliasesByIndex.get(response.getIndex());
+			}
+			aliases.add(indexName);
+		}
+		getOrCreateCache(clazz).put(keyFor(indexName, response.getType(), response.getId()), response);
+	}
+
+	/**
+	 * Evict a document of the given index, and the same document read through the aliases of the index.
+	 *
+	 * @param indexName
+	 * @param type
+	 * @param id
+	 */
+	public void evict(String indexName, String type, String id) {
+		for (String name : namesOf(indexName)) {
+			String key = keyFor(name, type, id);
+			for (Cache<String, GetResponse> cache : caches.values()) {
+				cache.invalidate(key);
+			}
+		}
+	}
+
+	/**
+	 * Evict all cached documents of the given index, including those read through its aliases.
+	 *
+	 * @param indexName
+	 */
+	public void evict(String indexName) {
+		List<String> prefixes = new ArrayList<String>();
+		for (String name : namesOf(indexName)) {
+			prefixes.add(name + SEPARATOR);
+		}
+		for (Cache<String, GetResponse> cache : caches.values()) {
+			Iterator<String> keys = cache.asMap().keySet().iterator();
+			while (keys.hasNext()) {
+				String key = keys.next();
+				for (String prefix : prefixes) {
+					if (key.startsWith(prefix)) {
+						keys.remove();
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	public void clear() {
+		for (Cache<String, GetResponse> cache : caches.values()) {
+			cache.invalidateAll();
+		}
+		aliasesByIndex.clear();
+	}
+
+	/**
+	 * @return statistics of the near cache of the given entity, or {@literal null} if it is not annotated with
+	 *         {@link NearCache}
+	 */
+	public CacheStats getStats(Class<?> clazz) {
+		return isCached(clazz) ? getOrCreateCache(clazz).stats() : null;
+	}
+
+	private Cache<String, GetResponse> getOrCreateCache(Class<?> clazz) {
+		Cache<String, GetResponse> cache = caches.get(clazz);
+		if (cache == null) {
+			NearCache nearCache = clazz.getAnnotation(NearCache.class);
+			Cache<String, GetResponse> newCache = CacheBuilder.newBuilder()
+					.maximumSize(nearCache.maximumSize())
+					.expireAfterWrite(nearCache.timeToLive(), TimeUnit.MILLISECONDS)
+					.recordStats()
+					.<String, GetResponse>build();
+			cache = caches.putIfAbsent(clazz, newCache);
+			if (cache == null) {
+				cache = newCache;
+			}
+		}
+		return cache;
+	}
+
+	private List<String> namesOf(String indexName) {
+		List<String> names = new ArrayList<String>();
+		names.add(indexName);
+		Set<String> aliases = aliasesByIndex.get(indexName);
+		if (aliases != null) {
+			names.addAll(aliases);
+		}
+		return names;
+	}
+
+	private static String keyFor(String indexName, String type, String id) {
+		return indexName + SEPARATOR + type + SEPARATOR + id;
+	}
+}
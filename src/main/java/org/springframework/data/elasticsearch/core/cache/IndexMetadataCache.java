@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.CacheStats;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Short lived client side cache of index metadata: the aliases, settings and mappings read through
+ * {@link org.springframework.data.elasticsearch.core.ElasticsearchTemplate}, and the concrete indices its aliases
+ * resolve to. The template evicts the entries of an index whenever it creates or deletes it, or changes its aliases,
+ * settings or mappings. Changes made by other clients are only observed once the time to live has elapsed, or after an
+ * explicit {@link #evict(String...)}. Metadata read through an alias is also evicted along with the indices the alias
+ * pointed to. Cached values are shared and must not be modified, the template only caches unmodifiable copies and
+ * hands out copies of them.
+ */
+public class IndexMetadataCache {
+
+	public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+	public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.SECONDS.toMillis(30);
+
+	private final Cache<Key, Entry> cache;
+
+	public IndexMetadataCache() {
+		this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+	}
+
+	public IndexMetadataCache(long maximumSize, long timeToLiveInMillis) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.isTrue(timeToLiveInMillis > 0, "timeToLiveInMillis must be greater than 0");
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+				.recordStats()
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	public Set<String> getAliases(String indexName) {
+		return (Set<String>) get(new Key(Kind.ALIASES, indexName, null));
+	}
+
+	/**
+	 * @param indexName the requested index or alias name
+	 * @param aliases
+	 * @param indices the indices the aliases were read from, when the requested name is an alias
+	 */
+	public void putAliases(String indexName, Set<String> aliases, String... indices) {
+		put(new Key(Kind.ALIASES, indexName, null), aliases, indices);
+	}
+
+	public Map getSettings(String indexName) {
+		return (Map) get(new Key(Kind.SETTINGS, indexName, null));
+	}
+
+	/**
+	 * @param indexName the requested index or alias name
+	 * @param settings
+	 * @param indices the indices the settings were read from, when the requested name is an alias
+	 */
+	public void putSettings(String indexName, Map settings, String... indices) {
+		put(new Key(Kind.SETTINGS, indexName, null), settings, indices);
+	}
+
+	public Map getMapping(String indexName, String type) {
+		return (Map) get(new Key(Kind.MAPPING, indexName, type));
+	}
+
+	public void putMapping(String indexName, String type, Map mapping) {
+		put(new Key(Kind.MAPPING, indexName, type), mapping);
+	}
+
+	@SuppressWarnings("unchecked")
+	public Set<String> getIndices(String indexName) {
+		return (Set<String>) get(new Key(Kind.INDICES, indexName, null));
+	}
+
+	/**
+	 * @param indexName the requested index or alias name
+	 * @param indices the concrete indices the name resolves to
+	 */
+	public void putIndices(String indexName, Set<String> indices) {
+		put(new Key(Kind.INDICES, indexName, null), indices, indices.toArray(new String[indices.size()]));
+	}
+
+	/**
+	 * Evict the aliases, settings, mappings and concrete indices of the given indices, and those read through aliases of
+	 * them.
+	 *
+	 * @param indices
+	 */
+	public void evict(String... indices) {
+		if (indices == null || indices.length == 0) {
+			return;
+		}
+		Iterator<Map.Entry<Key, Entry>> iterator = cache.asMap().entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Key, Entry> entry = iterator.next();
+			if (ObjectUtils.containsElement(indices, entry.getKey().indexName) || entry.getValue().readFromAny(indices)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	private Object get(Key key) {
+		Entry entry = cache.getIfPresent(key);
+		return entry != null ? entry.value : null;
+	}
+
+	private void put(Key key, Object value, String... indices) {
+		Assert.notNull(key.indexName, "No index defined for metadata");
+		if (value != null) {
+			cache.put(key, new Entry(value, indices));
+		}
+	}
+
+	private static class Entry {
+
+		private final Object value;
+		private final String[] indices;
+
+		Entry(Object value, String[] indices) {
+			this.value = value;
+			this.indices = indices;
+		}
+
+		boolean readFromAny(String[] names) {
+			if (indices != null) {
+				for (String index : indices) {
+					if (ObjectUtils.containsElement(names, index)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	private enum Kind {
+		ALIASES, SETTINGS, MAPPING, INDICES
+	}
+
+	private static class Key {
+
+		private final Kind kind;
+		private final String indexName;
+		private final String type;
+
+		Key(Kind kind, String indexName, String type) {
+			this.kind = kind;
+			this.indexName = indexName;
+			this.type = type;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key that = (Key) o;
+			return kind == that.kind && ObjectUtils.nullSafeEquals(indexName, that.indexName)
+					&& ObjectUtils.nullSafeEquals(type, that.type);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = kind.hashCode();
+			result = 31 * result + ObjectUtils.nullSafeHashCode(indexName);
+			result = 31 * result + ObjectUtils.nullSafeHashCode(type);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.Base64;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.CacheStats;
+import org.elasticsearch.common.cache.RemovalCause;
+import org.elasticsearch.common.cache.RemovalListener;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.cache.Weigher;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.Streamable;
+import org.elasticsearch.search.SearchHit;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.util.Assert;
+
+/**
+ * Client side cache of {@link SearchResponse}s, keyed on the serialised search request (indices, types, search type,
+ * routing, preference and the search source holding query, filter, sort, paging and fields).
+ * <p/>
+ * Entries are bounded by their total weight (an estimate of the response size in bytes) and expire after a fixed time
+ * to live. {@link org.springframework.data.elasticsearch.core.ElasticsearchTemplate} evicts the entries of an index
+ * whenever it writes to, refreshes or deletes that index. Writes that do not go through the template, and refreshes
+ * triggered by the index refresh interval, are only observed once the time to live has elapsed. Responses read through
+ * aliases are stored with both the aliases and the indices they resolve to, so that writes reported on a concrete
+ * index evict them. The keys of the responses are indexed by the indices they were read from, an eviction only visits
+ * the responses of the written indices and those read from all indices or index patterns.
+ */
+public class SearchResultCache {
+
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+	public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(1);
+
+	private static final String ALL_INDICES = "_all";
+	private static final String WILDCARD = "*";
+
+	private final Cache<String, CachedResponse> cache;
+	// the keys of the cached responses by the indices they were read from, guarded by itself
+	private final Map<String, Set<String>> keysByIndex = new HashMap<String, Set<String>>();
+	// the keys of the cached responses read from all indices or index patterns, guarded by keysByIndex
+	private final Set<String> keysOfAnyIndex = new HashSet<String>();
+
+	public SearchResultCache() {
+		this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE);
+	}
+
+	public SearchResultCache(long maximumWeight, long timeToLiveInMillis) {
+		Assert.isTrue(maximumWeight > 0, "maximumWeight must be greater than 0");
+		Assert.isTrue(timeToLiveInMillis > 0, "timeToLiveInMillis must be greater than 0");
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(maximumWeight)
+				.weigher(new Weigher<String, CachedResponse>() {
+					@Override
+					public int weigh(String key, CachedResponse value) {
+						return key.length() + value.weight;
+					}
+				})
+				.expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+				.removalListener(new RemovalListener<String, CachedResponse>() {
+					@Override
+					public void onRemoval(RemovalNotification<String, CachedResponse> notification) {
+						// a replaced response was read from the same indices as the one replacing it
+						if (notification.getCause() != RemovalCause.REPLACED) {
+							unregister(notification.getKey(), notification.getValue());
+						}
+					}
+				})
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * @param key the key of the request, see {@link #keyFor(SearchRequest)}
+	 * @return the cached response of an identical request, or {@literal null}
+	 */
+	public SearchResponse get(String key) {
+		CachedResponse cached = cache.getIfPresent(key);
+		return cached != null ? cached.response : null;
+	}
+
+	/**
+	 * @param key the key of the request, see {@link #keyFor(SearchRequest)}
+	 * @param indices the indices the response was read from, with the concrete indices of the aliases among them
+	 * @param response
+	 */
+	public void put(String key, String[] indices, SearchResponse response) {
+		Assert.notNull(key, "Key must not be null!");
+		Assert.notNull(response, "SearchResponse must not be null!");
+		CachedResponse cached = new CachedResponse(indices, response);
+		cache.put(key, cached);
+		register(key, cached);
+	}
+
+	/**
+	 * Evict all responses read from any of the given indices.
+	 *
+	 * @param indices
+	 */
+	public void evict(String... indices) {
+		if (indices == null || indices.length == 0) {
+			return;
+		}
+		List<String> keys = new ArrayList<String>();
+		synchronized (keysByIndex) {
+			keys.addAll(keysOfAnyIndex);
+			for (String index : indices) {
+				Set<String> keysOfIndex = keysByIndex.get(index);
+				if (keysOfIndex != null) {
+					keys.addAll(keysOfIndex);
+				}
+			}
+		}
+		// the removal listener unregisters the keys
+		cache.invalidateAll(keys);
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	private void register(String key, CachedResponse cached) {
+		synchronized (keysByIndex) {
+			if (cached.readsFromAnyIndex()) {
+				keysOfAnyIndex.add(key);
+				return;
+			}
+			for (String index : cached.indices) {
+				Set<String> keys = keysByIndex.get(index);
+				if (keys == null) {
+					keys = new HashSet<String>();
+					keysByIndex.put(index, keys);
+				}
+				keys.add(key);
+			}
+		}
+	}
+
+	private void unregister(String key, CachedResponse cached) {
+		synchronized (keysByIndex) {
+			if (cached.readsFromAnyIndex()) {
+				keysOfAnyIndex.remove(key);
+				return;
+			}
+			for (String index : cached.indices) {
+				Set<String> keys = keysByIndex.get(index);
+				if (keys != null && keys.remove(key) && keys.isEmpty()) {
+					keysByIndex.remove(index);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Build the cache key of a search request. The key has to be built before the request is executed, as executing it
+	 * may change the request (e.g. its search type).
+	 *
+	 * @param request the request, with its source already built
+	 * @return the key of the request
+	 */
+	public static String keyFor(SearchRequest request) {
+		return new StringBuilder()
+				.append(Arrays.toString(request.indices())).append('|')
+				.append(Arrays.toString(request.types())).append('|')
+				.append(request.searchType()).append('|')
+				.append(request.routing()).append('|')
+				.append(request.preference()).append('|')
+				.append(encode(request.source())).append('|')
+				.append(encode(request.extraSource()))
+				.toString();
+	}
+
+	private static String encode(BytesReference source) {
+		if (source == null) {
+			return "";
+		}
+		BytesArray bytes = source.toBytesArray();
+		return Base64.encodeBytes(bytes.array(), bytes.arrayOffset(), bytes.length());
+	}
+
+	private static class CachedResponse {
+
+		private final String[] indices;
+		private final SearchResponse response;
+		private final int weight;
+
+		CachedResponse(String[] indices, SearchResponse response) {
+			this.indices = indices;
+			this.response = response;
+			this.weight = weigh(response);
+		}
+
+		boolean readsFromAnyIndex() {
+			if (indices == null || indices.length == 0) {
+				return true;
+			}
+			for (String index : indices) {
+				if (ALL_INDICES.equals(index) || index.contains(WILDCARD)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static int weigh(SearchResponse response) {
+			long weight = 0;
+			for (SearchHit hit : response.getHits().getHits()) {
+				weight += hit.sourceRef() != null ? hit.sourceRef().length() : 0;
+				weight += hit.getFields() != null ? hit.getFields().size() * 64 : 0;
+			}
+			// aggregations and facets have no cheaper size than their serialised one
+			weight += serialisedSize(response.getAggregations());
+			weight += serialisedSize(response.getFacets());
+			return (int) Math.min(weight, Integer.MAX_VALUE);
+		}
+
+		private static long serialisedSize(Object results) {
+			if (!(results instanceof Streamable)) {
+				return 0;
+			}
+			BytesStreamOutput out = new BytesStreamOutput();
+			try {
+				((Streamable) results).writeTo(out);
+			} catch (IOException e) {
+				throw new ElasticsearchException("failed to weigh search response", e);
+			}
+			return out.size();
+		}
+	}
+}
@@ -15,6 +15,10 @@
  */
 package org.springframework.data.elasticsearch.core.mapping;
 
+import java.util.TimeZone;
+
+import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.data.elasticsearch.annotations.IndexPeriod;
 import org.springframework.data.mapping.PersistentEntity;
 
 /**
@@ -46,7 +50,24 @@ public interface ElasticsearchPersistentEntity<T> extends PersistentEntity<T, El
 
 	ElasticsearchPersistentProperty getParentIdProperty();
 
+	/**
+	 * @return the property holding the routing value of the documents, {@literal null} if they are routed by id
+	 */
+	ElasticsearchPersistentProperty getRoutingProperty();
+
 	String settingPath();
 
 	boolean isCreateIndexAndMapping();
+
+	XContentType getSourceEncoding();
+
+	/**
+	 * @return the timestamp property partitioning the documents into one index per period, {@literal null} if the
+	 *         documents are stored in a single index
+	 */
+	ElasticsearchPersistentProperty getRollingIndexProperty();
+
+	IndexPeriod getRollingIndexPeriod();
+
+	TimeZone getRollingIndexTimeZone();
 }
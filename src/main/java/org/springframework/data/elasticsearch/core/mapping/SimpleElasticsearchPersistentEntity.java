@@ -18,14 +18,19 @@ package org.springframework.data.elasticsearch.core.mapping;
 import static org.springframework.util.StringUtils.*;
 
 import java.util.Locale;
+import java.util.TimeZone;
 
+import org.elasticsearch.common.xcontent.XContentType;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.expression.BeanFactoryAccessor;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.IndexPeriod;
 import org.springframework.data.elasticsearch.annotations.Parent;
+import org.springframework.data.elasticsearch.annotations.RollingIndex;
+import org.springframework.data.elasticsearch.annotations.Routing;
 import org.springframework.data.elasticsearch.annotations.Setting;
 import org.springframework.data.mapping.model.BasicPersistentEntity;
 import org.springframework.data.util.TypeInformation;
@@ -57,8 +62,13 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 	private String indexStoreType;
 	private String parentType;
 	private ElasticsearchPersistentProperty parentIdProperty;
+	private ElasticsearchPersistentProperty routingProperty;
 	private String settingPath;
 	private boolean createIndexAndMapping;
+	private XContentType sourceEncoding = XContentType.JSON;
+	private ElasticsearchPersistentProperty rollingIndexProperty;
+	private IndexPeriod rollingIndexPeriod;
+	private TimeZone rollingIndexTimeZone;
 
 	public SimpleElasticsearchPersistentEntity(TypeInformation<T> typeInformation) {
 		super(typeInformation);
@@ -78,6 +88,7 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 			this.refreshInterval = document.refreshInterval();
 			this.indexStoreType = document.indexStoreType();
 			this.createIndexAndMapping = document.createIndex();
+			this.sourceEncoding = document.sourceEncoding();
 		}
 		if (clazz.isAnnotationPresent(Setting.class)) {
 			this.settingPath = typeInformation.getType().getAnnotation(Setting.class).settingPath();
@@ -138,6 +149,11 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 		return parentIdProperty;
 	}
 
+	@Override
+	public ElasticsearchPersistentProperty getRoutingProperty() {
+		return routingProperty;
+	}
+
 	@Override
 	public String settingPath() {
 		return settingPath;
@@ -148,6 +164,26 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 		return createIndexAndMapping;
 	}
 
+	@Override
+	public XContentType getSourceEncoding() {
+		return sourceEncoding;
+	}
+
+	@Override
+	public ElasticsearchPersistentProperty getRollingIndexProperty() {
+		return rollingIndexProperty;
+	}
+
+	@Override
+	public IndexPeriod getRollingIndexPeriod() {
+		return rollingIndexPeriod;
+	}
+
+	@Override
+	public TimeZone getRollingIndexTimeZone() {
+		return rollingIndexTimeZone;
+	}
+
 	@Override
 	public void addPersistentProperty(ElasticsearchPersistentProperty property) {
 		super.addPersistentProperty(property);
@@ -161,6 +197,17 @@ public class SimpleElasticsearchPersistentEntity<T> extends BasicPersistentEntit
 				this.parentIdProperty = property;
 				this.parentType = parent.type();
 			}
+			if (property.getField().isAnnotationPresent(Routing.class)) {
+				Assert.isNull(this.routingProperty, "Only one field can hold a @Routing annotation");
+				this.routingProperty = property;
+			}
+			RollingIndex rollingIndex = property.getField().getAnnotation(RollingIndex.class);
+			if (rollingIndex != null) {
+				Assert.isNull(this.rollingIndexProperty, "Only one field can hold a @RollingIndex annotation");
+				this.rollingIndexProperty = property;
+				this.rollingIndexPeriod = rollingIndex.period();
+				this.rollingIndexTimeZone = TimeZone.getTimeZone(rollingIndex.timeZone());
+			}
 		}
 
 		if (property.isVersionProperty()) {
@@ -39,10 +39,12 @@ abstract class AbstractQuery implements Query {
 	protected List<String> indices = new ArrayList<String>();
 	protected List<String> types = new ArrayList<String>();
 	protected List<String> fields = new ArrayList<String>();
+	protected SourceFilter sourceFilter;
 	protected float minScore;
 	protected Collection<String> ids;
 	protected String route;
 	protected SearchType searchType = SearchType.DFS_QUERY_THEN_FETCH;
+	protected String preference;
 
 	@Override
 	public Sort getSort() {
@@ -71,6 +73,16 @@ abstract class AbstractQuery implements Query {
 		return fields;
 	}
 
+	@Override
+	public void addSourceFilter(SourceFilter sourceFilter) {
+		this.sourceFilter = sourceFilter;
+	}
+
+	@Override
+	public SourceFilter getSourceFilter() {
+		return sourceFilter;
+	}
+
 	@Override
 	public List<String> getIndices() {
 		return indices;
@@ -137,4 +149,12 @@ abstract class AbstractQuery implements Query {
 	public SearchType getSearchType() {
 		return searchType;
 	}
+
+	public String getPreference() {
+		return preference;
+	}
+
+	public void setPreference(String preference) {
+		this.preference = preference;
+	}
 }
@@ -24,6 +24,7 @@ package org.springframework.data.elasticsearch.core.query;
 public class GetQuery {
 
 	private String id;
+	private String routing;
 
 	public String getId() {
 		return id;
@@ -32,4 +33,12 @@ public class GetQuery {
 	public void setId(String id) {
 		this.id = id;
 	}
+
+	public String getRouting() {
+		return routing;
+	}
+
+	public void setRouting(String routing) {
+		this.routing = routing;
+	}
 }
@@ -15,6 +15,8 @@
  */
 package org.springframework.data.elasticsearch.core.query;
 
+import org.elasticsearch.common.bytes.BytesReference;
+
 /**
  * IndexQuery
  *
@@ -30,7 +32,9 @@ public class IndexQuery {
 	private String indexName;
 	private String type;
 	private String source;
+	private BytesReference sourceRef;
 	private String parentId;
+	private String routing;
 
 	public String getId() {
 		return id;
@@ -80,6 +84,17 @@ public class IndexQuery {
 		this.source = source;
 	}
 
+	public BytesReference getSourceRef() {
+		return sourceRef;
+	}
+
+	/**
+	 * @param sourceRef the source as it was read, in any content type, indexed as is instead of {@link #getSource()}
+	 */
+	public void setSourceRef(BytesReference sourceRef) {
+		this.sourceRef = sourceRef;
+	}
+
 	public String getParentId() {
 		return parentId;
 	}
@@ -87,4 +102,12 @@ public class IndexQuery {
 	public void setParentId(String parentId) {
 		this.parentId = parentId;
 	}
+
+	public String getRouting() {
+		return routing;
+	}
+
+	public void setRouting(String routing) {
+		this.routing = routing;
+	}
 }
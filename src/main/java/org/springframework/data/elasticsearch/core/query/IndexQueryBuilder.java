@@ -30,6 +30,7 @@ public class IndexQueryBuilder {
 	private String type;
 	private String source;
 	private String parentId;
+	private String routing;
 
 	public IndexQueryBuilder withId(String id) {
 		this.id = id;
@@ -66,6 +67,11 @@ public class IndexQueryBuilder {
 		return this;
 	}
 
+	public IndexQueryBuilder withRouting(String routing) {
+		this.routing = routing;
+		return this;
+	}
+
 	public IndexQuery build() {
 		IndexQuery indexQuery = new IndexQuery();
 		indexQuery.setId(id);
@@ -73,6 +79,7 @@ public class IndexQueryBuilder {
 		indexQuery.setType(type);
 		indexQuery.setObject(object);
 		indexQuery.setParentId(parentId);
+		indexQuery.setRouting(routing);
 		indexQuery.setSource(source);
 		indexQuery.setVersion(version);
 		return indexQuery;
@@ -50,10 +50,12 @@ public class NativeSearchQueryBuilder {
 	private String[] indices;
 	private String[] types;
 	private String[] fields;
+	private SourceFilter sourceFilter;
 	private float minScore;
 	private Collection<String> ids;
 	private String route;
 	private SearchType searchType;
+	private String preference;
 
 	public NativeSearchQueryBuilder withQuery(QueryBuilder queryBuilder) {
 		this.queryBuilder = queryBuilder;
@@ -130,6 +132,16 @@ public class NativeSearchQueryBuilder {
 		return this;
 	}
 
+	public NativeSearchQueryBuilder withSourceFilter(SourceFilter sourceFilter) {
+		this.sourceFilter = sourceFilter;
+		return this;
+	}
+
+	public NativeSearchQueryBuilder withPreference(String preference) {
+		this.preference = preference;
+		return this;
+	}
+
 	public NativeSearchQuery build() {
 		NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryBuilder, filterBuilder, sortBuilders, highlightFields);
 		if (pageable != null) {
@@ -147,6 +159,10 @@ public class NativeSearchQueryBuilder {
 		if (fields != null) {
 			nativeSearchQuery.addFields(fields);
 		}
+
+		if (sourceFilter != null) {
+			nativeSearchQuery.addSourceFilter(sourceFilter);
+		}
         if (CollectionUtils.isNotEmpty(scriptFields)) {
             nativeSearchQuery.setScriptFields(scriptFields);
         }
@@ -175,6 +191,10 @@ public class NativeSearchQueryBuilder {
 			nativeSearchQuery.setSearchType(searchType);
 		}
 
+		if (preference != null) {
+			nativeSearchQuery.setPreference(preference);
+		}
+
 		return nativeSearchQuery;
 	}
 }
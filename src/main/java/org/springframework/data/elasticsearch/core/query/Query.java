@@ -139,4 +139,26 @@ public interface Query {
 	 * @return
 	 */
 	SearchType getSearchType();
+
+	/**
+	 * Get preference of the shard copies to read from, e.g. {@code _local}, {@code _primary} or a custom string to
+	 * stick a session to the same copies
+	 *
+	 * @return
+	 */
+	String getPreference();
+
+	/**
+	 * Add source filter to be added as part of search request
+	 *
+	 * @param sourceFilter
+	 */
+	void addSourceFilter(SourceFilter sourceFilter);
+
+	/**
+	 * Get SourceFilter to be returned to get include and exclude source fields as part of search request.
+	 *
+	 * @return SourceFilter
+	 */
+	SourceFilter getSourceFilter();
 }
@@ -30,6 +30,7 @@ public class UpdateQuery {
 	private String type;
 	private Class clazz;
 	private boolean doUpsert;
+	private String routing;
 
 	public String getId() {
 		return id;
@@ -78,4 +79,12 @@ public class UpdateQuery {
 	public void setDoUpsert(boolean doUpsert) {
 		this.doUpsert = doUpsert;
 	}
+
+	public String getRouting() {
+		return routing;
+	}
+
+	public void setRouting(String routing) {
+		this.routing = routing;
+	}
 }
@@ -31,6 +31,7 @@ public class UpdateQueryBuilder {
 	private String type;
 	private Class clazz;
 	private boolean doUpsert;
+	private String routing;
 
 	public UpdateQueryBuilder withId(String id) {
 		this.id = id;
@@ -67,6 +68,11 @@ public class UpdateQueryBuilder {
 		return this;
 	}
 
+	public UpdateQueryBuilder withRouting(String routing) {
+		this.routing = routing;
+		return this;
+	}
+
 	public UpdateQuery build() {
 		UpdateQuery updateQuery = new UpdateQuery();
 		updateQuery.setId(id);
@@ -81,6 +87,7 @@ public class UpdateQueryBuilder {
 		}
 		updateQuery.setUpdateRequest(updateRequest);
 		updateQuery.setDoUpsert(doUpsert);
+		updateQuery.setRouting(routing);
 		return updateQuery;
 	}
 }
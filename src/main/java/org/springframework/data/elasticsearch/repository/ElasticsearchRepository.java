@@ -16,10 +16,12 @@
 package org.springframework.data.elasticsearch.repository;
 
 import java.io.Serializable;
+import java.util.Iterator;
 
 import org.elasticsearch.index.query.QueryBuilder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.BulkIndexResult;
 import org.springframework.data.elasticsearch.core.FacetedPage;
 import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -35,6 +37,29 @@ public interface ElasticsearchRepository<T, ID extends Serializable> extends Ela
 
 	<S extends T> S index(S entity);
 
+	/**
+	 * Find the entity with the given id on the shard of the given routing value, for entities with a
+	 * {@link org.springframework.data.elasticsearch.annotations.Routing} property.
+	 */
+	T findOne(ID id, String routing);
+
+	/**
+	 * Delete the entity with the given id from the shard of the given routing value.
+	 */
+	void delete(ID id, String routing);
+
+	/**
+	 * Index the given entities in bulk requests of at most {@code bulkSize} entities, with at most
+	 * {@code concurrentRequests} requests in flight. Entities are converted while iterating, so a lazily produced
+	 * {@link Iterable} is never fully held in memory.
+	 */
+	<S extends T> BulkIndexResult index(Iterable<S> entities, int bulkSize, int concurrentRequests);
+
+	/**
+	 * @see #index(Iterable, int, int)
+	 */
+	<S extends T> BulkIndexResult index(Iterator<S> entities, int bulkSize, int concurrentRequests);
+
 	Iterable<T> search(QueryBuilder query);
 
 	FacetedPage<T> search(QueryBuilder query, Pageable pageable);
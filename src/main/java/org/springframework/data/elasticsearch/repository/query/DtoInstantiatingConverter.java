@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.repository.query;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.EntityInstantiator;
+import org.springframework.data.convert.EntityInstantiators;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.mapping.PersistentEntity;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Converter} to instantiate DTOs from fully equipped domain objects, used for class based projections of
+ * repository query methods.
+ */
+class DtoInstantiatingConverter implements Converter<Object, Object> {
+
+	private final Class<?> targetType;
+	private final MappingContext<?, ElasticsearchPersistentProperty> context;
+	private final EntityInstantiator instantiator;
+
+	public DtoInstantiatingConverter(Class<?> dtoType, MappingContext<?, ElasticsearchPersistentProperty> context,
+			EntityInstantiators instantiators) {
+
+		Assert.notNull(dtoType, "DTO type must not be null!");
+		Assert.notNull(context, "MappingContext must not be null!");
+		Assert.notNull(instantiators, "EntityInstantiators must not be null!");
+
+		this.targetType = dtoType;
+		this.context = context;
+		this.instantiator = instantiators.getInstantiatorFor(context.getPersistentEntity(dtoType));
+	}
+
+	@Override
+	public Object convert(Object source) {
+
+		if (source == null || targetType.isInterface()) {
+			return source;
+		}
+
+		final PersistentEntity<?, ElasticsearchPersistentProperty> sourceEntity = context.getPersistentEntity(source
+				.getClass());
+		final PersistentPropertyAccessor sourceAccessor = sourceEntity.getPropertyAccessor(source);
+		final PersistentEntity<?, ElasticsearchPersistentProperty> targetEntity = context.getPersistentEntity(targetType);
+		final PreferredConstructor<?, ElasticsearchPersistentProperty> constructor = targetEntity
+				.getPersistenceConstructor();
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		Object dto = instantiator.createInstance(targetEntity, new ParameterValueProvider() {
+
+			@Override
+			public Object getParameterValue(Parameter parameter) {
+				return getSourceProperty(sourceEntity, sourceAccessor, parameter.getName());
+			}
+		});
+
+		final PersistentPropertyAccessor dtoAccessor = targetEntity.getPropertyAccessor(dto);
+
+		targetEntity.doWithProperties(new PropertyHandler<ElasticsearchPersistentProperty>() {
+
+			@Override
+			public void doWithPersistentProperty(ElasticsearchPersistentProperty property) {
+
+				if (constructor != null && constructor.isConstructorParameter(property)) {
+					return;
+				}
+
+				dtoAccessor.setProperty(property, getSourceProperty(sourceEntity, sourceAccessor, property.getName()));
+			}
+		});
+
+		return dto;
+	}
+
+	private static Object getSourceProperty(PersistentEntity<?, ElasticsearchPersistentProperty> sourceEntity,
+			PersistentPropertyAccessor sourceAccessor, String name) {
+
+		ElasticsearchPersistentProperty property = sourceEntity.getPersistentProperty(name);
+		return property != null ? sourceAccessor.getProperty(property) : null;
+	}
+}
@@ -15,13 +15,20 @@
  */
 package org.springframework.data.elasticsearch.repository.query;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.convert.EntityInstantiators;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
 import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.data.elasticsearch.repository.query.parser.ElasticsearchQueryCreator;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.ReturnedType;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.ClassUtils;
 import org.springframework.data.util.CloseableIterator;
@@ -38,6 +45,7 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
 
 	private final PartTree tree;
 	private final MappingContext<?, ElasticsearchPersistentProperty> mappingContext;
+	private final EntityInstantiators instantiators = new EntityInstantiators();
 
 	public ElasticsearchPartQuery(ElasticsearchQueryMethod method, ElasticsearchOperations elasticsearchOperations) {
 		super(method, elasticsearchOperations);
@@ -53,9 +61,8 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
 			Object result = countOrGetDocumentsForDelete(query, accessor);
 			elasticsearchOperations.delete(query, queryMethod.getEntityInformation().getJavaType());
 			return result;
-		} else if (queryMethod.isPageQuery()) {
-			query.setPageable(accessor.getPageable());
-			return elasticsearchOperations.queryForPage(query, queryMethod.getEntityInformation().getJavaType());
+		} else if (tree.isCountProjection()) {
+			return elasticsearchOperations.count(query, queryMethod.getEntityInformation().getJavaType());
 		} else if (queryMethod.isStreamQuery()) {
 			Class<?> entityType = queryMethod.getEntityInformation().getJavaType();
 			if (query.getPageable() == null) {
@@ -63,7 +70,20 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
 			}
 
 			return StreamUtils.createStreamFromIterator((CloseableIterator<Object>) elasticsearchOperations.stream(query, entityType));
+		}
 
+		ResultProcessor processor = queryMethod.getResultProcessor().withDynamicProjection(accessor);
+		ReturnedType returnedType = processor.getReturnedType();
+		if (returnedType.isProjecting() && !returnedType.getInputProperties().isEmpty()) {
+			// only fetch the properties the projection reads
+			List<String> properties = returnedType.getInputProperties();
+			query.addSourceFilter(new FetchSourceFilter(properties.toArray(new String[properties.size()]), null));
+		}
+
+		Object result;
+		if (queryMethod.isPageQuery()) {
+			query.setPageable(accessor.getPageable());
+			result = elasticsearchOperations.queryForPage(query, queryMethod.getEntityInformation().getJavaType());
 		} else if (queryMethod.isCollectionQuery()) {
 			if (accessor.getPageable() == null) {
 				int itemCount = (int) elasticsearchOperations.count(query, queryMethod.getEntityInformation().getJavaType());
@@ -71,11 +91,17 @@ public class ElasticsearchPartQuery extends AbstractElasticsearchRepositoryQuery
 			} else {
 			    query.setPageable(accessor.getPageable());
 		    }
-			return elasticsearchOperations.queryForList(query, queryMethod.getEntityInformation().getJavaType());
-		} else if (tree.isCountProjection()) {
-			return elasticsearchOperations.count(query, queryMethod.getEntityInformation().getJavaType());
+			// copy the unmodifiable result, so that it can be projected
+			result = new ArrayList<Object>(elasticsearchOperations.queryForList(query, queryMethod.getEntityInformation()
+					.getJavaType()));
+		} else {
+			result = elasticsearchOperations.queryForObject(query, queryMethod.getEntityInformation().getJavaType());
+		}
+		if (returnedType.needsCustomConstruction()) {
+			return processor.processResult(result, new DtoInstantiatingConverter(returnedType.getReturnedType(),
+					mappingContext, instantiators));
 		}
-		return elasticsearchOperations.queryForObject(query, queryMethod.getEntityInformation().getJavaType());
+		return processor.processResult(result);
 	}
 
 	private Object countOrGetDocumentsForDelete(CriteriaQuery query, ParametersParameterAccessor accessor) {
@@ -23,7 +23,10 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -31,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
+import org.springframework.data.elasticsearch.core.BulkIndexResult;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.FacetedPage;
 import org.springframework.data.elasticsearch.core.query.*;
@@ -50,6 +54,7 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 		ElasticsearchRepository<T, ID> {
 
 	static final Logger LOGGER = LoggerFactory.getLogger(AbstractElasticsearchRepository.class);
+	static final int DEFAULT_BULK_SIZE = 500;
 	protected ElasticsearchOperations elasticsearchOperations;
 	protected Class<T> entityClass;
 	protected ElasticsearchEntityInformation<T, ID> entityInformation;
@@ -70,22 +75,15 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 		setEntityClass(this.entityInformation.getJavaType());
 		try {
 			if (createIndexAndMapping()) {
-				createIndex();
-				putMapping();
+				elasticsearchOperations.bootstrapIndex(getEntityClass());
 			}
 		} catch (ElasticsearchException exception) {
 			LOGGER.error("failed to load elasticsearch nodes : " + exception.getDetailedMessage());
+		} catch (org.springframework.data.elasticsearch.ElasticsearchException exception) {
+			LOGGER.error("failed to create the index of " + getEntityClass() + " : " + exception.getMessage());
 		}
 	}
 
-	private void createIndex() {
-		elasticsearchOperations.createIndex(getEntityClass());
-	}
-
-	private void putMapping() {
-		elasticsearchOperations.putMapping(getEntityClass());
-	}
-
 	private boolean createIndexAndMapping() {
 		return elasticsearchOperations.getPersistentEntityFor(getEntityClass()).isCreateIndexAndMapping();
 	}
@@ -97,6 +95,14 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 		return elasticsearchOperations.queryForObject(query, getEntityClass());
 	}
 
+	@Override
+	public T findOne(ID id, String routing) {
+		GetQuery query = new GetQuery();
+		query.setId(stringIdRepresentation(id));
+		query.setRouting(routing);
+		return elasticsearchOperations.queryForObject(query, getEntityClass());
+	}
+
 	@Override
 	public Iterable<T> findAll() {
 		int itemCount = (int) this.count();
@@ -167,7 +173,15 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 	public <S extends T> Iterable<S> save(Iterable<S> entities) {
 		Assert.notNull(entities, "Cannot insert 'null' as a List.");
 		if (!(entities instanceof Collection<?>)) {
-			throw new InvalidDataAccessApiUsageException("Entities have to be inside a collection");
+			BulkIndexResult result = index(entities, DEFAULT_BULK_SIZE, 1);
+			if (result.hasFailures()) {
+				Map<String, String> failedDocuments = new HashMap<String, String>(result.getFailedDocuments());
+				failedDocuments.putAll(result.getRejectedDocuments());
+				throw new org.springframework.data.elasticsearch.ElasticsearchException(
+						"Bulk indexing has failures. Use ElasticsearchException.getFailedDocuments() for detailed messages ["
+								+ failedDocuments + "]", failedDocuments);
+			}
+			return entities;
 		}
 		List<IndexQuery> queries = new ArrayList<IndexQuery>();
 		for (S s : entities) {
@@ -178,6 +192,36 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 		return entities;
 	}
 
+	@Override
+	public <S extends T> BulkIndexResult index(Iterable<S> entities, int bulkSize, int concurrentRequests) {
+		Assert.notNull(entities, "Cannot insert 'null' as an Iterable.");
+		return index(entities.iterator(), bulkSize, concurrentRequests);
+	}
+
+	@Override
+	public <S extends T> BulkIndexResult index(final Iterator<S> entities, int bulkSize, int concurrentRequests) {
+		Assert.notNull(entities, "Cannot insert 'null' as an Iterator.");
+		BulkIndexResult result = elasticsearchOperations.bulkIndex(new Iterator<IndexQuery>() {
+
+			@Override
+			public boolean hasNext() {
+				return entities.hasNext();
+			}
+
+			@Override
+			public IndexQuery next() {
+				return createIndexQuery(entities.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		}, bulkSize, concurrentRequests);
+		elasticsearchOperations.refresh(entityInformation.getIndexName(), true);
+		return result;
+	}
+
 	@Override
 	public boolean exists(ID id) {
 		return findOne(id) != null;
@@ -221,15 +265,22 @@ public abstract class AbstractElasticsearchRepository<T, ID extends Serializable
 	@Override
 	public void delete(ID id) {
 		Assert.notNull(id, "Cannot delete entity with id 'null'.");
-		elasticsearchOperations.delete(entityInformation.getIndexName(), entityInformation.getType(),
-				stringIdRepresentation(id));
+		elasticsearchOperations.delete(getEntityClass(), stringIdRepresentation(id));
+		elasticsearchOperations.refresh(entityInformation.getIndexName(), true);
+	}
+
+	@Override
+	public void delete(ID id, String routing) {
+		Assert.notNull(id, "Cannot delete entity with id 'null'.");
+		elasticsearchOperations.delete(getEntityClass(), stringIdRepresentation(id), routing);
 		elasticsearchOperations.refresh(entityInformation.getIndexName(), true);
 	}
 
 	@Override
 	public void delete(T entity) {
 		Assert.notNull(entity, "Cannot delete 'null' entity.");
-		delete(extractIdFromBean(entity));
+		// finds the index of a rolling entity from its timestamp and the shard from its routing
+		elasticsearchOperations.delete(entity);
 		elasticsearchOperations.refresh(entityInformation.getIndexName(), true);
 	}
 
@@ -98,4 +98,14 @@ public class MappingElasticsearchEntityInformation<T, ID extends Serializable> e
 		}
 		return null;
 	}
+
+	@Override
+	public String getRouting(T entity) {
+		ElasticsearchPersistentProperty routingProperty = entityMetadata.getRoutingProperty();
+		if (routingProperty != null) {
+			Object routing = entityMetadata.getPropertyAccessor(entity).getProperty(routingProperty);
+			return routing != null ? String.valueOf(routing) : null;
+		}
+		return null;
+	}
 }
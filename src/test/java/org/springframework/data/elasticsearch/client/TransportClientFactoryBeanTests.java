@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.After;
+import org.junit.Test;
+
+public class TransportClientFactoryBeanTests {
+
+	private List<TransportClientFactoryBean> factoryBeans = new ArrayList<TransportClientFactoryBean>();
+
+	@After
+	public void after() throws Exception {
+		for (TransportClientFactoryBean factoryBean : factoryBeans) {
+			factoryBean.destroy();
+		}
+	}
+
+	@Test
+	public void shouldShareTheClientOfTheSameClusterAndSettings() throws Exception {
+		// when
+		TransportClient first = factoryBean("shared", true).getObject();
+		TransportClient second = factoryBean("shared", true).getObject();
+		TransportClient other = factoryBean("other", true).getObject();
+		// then
+		assertThat(second, is(sameInstance(first)));
+		assertThat(other, is(not(sameInstance(first))));
+	}
+
+	@Test
+	public void shouldOnlyCloseTheSharedClientWithItsLastFactoryBean() throws Exception {
+		// given
+		TransportClientFactoryBean first = factoryBean("closed", true);
+		TransportClientFactoryBean second = factoryBean("closed", true);
+		TransportClientFactoryBean third = factoryBean("closed", true);
+		TransportClient client = first.getObject();
+		// when
+		first.destroy();
+		first.destroy();
+		second.destroy();
+		// then
+		assertThat(isClosed(client), is(false));
+		third.destroy();
+		assertThat(isClosed(client), is(true));
+	}
+
+	@Test
+	public void shouldNotShareTheClientByDefault() throws Exception {
+		// given
+		TransportClientFactoryBean first = new TransportClientFactoryBean();
+		first.setClusterName("default");
+		factoryBeans.add(first);
+		TransportClientFactoryBean second = new TransportClientFactoryBean();
+		second.setClusterName("default");
+		factoryBeans.add(second);
+		// when
+		first.afterPropertiesSet();
+		second.afterPropertiesSet();
+		// then
+		assertThat(second.getObject(), is(not(sameInstance(first.getObject()))));
+	}
+
+	@Test
+	public void shouldNotShareTheClientWhenAskedNotTo() throws Exception {
+		// when
+		TransportClient first = factoryBean("unshared", false).getObject();
+		TransportClient second = factoryBean("unshared", false).getObject();
+		// then
+		assertThat(second, is(not(sameInstance(first))));
+	}
+
+	@Test
+	public void shouldApplyTheConnectionSettings() throws Exception {
+		// given
+		TransportClientFactoryBean factoryBean = new TransportClientFactoryBean();
+		factoryBean.setClusterName("connections");
+		factoryBean.setConnectionsPerNodeBulk(1);
+		factoryBean.setConnectionsPerNodeReg(2);
+		factoryBean.setTransportCompress(true);
+		factoryBean.setWorkerCount(2);
+		factoryBeans.add(factoryBean);
+		// when
+		factoryBean.afterPropertiesSet();
+		// then
+		TransportClient client = factoryBean.getObject();
+		assertThat(client.settings().get("transport.connections_per_node.bulk"), is("1"));
+		assertThat(client.settings().get("transport.connections_per_node.reg"), is("2"));
+		assertThat(client.settings().get("transport.tcp.compress"), is("true"));
+		assertThat(client.settings().get("transport.netty.worker_count"), is("2"));
+		assertThat(client.settings().get("network.tcp.keep_alive"), is(nullValue()));
+	}
+
+	@Test
+	public void shouldApplyTheConnectionSettingsOnTopOfTheProperties() throws Exception {
+		// given
+		Properties properties = new Properties();
+		properties.setProperty("cluster.name", "properties");
+		properties.setProperty("transport.tcp.compress", "false");
+		TransportClientFactoryBean factoryBean = new TransportClientFactoryBean();
+		factoryBean.setProperties(properties);
+		factoryBean.setConnectionsPerNodeBulk(1);
+		factoryBean.setTransportCompress(true);
+		factoryBean.setTcpKeepAlive(true);
+		factoryBeans.add(factoryBean);
+		// when
+		factoryBean.afterPropertiesSet();
+		// then
+		TransportClient client = factoryBean.getObject();
+		assertThat(client.settings().get("cluster.name"), is("properties"));
+		assertThat(client.settings().get("transport.connections_per_node.bulk"), is("1"));
+		assertThat(client.settings().get("transport.tcp.compress"), is("true"));
+		assertThat(client.settings().get("network.tcp.keep_alive"), is("true"));
+	}
+
+	private boolean isClosed(TransportClient client) {
+		return ((ExecutorService) client.threadPool().executor(ThreadPool.Names.GENERIC)).isShutdown();
+	}
+
+	private TransportClientFactoryBean factoryBean(String clusterName, boolean shareClient) throws Exception {
+		TransportClientFactoryBean factoryBean = new TransportClientFactoryBean();
+		factoryBean.setClusterName(clusterName);
+		factoryBean.setShareClient(shareClient);
+		factoryBean.afterPropertiesSet();
+		factoryBeans.add(factoryBean);
+		return factoryBean;
+	}
+}
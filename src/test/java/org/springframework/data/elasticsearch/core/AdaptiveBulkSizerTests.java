@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class AdaptiveBulkSizerTests {
+
+	@Test
+	public void shouldGrowBulkSizeThenConcurrencyWhileFast() {
+		// given
+		AdaptiveBulkSizer bulkSizer = new AdaptiveBulkSizer(100, 300, 1, 2, 1000);
+		// when
+		bulkSizer.onBulkResponse(100, 1000, 100, false);
+		bulkSizer.onBulkResponse(200, 2000, 100, false);
+		// then
+		assertThat(bulkSizer.getBulkSize(), is(300));
+		assertThat(bulkSizer.getConcurrentRequests(), is(1));
+		// when
+		bulkSizer.onBulkResponse(300, 3000, 100, false);
+		// then
+		assertThat(bulkSizer.getConcurrentRequests(), is(2));
+	}
+
+	@Test
+	public void shouldHalveOnRejection() {
+		// given
+		AdaptiveBulkSizer bulkSizer = new AdaptiveBulkSizer(100, 1000, 1, 4, 1000);
+		for (int i = 0; i < 15; i++) {
+			bulkSizer.onBulkResponse(bulkSizer.getBulkSize(), 1000, 10, false);
+		}
+		assertThat(bulkSizer.getBulkSize(), is(1000));
+		assertThat(bulkSizer.getConcurrentRequests(), is(4));
+		// when
+		bulkSizer.onBulkResponse(1000, 10000, 10, true);
+		// then
+		assertThat(bulkSizer.getBulkSize(), is(500));
+		assertThat(bulkSizer.getConcurrentRequests(), is(2));
+		assertThat(bulkSizer.getRejectedBulkCount(), is(1L));
+	}
+
+	@Test
+	public void shouldShrinkBulkSizeWhenSlowerThanTarget() {
+		// given
+		AdaptiveBulkSizer bulkSizer = new AdaptiveBulkSizer(100, 1000, 1, 1, 1000);
+		bulkSizer.onBulkResponse(100, 1000, 10, false);
+		bulkSizer.onBulkResponse(200, 1000, 10, false);
+		// when
+		bulkSizer.onBulkResponse(300, 1000, 2000, false);
+		// then
+		assertThat(bulkSizer.getBulkSize(), is(150));
+		assertThat(bulkSizer.getLastTookInMillis(), is(2000L));
+	}
+
+	@Test
+	public void shouldNotGrowOnPartialBulks() {
+		// given
+		AdaptiveBulkSizer bulkSizer = new AdaptiveBulkSizer(100, 1000, 1, 1, 1000);
+		// when
+		bulkSizer.onBulkResponse(10, 100, 10, false);
+		// then
+		assertThat(bulkSizer.getBulkSize(), is(100));
+	}
+
+	@Test
+	public void shouldNeverChangeFixedSettings() {
+		// given
+		AdaptiveBulkSizer bulkSizer = AdaptiveBulkSizer.fixed(50, 3);
+		// when
+		bulkSizer.onBulkResponse(50, 1000, 10, false);
+		bulkSizer.onBulkResponse(50, 1000, 100000, true);
+		// then
+		assertThat(bulkSizer.getBulkSize(), is(50));
+		assertThat(bulkSizer.getConcurrentRequests(), is(3));
+		assertThat(bulkSizer.getBulkCount(), is(2L));
+	}
+}
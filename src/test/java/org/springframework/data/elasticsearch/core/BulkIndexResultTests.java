@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.elasticsearch.rest.RestStatus;
+import org.junit.Test;
+
+public class BulkIndexResultTests {
+
+	@Test
+	public void shouldKeepFailuresOfDocumentsWithoutIdApart() {
+		// given
+		BulkIndexResult result = new BulkIndexResult();
+		// when
+		result.addFailure(null, 3, "failed");
+		result.addFailure("1", 4, "failed");
+		result.addRejection(null, 5, "rejected");
+		result.addRejection(null, 6, "rejected");
+		// then
+		assertThat(result.getFailedDocuments().keySet(), contains("#3", "1"));
+		assertThat(result.getRejectedDocuments().keySet(), contains("#5", "#6"));
+		assertThat(result.getRejectionCount(), is(2));
+	}
+
+	@Test
+	public void shouldOnlyCountExpectedVersionConflicts() {
+		// given
+		BulkIndexResult result = new BulkIndexResult(true);
+		// when
+		result.addFailure("1", 0, "conflict", RestStatus.CONFLICT);
+		result.addFailure("2", 1, "failed", RestStatus.BAD_REQUEST);
+		// then
+		assertThat(result.getVersionConflictCount(), is(1L));
+		assertThat(result.getFailedDocuments().keySet(), contains("2"));
+	}
+
+	@Test
+	public void shouldKeepUnexpectedVersionConflictsAsFailures() {
+		// given
+		BulkIndexResult result = new BulkIndexResult();
+		// when
+		result.addFailure("1", 0, "conflict", RestStatus.CONFLICT);
+		// then
+		assertThat(result.getVersionConflictCount(), is(0L));
+		assertThat(result.getFailedDocuments().keySet(), contains("1"));
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class BulkLoadSessionTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+
+	@Test
+	public void shouldRelaxSettingsWhileLoadingAndRestoreThemOnClose() {
+		// given
+		client.admin().indices().prepareUpdateSettings("test-index")
+				.setSettings(ImmutableSettings.settingsBuilder().put("index.refresh_interval", "5s")).execute().actionGet();
+		Map settingsBefore = elasticsearchTemplate.getSetting(SampleEntity.class);
+		// when
+		BulkLoadSession session = elasticsearchTemplate.startBulkLoad(SampleEntity.class);
+		Map settingsDuringLoad;
+		try {
+			session.bulkIndex(indexQueries(20).iterator(), 5, 2);
+			settingsDuringLoad = elasticsearchTemplate.getSetting(SampleEntity.class);
+		} finally {
+			session.close();
+		}
+		// then
+		assertThat((String) settingsDuringLoad.get("index.refresh_interval"), is("-1"));
+		assertThat((String) settingsDuringLoad.get("index.number_of_replicas"), is("0"));
+		Map settingsAfter = elasticsearchTemplate.getSetting(SampleEntity.class);
+		assertThat(settingsAfter.get("index.number_of_replicas"), is(settingsBefore.get("index.number_of_replicas")));
+		assertThat((String) settingsAfter.get("index.refresh_interval"), is("5s"));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		assertThat(elasticsearchTemplate.count(searchQuery, SampleEntity.class), is(20L));
+	}
+
+	@Test
+	public void shouldKeepSettingsWhenTheIngestSettingsCannotBeApplied() {
+		// given
+		client.admin().indices().prepareUpdateSettings("test-index")
+				.setSettings(ImmutableSettings.settingsBuilder().put("index.refresh_interval", "5s")).execute().actionGet();
+		Map<String, String> ingestSettings = new LinkedHashMap<String, String>();
+		ingestSettings.put("index.refresh_interval", "-1");
+		// not dynamic
+		ingestSettings.put("index.number_of_shards", "3");
+		// when
+		try {
+			elasticsearchTemplate.startBulkLoad("test-index", ingestSettings);
+			fail("expected the number of shards of an open index not to be updatable");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		// then
+		Map settingsAfter = elasticsearchTemplate.getSetting(SampleEntity.class);
+		assertThat((String) settingsAfter.get("index.refresh_interval"), is("5s"));
+	}
+
+	@Test
+	public void shouldMergeSegmentsOnClose() {
+		// given
+		BulkLoadSession session = elasticsearchTemplate.startBulkLoad(SampleEntity.class);
+		session.setMaxNumSegments(1);
+		// when
+		try {
+			session.bulkIndex(indexQueries(10));
+		} finally {
+			session.close();
+		}
+		// then
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		assertThat(elasticsearchTemplate.count(searchQuery, SampleEntity.class), is(10L));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldRejectIndexingThroughAClosedSession() {
+		// given
+		BulkLoadSession session = elasticsearchTemplate.startBulkLoad(SampleEntity.class);
+		session.close();
+		// when
+		session.bulkIndex(indexQueries(1));
+	}
+
+	private static List<IndexQuery> indexQueries(int count) {
+		List<IndexQuery> indexQueries = new ArrayList<IndexQuery>();
+		for (int i = 0; i < count; i++) {
+			SampleEntity sampleEntity = SampleEntity.builder().id(String.valueOf(i)).message("message " + i).build();
+			indexQueries.add(new IndexQueryBuilder().withId(sampleEntity.getId()).withObject(sampleEntity).build());
+		}
+		return indexQueries;
+	}
+}
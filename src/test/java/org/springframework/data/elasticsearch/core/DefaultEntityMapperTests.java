@@ -19,7 +19,17 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
@@ -66,6 +76,142 @@ public class DefaultEntityMapperTests {
 		assertThat(result.getModel(), is(CAR_MODEL));
 	}
 
+	@Test
+	public void shouldMapValuesToObject() throws IOException {
+		//Given
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("name", CAR_NAME);
+		values.put("model", CAR_MODEL);
+
+		//When
+		Car result = entityMapper.mapToObject(values, Car.class);
+
+		//Then
+		assertThat(result.getName(), is(CAR_NAME));
+		assertThat(result.getModel(), is(CAR_MODEL));
+	}
+
+	@Test
+	public void shouldMapObjectToCborAndBack() throws IOException {
+		//Given
+		Car car = Car.builder().model(CAR_MODEL).name(CAR_NAME).build();
+
+		//When
+		BytesReference source = entityMapper.mapToBytes(car, XContentType.CBOR);
+		Car result = entityMapper.mapToObject(source, Car.class);
+
+		//Then
+		assertThat(XContentFactory.xContentType(source), is(XContentType.CBOR));
+		assertThat(result.getName(), is(CAR_NAME));
+		assertThat(result.getModel(), is(CAR_MODEL));
+	}
+
+	@Test
+	public void shouldMapBigIntegersThatFitALongToSmileAndBack() throws IOException {
+		//Given
+		Amount amount = new Amount();
+		amount.count = BigInteger.valueOf(Long.MAX_VALUE);
+
+		//When
+		Amount result = entityMapper.mapToObject(entityMapper.mapToBytes(amount, XContentType.SMILE), Amount.class);
+
+		//Then
+		assertThat(result.count, is(amount.count));
+	}
+
+	@Test(expected = IOException.class)
+	public void shouldRejectBigDecimalsInBinarySources() throws IOException {
+		//Given
+		Amount amount = new Amount();
+		amount.value = new BigDecimal("0.1000000000000000000001");
+
+		//When
+		entityMapper.mapToBytes(amount, XContentType.CBOR);
+	}
+
+	@Test(expected = IOException.class)
+	public void shouldRejectBigIntegersThatDoNotFitALongInBinarySources() throws IOException {
+		//Given
+		Amount amount = new Amount();
+		amount.count = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+
+		//When
+		entityMapper.mapToBytes(amount, XContentType.SMILE);
+	}
+
+	@Test
+	public void shouldMapBigDecimalsToJsonExactly() throws IOException {
+		//Given
+		Amount amount = new Amount();
+		amount.value = new BigDecimal("0.1000000000000000000001");
+
+		//When
+		Amount result = entityMapper.mapToObject(entityMapper.mapToBytes(amount, XContentType.JSON), Amount.class);
+
+		//Then
+		assertThat(result.value, is(amount.value));
+	}
+
+	@Test
+	public void shouldUseTheReaderAndWriterOfAPreparedType() throws IOException {
+		//Given
+		entityMapper.prepare(Arrays.<Class<?>>asList(Car.class));
+		ObjectReader reader = entityMapper.readerFor(Car.class);
+		ObjectWriter writer = entityMapper.writerFor(Car.class);
+
+		//When
+		entityMapper.mapToString(Car.builder().model(CAR_MODEL).name(CAR_NAME).build());
+		entityMapper.mapToObject(JSON_STRING, Car.class);
+
+		//Then
+		assertThat(entityMapper.readerFor(Car.class), is(sameInstance(reader)));
+		assertThat(entityMapper.writerFor(Car.class), is(sameInstance(writer)));
+	}
+
+	@Test
+	public void shouldReuseTheReaderAndWriterOfAType() throws IOException {
+		//Given
+		entityMapper.mapToString(Car.builder().model(CAR_MODEL).name(CAR_NAME).build());
+		entityMapper.mapToObject(JSON_STRING, Car.class);
+
+		//When
+		ObjectReader reader = entityMapper.readerFor(Car.class);
+		ObjectWriter writer = entityMapper.writerFor(Car.class);
+
+		//Then
+		assertThat(entityMapper.readerFor(Car.class), is(sameInstance(reader)));
+		assertThat(entityMapper.writerFor(Car.class), is(sameInstance(writer)));
+		assertThat(entityMapper.readerFor(GeoEntity.class), is(not(sameInstance(reader))));
+		assertThat(entityMapper.writerFor(GeoEntity.class), is(not(sameInstance(writer))));
+	}
+
+	@Test
+	public void shouldMapDifferentTypesWithTheirOwnReaderAndWriter() throws IOException {
+		//Given
+		Car car = Car.builder().model(CAR_MODEL).name(CAR_NAME).build();
+		GeoEntity geoEntity = GeoEntity.builder().pointC("10.0,20.0").build();
+
+		//When
+		String carJson = entityMapper.mapToString(car);
+		String geoJson = entityMapper.mapToString(geoEntity);
+		Car carResult = entityMapper.mapToObject(carJson, Car.class);
+		GeoEntity geoResult = entityMapper.mapToObject(geoJson, GeoEntity.class);
+
+		//Then
+		assertThat(entityMapper.mapToString(car), is(JSON_STRING));
+		assertThat(carResult.getName(), is(CAR_NAME));
+		assertThat(geoResult.getPointC(), is("10.0,20.0"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldRequireAfterburnerOnTheClasspathWhenAskedFor() {
+		//Given
+		//afterburner is not a dependency of this project
+
+		//When
+		new DefaultEntityMapper(true);
+	}
+
 	@Test
 	public void shouldMapGeoPointElasticsearchNames() throws IOException {
 		//given
@@ -89,4 +235,10 @@ public class DefaultEntityMapperTests {
 	private String pointTemplate(String name, Point point) {
 		return String.format("\"%s\":{\"lat\":%.1f,\"lon\":%.1f}", name, point.getY(), point.getX());
 	}
+
+	static class Amount {
+
+		public BigDecimal value;
+		public BigInteger count;
+	}
 }
@@ -89,6 +89,34 @@ public class DefaultResultMapperTests {
 		assertThat(page.getContent().get(0).getName(), is("Ford"));
 	}
 
+	@Test
+	public void shouldBindStoredFieldsWithoutWritingThemToJson() throws Exception {
+		//Given
+		MapEntityMapper entityMapper = mock(MapEntityMapper.class);
+		resultMapper = new DefaultResultMapper(entityMapper);
+		Map<String, SearchHitField> fields = new HashMap<String, SearchHitField>();
+		fields.put("name", new InternalSearchHitField("name", Arrays.<Object>asList("Ford")));
+		fields.put("model", new InternalSearchHitField("model", Arrays.<Object>asList("Grat", "Arrow")));
+		SearchHit hit = mock(SearchHit.class);
+		when(hit.getFields()).thenReturn(fields);
+		SearchHits searchHits = mock(SearchHits.class);
+		when(searchHits.totalHits()).thenReturn(1L);
+		when(searchHits.iterator()).thenReturn(new ArrayIterator(new SearchHit[]{hit}));
+		when(response.getHits()).thenReturn(searchHits);
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("name", "Ford");
+		values.put("model", Arrays.asList("Grat", "Arrow"));
+		Car car = Car.builder().name("Ford").model("Grat").build();
+		when(entityMapper.mapToObject(values, Car.class)).thenReturn(car);
+
+		//When
+		FacetedPage<Car> page = resultMapper.mapResults(response, Car.class, null);
+
+		//Then
+		assertThat(page.getContent(), contains(car));
+		verify(entityMapper, never()).mapToObject(anyString(), eq(Car.class));
+	}
+
 	@Test
 	public void shouldMapGetRequestToObject() {
 		//Given
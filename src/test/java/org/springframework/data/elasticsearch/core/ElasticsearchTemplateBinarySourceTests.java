@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.entities.SmileSourceEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateBinarySourceTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SmileSourceEntity.class);
+		elasticsearchTemplate.createIndex(SmileSourceEntity.class);
+		elasticsearchTemplate.putMapping(SmileSourceEntity.class);
+		elasticsearchTemplate.refresh(SmileSourceEntity.class, true);
+	}
+
+	@Test
+	public void shouldIndexSourceInDocumentEncoding() {
+		// given
+		SmileSourceEntity entity = new SmileSourceEntity("1", "some message", 10, 1.5, true);
+		// when
+		index(entity);
+		// then
+		GetResponse response = client.prepareGet("test-index-smile-source-entity", "test-type", "1").execute().actionGet();
+		assertThat(XContentFactory.xContentType(response.getSourceAsBytesRef()), is(XContentType.SMILE));
+	}
+
+	@Test
+	public void shouldReadBinarySourceOnGetAndSearch() {
+		// given
+		index(new SmileSourceEntity("1", "some message", 10, 1.5, true));
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId("1");
+		// when
+		SmileSourceEntity found = elasticsearchTemplate.queryForObject(getQuery, SmileSourceEntity.class);
+		Page<SmileSourceEntity> page = elasticsearchTemplate.queryForPage(new NativeSearchQueryBuilder()
+				.withQuery(termQuery("message", "some")).build(), SmileSourceEntity.class);
+		// then
+		assertThat(found.getMessage(), is("some message"));
+		assertThat(found.getRate(), is(10));
+		assertThat(found.getScore(), is(1.5));
+		assertThat(found.isAvailable(), is(true));
+		assertThat(page.getTotalElements(), is(1L));
+		assertThat(page.getContent().get(0).getMessage(), is("some message"));
+	}
+
+	private void index(SmileSourceEntity entity) {
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(entity.getId()).withObject(entity).build());
+		elasticsearchTemplate.refresh(SmileSourceEntity.class, true);
+	}
+}
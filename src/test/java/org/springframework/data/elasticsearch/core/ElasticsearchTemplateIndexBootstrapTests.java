@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.entities.Book;
+import org.springframework.data.elasticsearch.entities.RollingIndexEntity;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.data.elasticsearch.entities.StockPrice;
+import org.springframework.data.elasticsearch.repositories.book.SampleElasticSearchBookRepository;
+import org.springframework.data.elasticsearch.repositories.sample.SampleElasticsearchRepository;
+import org.springframework.data.elasticsearch.repository.support.ElasticsearchRepositoryFactoryBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateIndexBootstrapTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(Book.class);
+		elasticsearchTemplate.deleteIndex(StockPrice.class);
+		elasticsearchTemplate.deleteIndex(RollingIndexEntity.class);
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+	}
+
+	@Test
+	public void shouldCreateTheIndicesAndMappingsOfAllClasses() {
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				Book.class, StockPrice.class));
+		// then
+		assertThat(summary.hasFailures(), is(false));
+		assertThat(summary.getCreatedIndices(), contains("book", "stock"));
+		assertThat(summary.getMappingCount(), is(2));
+		assertThat(elasticsearchTemplate.indexExists(Book.class), is(true));
+		Map mapping = elasticsearchTemplate.getMapping(StockPrice.class);
+		assertThat(((Map) mapping.get("properties")).containsKey("price"), is(true));
+	}
+
+	@Test
+	public void shouldOnlyPutTheMappingsOfExistingIndices() {
+		// given
+		elasticsearchTemplate.createIndex(Book.class);
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				Book.class, StockPrice.class));
+		// then
+		assertThat(summary.getCreatedIndices(), contains("stock"));
+		assertThat(summary.getMappingCount(), is(2));
+	}
+
+	@Test
+	public void shouldLeaveUnchangedMappingsAlone() {
+		// given
+		elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(Book.class, StockPrice.class));
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				Book.class, StockPrice.class));
+		// then
+		assertThat(summary.getCreatedIndices(), is(empty()));
+		assertThat(summary.getMappingCount(), is(0));
+		assertThat(summary.getUnchangedMappingCount(), is(2));
+		Map meta = (Map) elasticsearchTemplate.getMapping(StockPrice.class).get(MappingBuilder.FIELD_META);
+		assertThat(meta.get(MappingBuilder.FIELD_MAPPING_HASH), is(notNullValue()));
+	}
+
+	@Test
+	public void shouldReportAMappingThatDriftedIncompatibly() {
+		// given
+		elasticsearchTemplate.createIndex(StockPrice.class);
+		elasticsearchTemplate.putMapping(StockPrice.class,
+				"{\"price\":{\"properties\":{\"price\":{\"type\":\"string\"}}}}");
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				StockPrice.class));
+		// then
+		assertThat(summary.hasFailures(), is(true));
+		assertThat(summary.getFailures().get(StockPrice.class.getName()), containsString("drifted"));
+	}
+
+	@Test
+	public void shouldPutAChangedMappingAgain() {
+		// given
+		elasticsearchTemplate.createIndex(StockPrice.class);
+		elasticsearchTemplate.putMapping(StockPrice.class, "{\"price\":{\"properties\":{}}}");
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				StockPrice.class));
+		// then
+		assertThat(summary.getMappingCount(), is(1));
+		assertThat(summary.getUnchangedMappingCount(), is(0));
+	}
+
+	@Test
+	public void shouldPutTheTemplateOfARollingIndex() {
+		// when
+		IndexBootstrapSummary summary = elasticsearchTemplate.createIndicesAndMappings(Arrays.<Class<?>> asList(
+				RollingIndexEntity.class));
+		// then
+		assertThat(summary.getCreatedIndices(), is(empty()));
+		assertThat(summary.getCreatedTemplates(), contains("test-index-rolling"));
+		assertThat(summary.getMappingCount(), is(0));
+	}
+
+	@Test
+	public void shouldCreateTheIndexRightAwayOnceStartedUp() {
+		// when
+		elasticsearchTemplate.bootstrapIndex(Book.class);
+		// then
+		assertThat(elasticsearchTemplate.indexExists(Book.class), is(true));
+	}
+
+	@Test
+	public void shouldCreateTheIndicesOfAllRepositoriesTogetherOnceTheSingletonsAreInstantiated() {
+		// given
+		GenericApplicationContext repositories = repositoriesContext(false);
+		// when
+		repositories.refresh();
+		// then
+		RecordingTemplate template = repositories.getBean(RecordingTemplate.class);
+		assertThat(template.bootstrappedClasses.size(), is(1));
+		assertThat(template.bootstrappedClasses.get(0), contains(Book.class, SampleEntity.class));
+		assertThat(elasticsearchTemplate.indexExists(Book.class), is(true));
+		repositories.close();
+	}
+
+	@Test
+	public void shouldCreateTheIndexOfEachRepositoryRightAwayWithALazyTemplate() {
+		// given
+		GenericApplicationContext repositories = repositoriesContext(true);
+		// when
+		repositories.refresh();
+		// then
+		RecordingTemplate template = repositories.getBean(RecordingTemplate.class);
+		assertThat(template.bootstrappedClasses.size(), is(2));
+		assertThat(elasticsearchTemplate.indexExists(Book.class), is(true));
+		repositories.close();
+	}
+
+	@Test
+	public void shouldStartUpAndLogWhenAMappingCannotBePutByDefault() {
+		// given
+		elasticsearchTemplate.createIndex(Book.class);
+		elasticsearchTemplate.putMapping(Book.class, "{\"book\":{\"properties\":{\"author\":{\"type\":\"string\"}}}}");
+		GenericApplicationContext repositories = repositoriesContext(false);
+		// when
+		repositories.refresh();
+		// then
+		assertThat(repositories.getBean(RecordingTemplate.class).bootstrappedClasses.size(), is(1));
+		repositories.close();
+	}
+
+	@Test
+	public void shouldFailTheStartupWhenAMappingCannotBePutIfAskedTo() {
+		// given
+		elasticsearchTemplate.createIndex(Book.class);
+		elasticsearchTemplate.putMapping(Book.class, "{\"book\":{\"properties\":{\"author\":{\"type\":\"string\"}}}}");
+		GenericApplicationContext repositories = repositoriesContext(false, true);
+		// when
+		try {
+			repositories.refresh();
+			fail("expected the startup to fail");
+		} catch (ElasticsearchException e) {
+			// then
+			assertThat(e.getFailedDocuments().keySet(), contains(Book.class.getName()));
+		}
+	}
+
+	@Test
+	public void shouldLogWhenAMappingCannotBePutRightAwayIfAskedToFail() {
+		// given
+		elasticsearchTemplate.createIndex(Book.class);
+		elasticsearchTemplate.putMapping(Book.class, "{\"book\":{\"properties\":{\"author\":{\"type\":\"string\"}}}}");
+		GenericApplicationContext repositories = repositoriesContext(true, true);
+		// when
+		repositories.refresh();
+		// then
+		assertThat(repositories.getBean(RecordingTemplate.class).bootstrappedClasses.size(), is(2));
+		repositories.close();
+	}
+
+	private GenericApplicationContext repositoriesContext(boolean lazyTemplate) {
+		return repositoriesContext(lazyTemplate, false);
+	}
+
+	private GenericApplicationContext repositoriesContext(boolean lazyTemplate, boolean failOnIndexBootstrapFailure) {
+		GenericApplicationContext repositories = new GenericApplicationContext(context);
+		repositories.registerBeanDefinition("recordingTemplate", BeanDefinitionBuilder
+				.genericBeanDefinition(RecordingTemplate.class).addConstructorArgReference("client")
+				.addPropertyValue("failOnIndexBootstrapFailure", failOnIndexBootstrapFailure).setLazyInit(lazyTemplate)
+				.getBeanDefinition());
+		repositories.registerBeanDefinition("bookRepository", repository(SampleElasticSearchBookRepository.class));
+		repositories.registerBeanDefinition("sampleRepository", repository(SampleElasticsearchRepository.class));
+		return repositories;
+	}
+
+	private BeanDefinition repository(Class<?> repositoryInterface) {
+		return BeanDefinitionBuilder.genericBeanDefinition(ElasticsearchRepositoryFactoryBean.class)
+				.addPropertyValue("repositoryInterface", repositoryInterface)
+				.addPropertyReference("elasticsearchOperations", "recordingTemplate").getBeanDefinition();
+	}
+
+	static class RecordingTemplate extends ElasticsearchTemplate {
+
+		private final List<List<Class<?>>> bootstrappedClasses = new ArrayList<List<Class<?>>>();
+
+		public RecordingTemplate(Client client) {
+			super(client);
+		}
+
+		@Override
+		public IndexBootstrapSummary createIndicesAndMappings(Collection<Class<?>> classes) {
+			bootstrappedClasses.add(new ArrayList<Class<?>>(classes));
+			return super.createIndicesAndMappings(classes);
+		}
+	}
+}
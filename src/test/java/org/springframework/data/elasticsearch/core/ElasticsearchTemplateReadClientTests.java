@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.elasticsearch.action.delete.DeleteAction;
+import org.elasticsearch.action.get.GetAction;
+import org.elasticsearch.action.index.IndexAction;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateReadClientTests {
+
+	@Autowired
+	private Client client;
+
+	private RecordingClient writeClient;
+	private RecordingClient readClient;
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Before
+	public void before() {
+		writeClient = new RecordingClient(client);
+		readClient = new RecordingClient(client);
+		elasticsearchTemplate = new ElasticsearchTemplate(writeClient);
+		elasticsearchTemplate.setReadClient(readClient);
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+
+	@Test
+	public void shouldReadWithTheReadClientAndWriteWithTheTemplateClient() {
+		// given
+		index("1", "some message");
+		// when
+		SampleEntity found = elasticsearchTemplate.queryForObject(getQuery("1"), SampleEntity.class);
+		Page<SampleEntity> page = elasticsearchTemplate.queryForPage(
+				new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), SampleEntity.class);
+		elasticsearchTemplate.delete(SampleEntity.class, "1");
+		// then
+		assertThat(found.getMessage(), is("some message"));
+		assertThat(page.getTotalElements(), is(1L));
+		assertThat(writeClient.count(IndexAction.NAME), is(1));
+		assertThat(writeClient.count(DeleteAction.NAME), is(1));
+		assertThat(writeClient.count(GetAction.NAME), is(0));
+		assertThat(writeClient.count(SearchAction.NAME), is(0));
+		assertThat(readClient.count(GetAction.NAME), is(1));
+		assertThat(readClient.count(SearchAction.NAME), is(1));
+		assertThat(readClient.count(IndexAction.NAME), is(0));
+		assertThat(readClient.count(DeleteAction.NAME), is(0));
+	}
+
+	@Test
+	public void shouldReadWithTheTemplateClientOnceTheReadClientIsRemoved() {
+		// given
+		index("1", "some message");
+		elasticsearchTemplate.setReadClient(null);
+		// when
+		elasticsearchTemplate.queryForPage(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(),
+				SampleEntity.class);
+		// then
+		assertThat(writeClient.count(SearchAction.NAME), is(1));
+		assertThat(readClient.count(SearchAction.NAME), is(0));
+	}
+
+	private void index(String documentId, String message) {
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message(message).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(documentId).withObject(sampleEntity).build());
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+
+	private GetQuery getQuery(String id) {
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId(id);
+		return getQuery;
+	}
+}
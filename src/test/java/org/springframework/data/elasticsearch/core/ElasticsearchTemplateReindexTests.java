@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.elasticsearch.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.entities.ReindexEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateReindexTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		deleteReindexedIndices();
+		elasticsearchTemplate.createIndex(ReindexEntity.class);
+		elasticsearchTemplate.putMapping(ReindexEntity.class);
+		elasticsearchTemplate.refresh(ReindexEntity.class, true);
+	}
+
+	@After
+	public void after() {
+		deleteReindexedIndices();
+	}
+
+	@Test
+	public void shouldReplaceConcreteIndexWithAliasToNewIndex() {
+		// given
+		index(10);
+		// when
+		String newIndex = elasticsearchTemplate.reindex(ReindexEntity.class);
+		// then
+		assertThat(newIndex, startsWith("test-index-reindex_"));
+		assertThat(indicesOf("test-index-reindex"), contains(newIndex));
+		assertThat(count(), is(10L));
+		Map mapping = elasticsearchTemplate.getMapping(newIndex, "test-type");
+		assertThat(mapping.toString(), containsString("not_analyzed"));
+	}
+
+	@Test
+	public void shouldMoveAliasAndKeepDocumentVersions() {
+		// given
+		String firstIndex = elasticsearchTemplate.reindex(ReindexEntity.class);
+		index(5);
+		index(5);
+		// when
+		String secondIndex = elasticsearchTemplate.reindex(ReindexEntity.class,
+				new ReindexOptions().withDeleteOldIndices(true).withBulkLoad(false));
+		// then
+		assertThat(secondIndex, is(not(firstIndex)));
+		assertThat(indicesOf("test-index-reindex"), contains(secondIndex));
+		assertThat(elasticsearchTemplate.indexExists(firstIndex), is(false));
+		assertThat(count(), is(5L));
+		assertThat(client.prepareGet("test-index-reindex", "test-type", "1").execute().actionGet().getVersion(), is(2L));
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId("1");
+		assertThat(elasticsearchTemplate.queryForObject(getQuery, ReindexEntity.class).getMessage(), is("message 1"));
+	}
+
+	@Test
+	public void shouldNotLoseWritesSentDuringTheCopy() throws Exception {
+		// given
+		elasticsearchTemplate.reindex(ReindexEntity.class);
+		index(2000);
+		final AtomicBoolean reindexing = new AtomicBoolean(true);
+		final List<String> writtenIds = new CopyOnWriteArrayList<String>();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Integer> writer = executor.submit(new Callable<Integer>() {
+			@Override
+			public Integer call() {
+				int rejected = 0;
+				for (int i = 0; reindexing.get(); i++) {
+					ReindexEntity entity = ReindexEntity.builder().id("written-" + i).message("written " + i).build();
+					try {
+						elasticsearchTemplate.index(new IndexQueryBuilder().withId(entity.getId()).withObject(entity).build());
+						writtenIds.add(entity.getId());
+					} catch (RuntimeException e) {
+						// rejected by the write block, the caller knows it was not written
+						rejected++;
+					}
+				}
+				return rejected;
+			}
+		});
+		// when
+		String newIndex;
+		try {
+			newIndex = elasticsearchTemplate.reindex(ReindexEntity.class,
+					new ReindexOptions().withScrollSize(50).withBulkLoad(false));
+		} finally {
+			reindexing.set(false);
+		}
+		int rejected = writer.get(30, TimeUnit.SECONDS);
+		executor.shutdown();
+		// then
+		elasticsearchTemplate.refresh(newIndex, true);
+		assertThat(writtenIds, is(not(empty())));
+		for (String id : writtenIds) {
+			assertThat(id, client.prepareGet(newIndex, "test-type", id).execute().actionGet().isExists(), is(true));
+		}
+		assertThat(rejected, is(greaterThan(0)));
+	}
+
+	private void index(int count) {
+		List<IndexQuery> indexQueries = new ArrayList<IndexQuery>();
+		for (int i = 0; i < count; i++) {
+			ReindexEntity entity = ReindexEntity.builder().id(String.valueOf(i)).message("message " + i).build();
+			indexQueries.add(new IndexQueryBuilder().withId(entity.getId()).withObject(entity).build());
+		}
+		elasticsearchTemplate.bulkIndex(indexQueries);
+		elasticsearchTemplate.refresh(ReindexEntity.class, true);
+	}
+
+	private long count() {
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		return elasticsearchTemplate.count(searchQuery, ReindexEntity.class);
+	}
+
+	private List<String> indicesOf(String aliasName) {
+		List<String> indices = new ArrayList<String>();
+		for (Object index : client.admin().indices().prepareGetAliases(aliasName).execute().actionGet().getAliases()
+				.keys().toArray()) {
+			indices.add((String) index);
+		}
+		return indices;
+	}
+
+	private void deleteReindexedIndices() {
+		for (String index : client.admin().indices().prepareGetIndex().addIndices("test-index-reindex*").execute()
+				.actionGet().getIndices()) {
+			elasticsearchTemplate.deleteIndex(index);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.RequestGuard.CircuitState;
+import org.springframework.data.elasticsearch.core.RequestGuard.Operation;
+import org.springframework.data.elasticsearch.core.query.AliasBuilder;
+import org.springframework.data.elasticsearch.core.query.AliasQuery;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateRequestGuardTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	private RequestGuard requestGuard;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		requestGuard = new RequestGuard();
+		requestGuard.setTimeout(Operation.SEARCH, "10s");
+		requestGuard.setMaxConcurrentRequestsPerIndex(10);
+		elasticsearchTemplate.setRequestGuard(requestGuard);
+	}
+
+	@After
+	public void after() {
+		elasticsearchTemplate.setRequestGuard(null);
+	}
+
+	@Test
+	public void shouldSendRequestsThroughTheGuard() {
+		// given
+		index("1", "some message");
+		// when
+		SampleEntity found = elasticsearchTemplate.queryForObject(getQuery("1"), SampleEntity.class);
+		Page<SampleEntity> page = elasticsearchTemplate.queryForPage(
+				new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), SampleEntity.class);
+		// then
+		assertThat(found.getMessage(), is("some message"));
+		assertThat(page.getTotalElements(), is(1L));
+		assertThat(requestGuard.getStats(Operation.WRITE).getRequests(), is(1L));
+		assertThat(requestGuard.getStats(Operation.GET).getRequests(), is(1L));
+		assertThat(requestGuard.getStats(Operation.SEARCH).getRequests(), is(1L));
+		assertThat(requestGuard.getStats(Operation.ADMIN).getRequests(), is(1L));
+	}
+
+	@Test
+	public void shouldNotCountMissingDocumentsAsFailures() {
+		// given
+		index("1", "some message");
+		// when
+		SampleEntity found = elasticsearchTemplate.queryForObject(getQuery("missing"), SampleEntity.class);
+		// then
+		assertThat(found, is(nullValue()));
+		assertThat(requestGuard.getStats(Operation.GET).getFailures(), is(0L));
+		assertThat(requestGuard.getCircuitState(), is(CircuitState.CLOSED));
+	}
+
+	@Test
+	public void shouldSendAliasRequestsThroughTheGuard() {
+		// given
+		AliasQuery aliasQuery = new AliasBuilder().withIndexName("test-index").withAliasName("guarded-alias").build();
+		// when
+		elasticsearchTemplate.addAlias(aliasQuery);
+		elasticsearchTemplate.removeAlias(aliasQuery);
+		// then
+		assertThat(requestGuard.getStats(Operation.ADMIN).getRequests(), is(2L));
+	}
+
+	private void index(String documentId, String message) {
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message(message).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(documentId).withObject(sampleEntity).build());
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+
+	private GetQuery getQuery(String id) {
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId(id);
+		return getQuery;
+	}
+}
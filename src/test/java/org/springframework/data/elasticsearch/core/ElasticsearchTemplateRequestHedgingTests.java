@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.RequestHedger.Kind;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateRequestHedgingTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	private RequestHedger requestHedger;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		requestHedger = new RequestHedger();
+		// hedge almost every request
+		requestHedger.setMinimumSamples(1);
+		requestHedger.setPercentile(1);
+		requestHedger.setMinDelayInMillis(1);
+		elasticsearchTemplate.setRequestHedger(requestHedger);
+	}
+
+	@After
+	public void after() {
+		elasticsearchTemplate.setRequestHedger(null);
+		requestHedger.destroy();
+	}
+
+	@Test
+	public void shouldReturnTheSameResultsWhenHedging() {
+		// given
+		index("1", "some message");
+		index("2", "other message");
+		// when
+		for (int i = 0; i < 5; i++) {
+			SampleEntity found = elasticsearchTemplate.queryForObject(getQuery("1"), SampleEntity.class);
+			List<SampleEntity> entities = elasticsearchTemplate.multiGet(new NativeSearchQueryBuilder()
+					.withIds(Arrays.asList("1", "2")).build(), SampleEntity.class);
+			Page<SampleEntity> page = elasticsearchTemplate.queryForPage(
+					new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), SampleEntity.class);
+			Page<SampleEntity> matching = elasticsearchTemplate.queryForPage(
+					new NativeSearchQueryBuilder().withQuery(matchQuery("message", "some")).build(), SampleEntity.class);
+			// then
+			assertThat(found.getMessage(), is("some message"));
+			assertThat(entities.size(), is(2));
+			assertThat(page.getTotalElements(), is(2L));
+			// a copy sent without the query would match both documents
+			assertThat(matching.getTotalElements(), is(1L));
+		}
+		assertThat(requestHedger.getStats(Kind.GET).getRequests(), is(5L));
+		assertThat(requestHedger.getStats(Kind.MULTI_GET).getRequests(), is(5L));
+		assertThat(requestHedger.getStats(Kind.SEARCH).getRequests(), is(10L));
+	}
+
+	@Test
+	public void shouldNotHedgeRequestsWithAPreference() {
+		// given
+		index("1", "some message");
+		// when
+		Page<SampleEntity> page = elasticsearchTemplate.queryForPage(new NativeSearchQueryBuilder()
+				.withQuery(matchAllQuery()).withPreference("_primary").build(), SampleEntity.class);
+		// then
+		assertThat(page.getTotalElements(), is(1L));
+		assertThat(requestHedger.getStats(Kind.SEARCH).getRequests(), is(0L));
+	}
+
+	private void index(String documentId, String message) {
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message(message).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(documentId).withObject(sampleEntity).build());
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+
+	private GetQuery getQuery(String id) {
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId(id);
+		return getQuery;
+	}
+}
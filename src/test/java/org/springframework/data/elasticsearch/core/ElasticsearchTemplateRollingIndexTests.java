@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.List;
+
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.entities.RollingIndexEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateRollingIndexTests {
+
+	// 2016-03-01T10:00:00Z and 2016-03-02T10:00:00Z
+	private static final long FIRST_DAY = 1456826400000L;
+	private static final long SECOND_DAY = FIRST_DAY + 24 * 3600 * 1000;
+	private static final String ARCHIVE_INDEX_NAME = "test-index-rolling-archive";
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(RollingIndexEntity.class);
+		elasticsearchTemplate.createIndex(RollingIndexEntity.class);
+		elasticsearchTemplate.putMapping(RollingIndexEntity.class);
+	}
+
+	@Test
+	public void shouldWriteDocumentsToTheIndexOfTheirDay() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		index(new RollingIndexEntity("2", "second", new Date(SECOND_DAY)));
+		// when
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		assertThat(elasticsearchTemplate.indexExists("test-index-rolling-2016.03.01"), is(true));
+		assertThat(elasticsearchTemplate.indexExists("test-index-rolling-2016.03.02"), is(true));
+		assertThat(elasticsearchTemplate.count(new CriteriaQuery(new Criteria()), RollingIndexEntity.class), is(2L));
+		assertThat(elasticsearchTemplate.getMapping("test-index-rolling-2016.03.01", "test-type").toString(),
+				containsString("date"));
+	}
+
+	@Test
+	public void shouldOnlySearchTheIndicesOfTheDaysInRange() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		// a document of the first day written to the index of the second day is out of reach
+		IndexQuery misplaced = new IndexQueryBuilder().withIndexName("test-index-rolling-2016.03.02")
+				.withObject(new RollingIndexEntity("2", "misplaced", new Date(FIRST_DAY))).withId("2").build();
+		elasticsearchTemplate.index(misplaced);
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		CriteriaQuery query = new CriteriaQuery(new Criteria("timestamp").between(new Date(FIRST_DAY - 3600000),
+				new Date(FIRST_DAY + 3600000)));
+		// when
+		List<RollingIndexEntity> entities = elasticsearchTemplate.queryForList(query, RollingIndexEntity.class);
+		// then
+		assertThat(query.getIndices(), contains("test-index-rolling-2016.03.01"));
+		assertThat(entities.size(), is(1));
+		assertThat(entities.get(0).getMessage(), is("first"));
+	}
+
+	@Test
+	public void shouldCountNothingWhenNoIndexIsInRange() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		CriteriaQuery query = new CriteriaQuery(new Criteria("timestamp").between(new Date(SECOND_DAY),
+				new Date(SECOND_DAY + 3600000)));
+		// when
+		long count = elasticsearchTemplate.count(query, RollingIndexEntity.class);
+		// then
+		assertThat(count, is(0L));
+	}
+
+	@Test
+	public void shouldGetAndDeleteDocumentById() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(SECOND_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId("1");
+		// when
+		RollingIndexEntity entity = elasticsearchTemplate.queryForObject(getQuery, RollingIndexEntity.class);
+		elasticsearchTemplate.delete(RollingIndexEntity.class, "1");
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		assertThat(entity.getMessage(), is("first"));
+		assertThat(elasticsearchTemplate.queryForObject(getQuery, RollingIndexEntity.class), is(nullValue()));
+	}
+
+	@Test
+	public void shouldDeleteByIdADocumentRecentlyWrittenButNotRefreshedYet() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		// when
+		elasticsearchTemplate.delete(RollingIndexEntity.class, "1");
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		assertThat(elasticsearchTemplate.count(new CriteriaQuery(new Criteria()), RollingIndexEntity.class), is(0L));
+	}
+
+	@Test
+	public void shouldRefuseToDeleteByIdADocumentWrittenByAnotherClientAndNotRefreshedYet() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		client.prepareIndex("test-index-rolling-2016.03.01", "test-type", "2").setSource("message", "other").execute()
+				.actionGet();
+		// when
+		try {
+			elasticsearchTemplate.delete(RollingIndexEntity.class, "2");
+			fail("expected the index of a document not refreshed yet not to be found");
+		} catch (ElasticsearchException e) {
+			// then
+			assertThat(e.getMessage(), containsString("[id: 2]"));
+		}
+	}
+
+	@Test
+	public void shouldDeleteEntityFromTheIndexOfItsTimestamp() {
+		// given
+		RollingIndexEntity entity = new RollingIndexEntity("1", "first", new Date(FIRST_DAY));
+		index(entity);
+		// when
+		elasticsearchTemplate.delete(entity);
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		assertThat(elasticsearchTemplate.count(new CriteriaQuery(new Criteria()), RollingIndexEntity.class), is(0L));
+	}
+
+	@Test
+	public void shouldDeleteTheStaleCopyWhenTheTimestampMovesToAnotherDay() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// when
+		index(new RollingIndexEntity("1", "moved", new Date(SECOND_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		List<RollingIndexEntity> entities = elasticsearchTemplate.queryForList(new CriteriaQuery(new Criteria()),
+				RollingIndexEntity.class);
+		assertThat(entities.size(), is(1));
+		assertThat(entities.get(0).getMessage(), is("moved"));
+		assertThat(client.prepareGet("test-index-rolling-2016.03.01", "test-type", "1").execute().actionGet().isExists(),
+				is(false));
+	}
+
+	@Test
+	public void shouldDeleteTheStaleCopyWhenTheTimestampMovesBeforeARefresh() {
+		// given
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		// when
+		index(new RollingIndexEntity("1", "moved", new Date(SECOND_DAY)));
+		elasticsearchTemplate.refresh(RollingIndexEntity.class, true);
+		// then
+		assertThat(elasticsearchTemplate.count(new CriteriaQuery(new Criteria()), RollingIndexEntity.class), is(1L));
+		assertThat(client.prepareGet("test-index-rolling-2016.03.01", "test-type", "1").execute().actionGet().isExists(),
+				is(false));
+	}
+
+	@Test
+	public void shouldLeaveOtherIndicesSharingThePrefixAlone() {
+		// given
+		elasticsearchTemplate.deleteIndex(ARCHIVE_INDEX_NAME);
+		elasticsearchTemplate.createIndex(ARCHIVE_INDEX_NAME);
+		index(new RollingIndexEntity("1", "first", new Date(FIRST_DAY)));
+		try {
+			// when
+			elasticsearchTemplate.deleteIndex(RollingIndexEntity.class);
+			// then
+			assertThat(elasticsearchTemplate.indexExists("test-index-rolling-2016.03.01"), is(false));
+			assertThat(elasticsearchTemplate.indexExists(ARCHIVE_INDEX_NAME), is(true));
+			assertThat(elasticsearchTemplate.queryForAlias(ARCHIVE_INDEX_NAME), is(empty()));
+		} finally {
+			elasticsearchTemplate.deleteIndex(ARCHIVE_INDEX_NAME);
+		}
+	}
+
+	private void index(RollingIndexEntity entity) {
+		elasticsearchTemplate.index(new IndexQueryBuilder().withObject(entity).withId(entity.getId()).build());
+	}
+}
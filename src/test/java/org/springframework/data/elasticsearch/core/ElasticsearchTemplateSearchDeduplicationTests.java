@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateSearchDeduplicationTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		elasticsearchTemplate.setDeduplicateSearches(true);
+	}
+
+	@After
+	public void after() {
+		elasticsearchTemplate.setDeduplicateSearches(false);
+	}
+
+	@Test
+	public void shouldMapResponseForEveryConcurrentCaller() throws Exception {
+		// given
+		index("1", "some message");
+		final SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Page<SampleEntity>>> results = new ArrayList<Future<Page<SampleEntity>>>();
+		// when
+		for (int i = 0; i < 32; i++) {
+			results.add(executor.submit(new Callable<Page<SampleEntity>>() {
+				@Override
+				public Page<SampleEntity> call() {
+					return elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+				}
+			}));
+		}
+		// then
+		for (Future<Page<SampleEntity>> result : results) {
+			Page<SampleEntity> page = result.get();
+			assertThat(page.getTotalElements(), is(1L));
+			assertThat(page.getContent().get(0).getMessage(), is("some message"));
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	public void shouldSendConcurrentIdenticalSearchesOnce() throws Exception {
+		// given
+		index("1", "some message");
+		RecordingClient recordingClient = new RecordingClient(client);
+		final ElasticsearchTemplate template = new ElasticsearchTemplate(recordingClient);
+		template.setDeduplicateSearches(true);
+		final SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		// load the classes of the search path before timing the callers
+		template.queryForPage(searchQuery, SampleEntity.class);
+		recordingClient.clear();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		final CountDownLatch started = new CountDownLatch(8);
+		List<Future<Page<SampleEntity>>> results = new ArrayList<Future<Page<SampleEntity>>>();
+		recordingClient.holdSearches();
+		// when
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(new Callable<Page<SampleEntity>>() {
+				@Override
+				public Page<SampleEntity> call() {
+					started.countDown();
+					return template.queryForPage(searchQuery, SampleEntity.class);
+				}
+			}));
+		}
+		// let every caller find the search in flight before it answers
+		started.await(10, TimeUnit.SECONDS);
+		Thread.sleep(500);
+		recordingClient.releaseSearches();
+		// then
+		for (Future<Page<SampleEntity>> result : results) {
+			assertThat(result.get().getTotalElements(), is(1L));
+		}
+		assertThat(recordingClient.count(SearchAction.NAME), is(1));
+		executor.shutdown();
+	}
+
+	@Test
+	public void shouldSendSearchAgainOnceThePreviousOneCompleted() {
+		// given
+		index("1", "some message");
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		// when
+		index("2", "other message");
+		Page<SampleEntity> page = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		// then
+		assertThat(page.getTotalElements(), is(2L));
+	}
+
+	private void index(String documentId, String message) {
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message(message).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(documentId).withObject(sampleEntity).build());
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+}
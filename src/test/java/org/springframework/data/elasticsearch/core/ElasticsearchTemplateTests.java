@@ -231,6 +231,50 @@ public class ElasticsearchTemplateTests {
 		assertThat(sampleEntities.getTotalElements(), greaterThanOrEqualTo(1L));
 	}
 
+	@Test
+	public void shouldReturnPageAndCountForGivenSearchQueryWithPreference() {
+		// given
+		String documentId = randomNumeric(5);
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message("some message")
+				.version(System.currentTimeMillis()).build();
+
+		IndexQuery indexQuery = getIndexQuery(sampleEntity);
+
+		elasticsearchTemplate.index(indexQuery);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPreference("_primary")
+				.build();
+		// when
+		Page<SampleEntity> sampleEntities = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		long count = elasticsearchTemplate.count(searchQuery, SampleEntity.class);
+		// then
+		assertThat(sampleEntities.getTotalElements(), is(equalTo(1L)));
+		assertThat(count, is(equalTo(1L)));
+	}
+
+	@Test
+	public void shouldReturnOnlyIncludedSourceFieldsForGivenSourceFilter() {
+		// given
+		String documentId = randomNumeric(5);
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message("some message").type("some type")
+				.version(System.currentTimeMillis()).build();
+
+		IndexQuery indexQuery = getIndexQuery(sampleEntity);
+
+		elasticsearchTemplate.index(indexQuery);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery())
+				.withSourceFilter(new FetchSourceFilterBuilder().withIncludes("message").build()).build();
+		// when
+		Page<SampleEntity> sampleEntities = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		// then
+		assertThat(sampleEntities.getTotalElements(), is(equalTo(1L)));
+		assertThat(sampleEntities.getContent().get(0).getMessage(), is("some message"));
+		assertThat(sampleEntities.getContent().get(0).getType(), is(nullValue()));
+	}
+
 	@Test
 	public void shouldDoBulkIndex() {
 		// given
@@ -256,6 +300,95 @@ public class ElasticsearchTemplateTests {
 		assertThat(sampleEntities.getTotalElements(), is(equalTo(2L)));
 	}
 
+	@Test
+	public void shouldStreamBulkIndexInChunks() {
+		// given
+		List<SampleEntity> sampleEntities = new ArrayList<SampleEntity>();
+		for (int i = 0; i < 25; i++) {
+			sampleEntities.add(SampleEntity.builder().id(String.valueOf(i)).message("message " + i).build());
+		}
+		// when
+		BulkIndexResult result = elasticsearchTemplate.bulkIndex(getIndexQueries(sampleEntities).iterator(), 10, 2);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		// then
+		assertThat(result.getSuccessCount(), is(25L));
+		assertThat(result.getBulkCount(), is(3));
+		assertThat(result.hasFailures(), is(false));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		assertThat(elasticsearchTemplate.count(searchQuery, SampleEntity.class), is(25L));
+	}
+
+	@Test
+	public void shouldStreamBulkIndexWithAdaptiveBulkSizer() {
+		// given
+		List<SampleEntity> sampleEntities = new ArrayList<SampleEntity>();
+		for (int i = 0; i < 30; i++) {
+			sampleEntities.add(SampleEntity.builder().id(String.valueOf(i)).message("message " + i).build());
+		}
+		AdaptiveBulkSizer bulkSizer = new AdaptiveBulkSizer(5, 20, 1, 2);
+		// when
+		BulkIndexResult result = elasticsearchTemplate.bulkIndex(getIndexQueries(sampleEntities).iterator(), bulkSizer);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		// then
+		assertThat(result.getSuccessCount(), is(30L));
+		assertThat(bulkSizer.getBulkCount(), is((long) result.getBulkCount()));
+		assertThat(bulkSizer.getBulkSize(), is(greaterThan(5)));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		assertThat(elasticsearchTemplate.count(searchQuery, SampleEntity.class), is(30L));
+	}
+
+	@Test
+	public void shouldCutStreamedBulkRequestsAtMaxSizeInBytes() {
+		// given
+		List<SampleEntity> sampleEntities = new ArrayList<SampleEntity>();
+		for (int i = 0; i < 4; i++) {
+			sampleEntities.add(SampleEntity.builder().id(String.valueOf(i)).message("message " + i).build());
+		}
+		AdaptiveBulkSizer bulkSizer = AdaptiveBulkSizer.fixed(100, 1);
+		bulkSizer.setMaxBulkSizeInBytes(1);
+		// when
+		BulkIndexResult result = elasticsearchTemplate.bulkIndex(getIndexQueries(sampleEntities).iterator(), bulkSizer);
+		// then
+		assertThat(result.getSuccessCount(), is(4L));
+		assertThat(result.getBulkCount(), is(4));
+	}
+
+	@Test
+	public void shouldReportFailedDocumentsOfAStreamedBulkIndex() {
+		// given
+		SampleEntity sampleEntity = SampleEntity.builder().id("1").message("some message").version(10L).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId("1").withObject(sampleEntity).withVersion(10L).build());
+		SampleEntity staleEntity = SampleEntity.builder().id("1").message("stale message").version(5L).build();
+		SampleEntity newEntity = SampleEntity.builder().id("2").message("new message").version(5L).build();
+		List<IndexQuery> indexQueries = Arrays.asList(
+				new IndexQueryBuilder().withId("1").withObject(staleEntity).withVersion(5L).build(),
+				new IndexQueryBuilder().withId("2").withObject(newEntity).withVersion(5L).build());
+		// when
+		BulkIndexResult result = elasticsearchTemplate.bulkIndex(indexQueries.iterator(), 10, 1);
+		// then
+		assertThat(result.getSuccessCount(), is(1L));
+		assertThat(result.getFailureCount(), is(1));
+		assertThat(result.getFailedDocuments().containsKey("1"), is(true));
+	}
+
+	@Test
+	public void shouldReportEveryFailedDocumentWithoutId() {
+		// given
+		SampleEntity sampleEntity = SampleEntity.builder().id("1").message("some message").rate(10).build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId("1").withObject(sampleEntity).build());
+		List<IndexQuery> indexQueries = new ArrayList<IndexQuery>();
+		for (String rate : Arrays.asList("20", "not a number", "30", "not a number either")) {
+			indexQueries.add(new IndexQueryBuilder().withIndexName(INDEX_NAME).withType(TYPE_NAME)
+					.withSource("{\"rate\":\"" + rate + "\"}").build());
+		}
+		// when
+		BulkIndexResult result = elasticsearchTemplate.bulkIndex(indexQueries.iterator(), 3, 1);
+		// then
+		assertThat(result.getSuccessCount(), is(2L));
+		assertThat(result.getFailureCount(), is(2));
+		assertThat(result.getFailedDocuments().size(), is(2));
+		assertThat(result.getFailedDocuments().containsKey(null), is(false));
+	}
 
 	@Test
 	public void shouldDoBulkUpdate() {
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class GetRequestCoalescerTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	private GetRequestCoalescer coalescer;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		client.admin().cluster().prepareHealth("test-index").setWaitForYellowStatus().execute().actionGet();
+		coalescer = new GetRequestCoalescer(client, 50000, 10);
+	}
+
+	@After
+	public void after() {
+		elasticsearchTemplate.setGetRequestCoalescer(null);
+		coalescer.destroy();
+	}
+
+	@Test
+	public void shouldCompleteEveryGetOfABatch() {
+		// given
+		List<IndexQuery> indexQueries = new ArrayList<IndexQuery>();
+		for (int i = 0; i < 5; i++) {
+			SampleEntity sampleEntity = SampleEntity.builder().id(String.valueOf(i)).message("message " + i).build();
+			indexQueries.add(new IndexQueryBuilder().withId(sampleEntity.getId()).withObject(sampleEntity).build());
+		}
+		elasticsearchTemplate.bulkIndex(indexQueries);
+		// when
+		List<ActionFuture<GetResponse>> futures = new ArrayList<ActionFuture<GetResponse>>();
+		for (int i = 0; i < 5; i++) {
+			futures.add(coalescer.get("test-index", "test-type", String.valueOf(i)));
+		}
+		ActionFuture<GetResponse> duplicate = coalescer.get("test-index", "test-type", "0");
+		ActionFuture<GetResponse> missing = coalescer.get("test-index", "test-type", "missing");
+		// then
+		for (int i = 0; i < 5; i++) {
+			GetResponse response = futures.get(i).actionGet();
+			assertThat(response.isExists(), is(true));
+			assertThat(response.getId(), is(String.valueOf(i)));
+		}
+		assertThat(duplicate.actionGet().getId(), is("0"));
+		assertThat(missing.actionGet().isExists(), is(false));
+	}
+
+	@Test
+	public void shouldSendBatchOnceMaxBatchSizeIsReached() {
+		// given
+		coalescer.destroy();
+		coalescer = new GetRequestCoalescer(client, 60000000, 2);
+		// when
+		ActionFuture<GetResponse> first = coalescer.get("test-index", "test-type", "1");
+		ActionFuture<GetResponse> second = coalescer.get("test-index", "test-type", "2");
+		// then
+		assertThat(first.actionGet(5000).isExists(), is(false));
+		assertThat(second.actionGet(5000).isExists(), is(false));
+	}
+
+	@Test
+	public void shouldQueryForObjectThroughCoalescer() {
+		// given
+		SampleEntity sampleEntity = SampleEntity.builder().id("1").message("some message").build();
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId("1").withObject(sampleEntity).build());
+		elasticsearchTemplate.setGetRequestCoalescer(coalescer);
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId("1");
+		GetQuery missingQuery = new GetQuery();
+		missingQuery.setId("2");
+		// when
+		SampleEntity found = elasticsearchTemplate.queryForObject(getQuery, SampleEntity.class);
+		SampleEntity notFound = elasticsearchTemplate.queryForObject(missingQuery, SampleEntity.class);
+		// then
+		assertThat(found.getMessage(), is("some message"));
+		assertThat(notFound, is(nullValue()));
+	}
+}
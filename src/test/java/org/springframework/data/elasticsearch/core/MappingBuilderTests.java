@@ -109,6 +109,14 @@ public class MappingBuilderTests {
 		assertThat(xContentBuilder.string(), is(expected));
 	}
 
+	@Test
+	public void shouldRequireRoutingOfEntitiesRoutedByAProperty() throws IOException {
+		final String expected = "{\"mapping\":{\"_routing\":{\"required\":true},\"properties\":{\"tenant\":" +
+				"{\"store\":false,\"type\":\"string\",\"index\":\"not_analyzed\"}}}}";
+		XContentBuilder xContentBuilder = MappingBuilder.buildMapping(RoutingEntity.class, "mapping", "id", null, true);
+		assertThat(xContentBuilder.string(), is(expected));
+	}
+
 	/*
 	 * DATAES-76
 	 */
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Map;
+
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.elasticsearch.entities.StockPrice;
+import org.springframework.util.FileCopyUtils;
+
+public class MappingGeneratorTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MappingGenerator generator = new MappingGenerator();
+
+	@Test
+	public void shouldGenerateTheMappingBuiltFromTheAnnotations() throws Exception {
+		// when
+		String mapping = generator.generateMapping(StockPrice.class);
+		// then
+		Map<String, Object> source = XContentHelper.convertToMap(mapping.getBytes("UTF-8"), false).v2();
+		Map<String, Object> expected = XContentHelper.convertToMap(
+				MappingBuilder.buildMapping(StockPrice.class, "price", "id", null).bytes(), false).v2();
+		assertThat(source, is(expected));
+	}
+
+	@Test
+	public void shouldWriteTheMappingToAFileNamedAfterTheClass() throws Exception {
+		// when
+		File file = generator.writeMapping(StockPrice.class, new File(folder.getRoot(), "mappings"));
+		// then
+		assertThat(file.getName(), is(StockPrice.class.getName() + ".json"));
+		assertThat(new String(FileCopyUtils.copyToByteArray(file), "UTF-8"), containsString("\"price\""));
+	}
+}
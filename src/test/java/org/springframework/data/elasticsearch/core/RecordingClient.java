@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
+
+/**
+ * Records the actions sent through a client and can hold search responses back until released.
+ */
+class RecordingClient extends FilterClient {
+
+	private final List<String> actions = new CopyOnWriteArrayList<String>();
+	private volatile CountDownLatch heldSearches;
+
+	RecordingClient(Client in) {
+		super(in);
+	}
+
+	@Override
+	public <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder, Client>> ActionFuture<Response> execute(
+			Action<Request, Response, RequestBuilder, Client> action, Request request) {
+		PlainActionFuture<Response> future = PlainActionFuture.newFuture();
+		execute(action, request, future);
+		return future;
+	}
+
+	@Override
+	public <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder, Client>> void execute(
+			Action<Request, Response, RequestBuilder, Client> action, Request request, final ActionListener<Response> listener) {
+		actions.add(action.name());
+		final CountDownLatch held = heldSearches;
+		if (held == null || !SearchAction.NAME.equals(action.name())) {
+			super.execute(action, request, listener);
+			return;
+		}
+		super.execute(action, request, new ActionListener<Response>() {
+			@Override
+			public void onResponse(Response response) {
+				await(held);
+				listener.onResponse(response);
+			}
+
+			@Override
+			public void onFailure(Throwable e) {
+				await(held);
+				listener.onFailure(e);
+			}
+		});
+	}
+
+	void holdSearches() {
+		heldSearches = new CountDownLatch(1);
+	}
+
+	void releaseSearches() {
+		heldSearches.countDown();
+		heldSearches = null;
+	}
+
+	int count(String actionName) {
+		int count = 0;
+		for (String action : actions) {
+			if (action.equals(actionName)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	void clear() {
+		actions.clear();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.indices.IndexMissingException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.core.RequestGuard.CircuitState;
+import org.springframework.data.elasticsearch.core.RequestGuard.Operation;
+
+public class RequestGuardTests {
+
+	private RequestGuard guard;
+	private ExecutorService executor;
+
+	@Before
+	public void before() {
+		guard = new RequestGuard();
+		guard.setMinimumRequests(2);
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldStopWaitingOnceTheTimeoutOfTheOperationElapsed() {
+		// given
+		guard.setTimeout(Operation.GET, "50ms");
+		// when
+		try {
+			guard.execute(Operation.GET, new PendingRequest(), "index");
+			fail("expected a timeout");
+		} catch (ElasticsearchTimeoutException e) {
+			// expected
+		}
+		// then
+		assertThat(guard.getStats(Operation.GET).getTimeouts(), is(1L));
+		assertThat(guard.getStats(Operation.GET).getFailures(), is(1L));
+		assertThat(guard.getStats(Operation.SEARCH).getRequests(), is(0L));
+	}
+
+	@Test
+	public void shouldOpenTheCircuitOnceTooManyRequestsFailed() {
+		// given
+		failRequest(Operation.SEARCH, new NoNodeAvailableException("down"));
+		failRequest(Operation.SEARCH, new NoNodeAvailableException("down"));
+		// when
+		try {
+			guard.execute(Operation.GET, request(response("found")), "index");
+			fail("expected the circuit to be open");
+		} catch (ElasticsearchException e) {
+			assertThat(e.getMessage(), containsString("Circuit breaker is open"));
+		}
+		// then
+		assertThat(guard.getCircuitState(), is(CircuitState.OPEN));
+		assertThat(guard.getStats(Operation.SEARCH).getFailures(), is(2L));
+		assertThat(guard.getStats(Operation.GET).getShortCircuited(), is(1L));
+		assertThat(guard.getStats(Operation.GET).getRequests(), is(0L));
+	}
+
+	@Test
+	public void shouldNotCountClientErrorsAsFailures() {
+		// when
+		failRequest(Operation.GET, new IndexMissingException(new Index("index")));
+		failRequest(Operation.GET, new IndexMissingException(new Index("index")));
+		// then
+		assertThat(guard.getCircuitState(), is(CircuitState.CLOSED));
+		assertThat(guard.getStats(Operation.GET).getRequests(), is(2L));
+		assertThat(guard.getStats(Operation.GET).getFailures(), is(0L));
+	}
+
+	@Test
+	public void shouldCloseTheCircuitOnceATrialRequestSucceeded() throws Exception {
+		// given
+		guard.setOpenInMillis(10);
+		failRequest(Operation.SEARCH, new NoNodeAvailableException("down"));
+		failRequest(Operation.SEARCH, new NoNodeAvailableException("down"));
+		assertThat(guard.getCircuitState(), is(CircuitState.OPEN));
+		Thread.sleep(20);
+		// when
+		String response = guard.execute(Operation.SEARCH, request(response("found")), "index");
+		// then
+		assertThat(response, is("found"));
+		assertThat(guard.getCircuitState(), is(CircuitState.CLOSED));
+	}
+
+	@Test
+	public void shouldRejectRequestsBeyondTheConcurrencyLimitOfAnIndex() throws Exception {
+		// given
+		guard.setMaxConcurrentRequestsPerIndex(1);
+		final PendingRequest pending = new PendingRequest();
+		Future<String> inFlight = executor.submit(new Callable<String>() {
+			@Override
+			public String call() {
+				return guard.execute(Operation.SEARCH, pending, "index");
+			}
+		});
+		assertThat(pending.sent.await(5, TimeUnit.SECONDS), is(true));
+		// when
+		try {
+			guard.execute(Operation.GET, request(response("found")), "index");
+			fail("expected the request to be rejected");
+		} catch (ElasticsearchException e) {
+			assertThat(e.getMessage(), containsString("Too many concurrent requests on index [index]"));
+		}
+		String otherIndex = guard.execute(Operation.GET, request(response("other")), "other-index");
+		pending.listener.onResponse("searched");
+		// then
+		assertThat(otherIndex, is("other"));
+		assertThat(inFlight.get(5, TimeUnit.SECONDS), is("searched"));
+		assertThat(guard.getStats(Operation.GET).getRejected(), is(1L));
+		assertThat(guard.execute(Operation.GET, request(response("found")), "index"), is("found"));
+	}
+
+	@Test
+	public void shouldHoldThePermitOfARequestUntilItCompletesAfterTheTimeout() {
+		// given
+		guard.setMaxConcurrentRequestsPerIndex(1);
+		guard.setTimeout(Operation.SEARCH, "10ms");
+		PendingRequest pending = new PendingRequest();
+		try {
+			guard.execute(Operation.SEARCH, pending, "index");
+			fail("expected a timeout");
+		} catch (ElasticsearchTimeoutException e) {
+			// expected
+		}
+		try {
+			guard.execute(Operation.GET, request(response("found")), "index");
+			fail("expected the request to be rejected while the first one is still running");
+		} catch (ElasticsearchException e) {
+			assertThat(e.getMessage(), containsString("Too many concurrent requests on index [index]"));
+		}
+		// when
+		pending.listener.onResponse("searched");
+		// then
+		assertThat(guard.execute(Operation.GET, request(response("found")), "index"), is("found"));
+	}
+
+	@Test
+	public void shouldReleaseThePermitsOfARequestThatCouldNotBeSent() {
+		// given
+		guard.setMaxConcurrentRequestsPerIndex(1);
+		// when
+		try {
+			guard.execute(Operation.GET, new RequestGuard.Request<String>() {
+				@Override
+				public void send(ActionListener<String> listener) {
+					throw new IllegalStateException("not sent");
+				}
+			}, "index");
+			fail("expected the request not to be sent");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		// then
+		assertThat(guard.execute(Operation.GET, request(response("found")), "index"), is("found"));
+	}
+
+	private void failRequest(Operation operation, Throwable failure) {
+		PlainActionFuture<String> future = PlainActionFuture.newFuture();
+		future.onFailure(failure);
+		try {
+			guard.execute(operation, request(future), "index");
+			fail("expected " + failure);
+		} catch (RuntimeException e) {
+			// expected
+		}
+	}
+
+	private PlainActionFuture<String> response(String response) {
+		PlainActionFuture<String> future = PlainActionFuture.newFuture();
+		future.onResponse(response);
+		return future;
+	}
+
+	private RequestGuard.Request<String> request(final ActionFuture<String> future) {
+		return new RequestGuard.Request<String>() {
+			@Override
+			public void send(ActionListener<String> listener) {
+				try {
+					listener.onResponse(future.actionGet());
+				} catch (RuntimeException e) {
+					listener.onFailure(e);
+				}
+			}
+		};
+	}
+
+	private static class PendingRequest implements RequestGuard.Request<String> {
+
+		private final CountDownLatch sent = new CountDownLatch(1);
+		private volatile ActionListener<String> listener;
+
+		@Override
+		public void send(ActionListener<String> listener) {
+			this.listener = listener;
+			sent.countDown();
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.RequestHedger.Kind;
+
+public class RequestHedgerTests {
+
+	private RequestHedger hedger;
+
+	@Before
+	public void before() {
+		hedger = new RequestHedger();
+		hedger.setMinimumSamples(1);
+		hedger.setMinDelayInMillis(20);
+	}
+
+	@After
+	public void after() {
+		hedger.destroy();
+	}
+
+	@Test
+	public void shouldNotHedgeBeforeEnoughLatenciesWereMeasured() throws Exception {
+		// given
+		hedger.setMinimumSamples(2);
+		answer(Kind.GET);
+		assertThat(hedger.getDelayInMillis(Kind.GET), is(-1L));
+		RecordingRequest request = new RecordingRequest();
+		// when
+		ActionFuture<String> future = hedger.execute(Kind.GET, request);
+		Thread.sleep(100);
+		request.answer(0);
+		// then
+		assertThat(future.actionGet(5, TimeUnit.SECONDS), is("answer-0"));
+		assertThat(request.preferences, contains((String) null));
+		assertThat(hedger.getStats(Kind.GET).getHedged(), is(0L));
+		assertThat(hedger.getDelayInMillis(Kind.GET), is(greaterThanOrEqualTo(100L)));
+	}
+
+	@Test
+	public void shouldSendASecondCopyWithAnotherPreferenceWhenTheFirstIsSlow() throws Exception {
+		// given
+		answer(Kind.SEARCH);
+		RecordingRequest request = new RecordingRequest();
+		// when
+		ActionFuture<String> future = hedger.execute(Kind.SEARCH, request);
+		request.awaitCopies(2);
+		request.answer(1);
+		request.answer(0);
+		// then
+		assertThat(future.actionGet(5, TimeUnit.SECONDS), is("answer-1"));
+		assertThat(request.preferences.get(0), is(nullValue()));
+		assertThat(request.preferences.get(1), startsWith("hedge-"));
+		assertThat(hedger.getStats(Kind.SEARCH).getHedged(), is(1L));
+		assertThat(hedger.getStats(Kind.SEARCH).getHedgeWins(), is(1L));
+		assertThat(hedger.getStats(Kind.GET).getRequests(), is(0L));
+	}
+
+	@Test
+	public void shouldNotSendTheSecondCopyOnceTheFirstAnswered() throws Exception {
+		// given
+		answer(Kind.MULTI_GET);
+		// when
+		answer(Kind.MULTI_GET);
+		Thread.sleep(100);
+		// then
+		assertThat(hedger.getStats(Kind.MULTI_GET).getRequests(), is(2L));
+		assertThat(hedger.getStats(Kind.MULTI_GET).getHedged(), is(0L));
+	}
+
+	@Test
+	public void shouldWaitForTheSecondCopyWhenTheFirstFails() throws Exception {
+		// given
+		answer(Kind.GET);
+		RecordingRequest request = new RecordingRequest();
+		// when
+		ActionFuture<String> future = hedger.execute(Kind.GET, request);
+		request.awaitCopies(2);
+		request.fail(0);
+		request.answer(1);
+		// then
+		assertThat(future.actionGet(5, TimeUnit.SECONDS), is("answer-1"));
+	}
+
+	@Test
+	public void shouldFailWithoutSendingTheSecondCopyWhenTheFirstFailsRightAway() throws Exception {
+		// given
+		answer(Kind.GET);
+		RecordingRequest request = new RecordingRequest();
+		// when
+		ActionFuture<String> future = hedger.execute(Kind.GET, request);
+		request.fail(0);
+		// then
+		try {
+			future.actionGet(5, TimeUnit.SECONDS);
+			fail("expected the failure of the first copy");
+		} catch (NoNodeAvailableException e) {
+			// expected
+		}
+		Thread.sleep(100);
+		assertThat(request.preferences.size(), is(1));
+	}
+
+	private void answer(Kind kind) {
+		RecordingRequest request = new RecordingRequest();
+		ActionFuture<String> future = hedger.execute(kind, request);
+		request.answer(0);
+		future.actionGet();
+	}
+
+	private static class RecordingRequest implements RequestHedger.Request<String> {
+
+		private final List<String> preferences = new CopyOnWriteArrayList<String>();
+		private final List<ActionListener<String>> listeners = new CopyOnWriteArrayList<ActionListener<String>>();
+
+		@Override
+		public void send(String preference, ActionListener<String> listener) {
+			preferences.add(preference);
+			listeners.add(listener);
+		}
+
+		void awaitCopies(int copies) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (listeners.size() < copies && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertThat(listeners.size(), is(copies));
+		}
+
+		void answer(int copy) {
+			listeners.get(copy).onResponse("answer-" + copy);
+		}
+
+		void fail(int copy) {
+			listeners.get(copy).onFailure(new NoNodeAvailableException("down"));
+		}
+	}
+}
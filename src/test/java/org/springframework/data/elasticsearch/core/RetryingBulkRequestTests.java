@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexResponse;
+import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.client.transport.NoNodeAvailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class RetryingBulkRequestTests {
+
+	private Client client;
+	private ScheduledExecutorService scheduler;
+	private final List<BulkRequest> sentRequests = new ArrayList<BulkRequest>();
+	private final LinkedList<Object> outcomes = new LinkedList<Object>();
+
+	@Before
+	public void init() {
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		client = mock(Client.class);
+		doAnswer(new Answer<Void>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public Void answer(InvocationOnMock invocation) {
+				sentRequests.add((BulkRequest) invocation.getArguments()[0]);
+				ActionListener<BulkResponse> listener = (ActionListener<BulkResponse>) invocation.getArguments()[1];
+				Object outcome = outcomes.removeFirst();
+				if (outcome instanceof Throwable) {
+					listener.onFailure((Throwable) outcome);
+				} else {
+					listener.onResponse((BulkResponse) outcome);
+				}
+				return null;
+			}
+		}).when(client).bulk(Matchers.any(BulkRequest.class), Matchers.any(ActionListener.class));
+	}
+
+	@After
+	public void after() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void shouldOnlyResendRejectedItems() {
+		// given
+		outcomes.add(response(10, success(0, "1"), rejection(1, "2"), failure(2, "3")));
+		outcomes.add(response(5, success(0, "2")));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1", "2", "3"), new BulkRetryPolicy(3, 1, 10), future, scheduler).execute();
+		BulkResponse response = future.actionGet();
+		// then
+		assertThat(sentRequests.size(), is(2));
+		assertThat(((IndexRequest) sentRequests.get(1).requests().get(0)).id(), is("2"));
+		assertThat(response.getItems().length, is(3));
+		assertThat(response.getItems()[0].isFailed(), is(false));
+		assertThat(response.getItems()[1].isFailed(), is(false));
+		assertThat(response.getItems()[1].getId(), is("2"));
+		assertThat(response.getItems()[1].getItemId(), is(1));
+		assertThat(response.getItems()[2].isFailed(), is(true));
+		assertThat(response.getTookInMillis(), is(15L));
+	}
+
+	@Test
+	public void shouldGiveUpOnceMaxRetriesIsReached() {
+		// given
+		outcomes.add(response(1, rejection(0, "1")));
+		outcomes.add(response(1, rejection(0, "1")));
+		outcomes.add(response(1, rejection(0, "1")));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1"), new BulkRetryPolicy(2, 1, 10), future, scheduler).execute();
+		BulkResponse response = future.actionGet();
+		// then
+		assertThat(sentRequests.size(), is(3));
+		assertThat(response.getItems()[0].getFailure().getStatus(), is(RestStatus.TOO_MANY_REQUESTS));
+	}
+
+	@Test
+	public void shouldResendWholeRequestRejectedByTheNode() {
+		// given
+		outcomes.add(new EsRejectedExecutionException("queue full"));
+		outcomes.add(response(1, success(0, "1"), success(1, "2")));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1", "2"), new BulkRetryPolicy(1, 1, 10), future, scheduler).execute();
+		BulkResponse response = future.actionGet();
+		// then
+		assertThat(sentRequests.size(), is(2));
+		assertThat(response.hasFailures(), is(false));
+	}
+
+	@Test
+	public void shouldKeepItemsAnsweredBeforeARetryFailedAsAWhole() {
+		// given
+		outcomes.add(response(1, success(0, "1"), rejection(1, "2"), rejection(2, "3")));
+		outcomes.add(new NoNodeAvailableException("down"));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1", "2", "3"), new BulkRetryPolicy(3, 1, 10), future, scheduler)
+				.execute();
+		BulkResponse response = future.actionGet();
+		// then
+		assertThat(sentRequests.size(), is(2));
+		assertThat(response.getItems().length, is(3));
+		assertThat(response.getItems()[0].isFailed(), is(false));
+		assertThat(response.getItems()[1].isFailed(), is(true));
+		assertThat(response.getItems()[1].getItemId(), is(1));
+		assertThat(response.getItems()[1].getId(), is("2"));
+		assertThat(response.getItems()[1].getFailureMessage(), containsString("down"));
+		assertThat(response.getItems()[2].isFailed(), is(true));
+		assertThat(response.getItems()[2].getItemId(), is(2));
+	}
+
+	@Test(expected = NoNodeAvailableException.class)
+	public void shouldFailWhenNoAttemptAnswered() {
+		// given
+		outcomes.add(new EsRejectedExecutionException("queue full"));
+		outcomes.add(new NoNodeAvailableException("down"));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1", "2"), new BulkRetryPolicy(3, 1, 10), future, scheduler).execute();
+		future.actionGet();
+	}
+
+	@Test
+	public void shouldNotRetryWithNoRetryPolicy() {
+		// given
+		outcomes.add(response(1, rejection(0, "1")));
+		PlainActionFuture<BulkResponse> future = PlainActionFuture.newFuture();
+		// when
+		new RetryingBulkRequest(client, request("1"), BulkRetryPolicy.NO_RETRY, future, null).execute();
+		// then
+		assertThat(future.actionGet().hasFailures(), is(true));
+		assertThat(sentRequests.size(), is(1));
+	}
+
+	@Test
+	public void shouldKeepBackoffDelaysWithinBounds() {
+		BulkRetryPolicy policy = new BulkRetryPolicy(10, 100, 1000);
+		for (int i = 0; i < 100; i++) {
+			assertThat(policy.delayInMillis(0), is(both(greaterThanOrEqualTo(50L)).and(lessThanOrEqualTo(100L))));
+			assertThat(policy.delayInMillis(2), is(both(greaterThanOrEqualTo(200L)).and(lessThanOrEqualTo(400L))));
+			assertThat(policy.delayInMillis(9), is(both(greaterThanOrEqualTo(500L)).and(lessThanOrEqualTo(1000L))));
+		}
+	}
+
+	private static BulkRequest request(String... ids) {
+		BulkRequest request = new BulkRequest();
+		for (String id : ids) {
+			request.add(new IndexRequest("test-index", "test-type", id).source("message", "some message"));
+		}
+		return request;
+	}
+
+	private static BulkResponse response(long tookInMillis, BulkItemResponse... items) {
+		return new BulkResponse(items, tookInMillis);
+	}
+
+	private static BulkItemResponse success(int itemId, String id) {
+		return new BulkItemResponse(itemId, "index", new IndexResponse("test-index", "test-type", id, 1, true));
+	}
+
+	private static BulkItemResponse rejection(int itemId, String id) {
+		return new BulkItemResponse(itemId, "index", new BulkItemResponse.Failure("test-index", "test-type", id,
+				"rejected execution (queue capacity 50)", RestStatus.TOO_MANY_REQUESTS));
+	}
+
+	private static BulkItemResponse failure(int itemId, String id) {
+		return new BulkItemResponse(itemId, "index", new BulkItemResponse.Failure("test-index", "test-type", id,
+				"MapperParsingException[failed to parse]", RestStatus.BAD_REQUEST));
+	}
+}
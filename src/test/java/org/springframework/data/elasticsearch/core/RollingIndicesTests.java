@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.elasticsearch.common.regex.Regex;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.entities.RollingIndexEntity;
+
+public class RollingIndicesTests {
+
+	// 2016-03-01T23:00:00Z
+	private static final long TIMESTAMP = 1456873200000L;
+
+	private final ElasticsearchPersistentEntity<?> persistentEntity = new SimpleElasticsearchMappingContext()
+			.getPersistentEntity(RollingIndexEntity.class);
+
+	@Test
+	public void shouldNameIndexAfterTheDayOfTheTimestamp() {
+		// given
+		RollingIndexEntity entity = new RollingIndexEntity("1", "message", new Date(TIMESTAMP));
+		// when
+		String indexName = RollingIndices.indexNameFor(persistentEntity, entity);
+		// then
+		assertThat(indexName, is("test-index-rolling-2016.03.01"));
+	}
+
+	@Test
+	public void shouldOnlyTakeIndicesNamedAfterAPeriodForRollingIndices() {
+		// then
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-rolling-2016.03.01"), is(true));
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-rolling-archive"), is(false));
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-rolling-2016.03.01-old"), is(false));
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-rolling-2016.13.01"), is(false));
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-rolling-2016.3.1"), is(false));
+		assertThat(RollingIndices.isIndexOf(persistentEntity, "test-index-2016.03.01"), is(false));
+	}
+
+	@Test
+	public void shouldMatchOnlyDatedIndicesWithTheTemplatePattern() {
+		// when
+		String pattern = RollingIndices.indexPattern(persistentEntity);
+		// then
+		assertThat(pattern, is("test-index-rolling-2*.*.*"));
+		assertThat(Regex.simpleMatch(pattern, "test-index-rolling-2016.03.01"), is(true));
+		assertThat(Regex.simpleMatch(pattern, "test-index-rolling-archive"), is(false));
+	}
+
+	@Test
+	public void shouldListTheIndicesOfTheDaysInRange() {
+		// given
+		Criteria criteria = new Criteria("message").is("message").and("timestamp").greaterThanEqual(new Date(TIMESTAMP))
+				.and("timestamp").lessThan(TIMESTAMP + 2 * 3600 * 1000);
+		// when
+		String[] indexNames = RollingIndices.indexNamesFor(persistentEntity, criteria);
+		// then
+		assertThat(indexNames, is(arrayContaining("test-index-rolling-2016.03.01", "test-index-rolling-2016.03.02")));
+	}
+
+	@Test
+	public void shouldSearchAllIndicesWhenRangeIsOpen() {
+		// given
+		Criteria criteria = new Criteria("timestamp").greaterThan(new Date(TIMESTAMP));
+		// when
+		String[] indexNames = RollingIndices.indexNamesFor(persistentEntity, criteria);
+		// then
+		assertThat(indexNames, is(nullValue()));
+	}
+
+	@Test
+	public void shouldSearchAllIndicesWhenRangeIsJoinedWithOr() {
+		// given
+		Criteria criteria = new Criteria("message").is("message").or("timestamp").is(new Date(TIMESTAMP));
+		// when
+		String[] indexNames = RollingIndices.indexNamesFor(persistentEntity, criteria);
+		// then
+		assertThat(indexNames, is(nullValue()));
+	}
+
+	@Test
+	public void shouldSearchAllIndicesWhenTooManyDaysAreInRange() {
+		// given
+		long days = RollingIndices.MAX_INDICES_PER_QUERY;
+		Criteria criteria = new Criteria("timestamp").between(TIMESTAMP, TIMESTAMP + days * 24 * 3600 * 1000);
+		// when
+		String[] indexNames = RollingIndices.indexNamesFor(persistentEntity, criteria);
+		// then
+		assertThat(indexNames, is(nullValue()));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core;
+
+import static java.util.Collections.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.SourceBufferPool.SourceBuffer;
+
+public class SourceBufferPoolTests {
+
+	@Test
+	public void shouldReuseReleasedBuffer() {
+		// given
+		SourceBufferPool pool = new SourceBufferPool();
+		SourceBuffer buffer = pool.acquire();
+		buffer.write(new byte[100], 0, 100);
+		// when
+		pool.release(singletonList(buffer));
+		SourceBuffer reused = pool.acquire();
+		// then
+		assertThat(reused, is(sameInstance(buffer)));
+		assertThat(reused.size(), is(0));
+	}
+
+	@Test
+	public void shouldNotRetainBuffersAboveMaximumCapacity() {
+		// given
+		SourceBufferPool pool = new SourceBufferPool(10, 1024);
+		SourceBuffer buffer = pool.acquire();
+		buffer.write(new byte[2048], 0, 2048);
+		// when
+		pool.release(singletonList(buffer));
+		// then
+		assertThat(pool.size(), is(0));
+	}
+
+	@Test
+	public void shouldSizeNewBuffersAfterObservedDocuments() {
+		// given
+		SourceBufferPool pool = new SourceBufferPool(1, 1024 * 1024);
+		// when
+		for (int i = 0; i < 50; i++) {
+			SourceBuffer buffer = pool.acquire();
+			buffer.write(new byte[10000], 0, 10000);
+			pool.release(singletonList(buffer));
+		}
+		// then
+		assertThat(pool.averageSize(), is(greaterThan(9000)));
+		pool.acquire();
+		assertThat(pool.acquire().capacity(), is(greaterThanOrEqualTo(10000)));
+	}
+}
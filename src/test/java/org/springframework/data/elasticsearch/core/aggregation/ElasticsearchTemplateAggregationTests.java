@@ -17,6 +17,7 @@ package org.springframework.data.elasticsearch.core.aggregation;
 
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,6 +32,7 @@ import org.springframework.data.elasticsearch.core.query.SearchQuery;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import static org.elasticsearch.action.search.SearchType.COUNT;
+import static org.elasticsearch.index.query.FilterBuilders.termFilter;
 import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
 import static org.elasticsearch.search.aggregations.AggregationBuilders.terms;
 import static org.hamcrest.Matchers.is;
@@ -96,6 +98,28 @@ public class ElasticsearchTemplateAggregationTests {
 		assertThat(aggregations, is(notNullValue()));
 		assertThat(aggregations.asMap().get("subjects"), is(notNullValue()));
 	}
+
+	@Test
+	public void shouldNotApplyFilterToAggregations() {
+		// given
+		SearchQuery searchQuery = new NativeSearchQueryBuilder()
+				.withQuery(matchAllQuery())
+				.withFilter(termFilter("subject", "accounting"))
+				.withIndices("articles").withTypes("article")
+				.addAggregation(terms("subjects").field("subject"))
+				.build();
+		// when
+		SearchResponse response = elasticsearchTemplate.query(searchQuery, new ResultsExtractor<SearchResponse>() {
+			@Override
+			public SearchResponse extract(SearchResponse response) {
+				return response;
+			}
+		});
+		// then
+		assertThat(response.getHits().getTotalHits(), is(1L));
+		Terms subjects = response.getAggregations().get("subjects");
+		assertThat(subjects.getBuckets().size(), is(2));
+	}
 }
 
 
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.ImmutableSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.data.elasticsearch.core.BulkLoadSession;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.AliasBuilder;
+import org.springframework.data.elasticsearch.core.query.AliasQuery;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateMetadataCacheTests {
+
+	private static final String INDEX_NAME = "test-index-metadata-cache";
+	private static final String OTHER_INDEX_NAME = "test-index-metadata-cache-other";
+	private static final String ALIAS_NAME = "test-alias-metadata-cache";
+	private static final String TYPE_NAME = "test-type";
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	private IndexMetadataCache metadataCache;
+
+	@Before
+	public void before() {
+		metadataCache = new IndexMetadataCache();
+		elasticsearchTemplate.setMetadataCache(metadataCache);
+		elasticsearchTemplate.deleteIndex(INDEX_NAME);
+		elasticsearchTemplate.deleteIndex(OTHER_INDEX_NAME);
+		elasticsearchTemplate.createIndex(INDEX_NAME);
+		elasticsearchTemplate.createIndex(OTHER_INDEX_NAME);
+	}
+
+	@After
+	public void after() {
+		elasticsearchTemplate.setMetadataCache(null);
+		elasticsearchTemplate.deleteIndex(INDEX_NAME);
+		elasticsearchTemplate.deleteIndex(OTHER_INDEX_NAME);
+	}
+
+	@Test
+	public void shouldOnlyReturnAliasesOfTheRequestedIndex() {
+		// given
+		elasticsearchTemplate.addAlias(aliasQuery(OTHER_INDEX_NAME));
+		// when
+		Set<String> aliases = elasticsearchTemplate.queryForAlias(INDEX_NAME);
+		// then
+		assertThat(aliases, is(empty()));
+		assertThat(elasticsearchTemplate.queryForAlias(OTHER_INDEX_NAME), contains(ALIAS_NAME));
+	}
+
+	@Test
+	public void shouldServeRepeatedSettingsFromCache() {
+		// given
+		Map settings = elasticsearchTemplate.getSetting(INDEX_NAME);
+		// when
+		Map cached = elasticsearchTemplate.getSetting(INDEX_NAME);
+		// then
+		assertThat(cached, is(settings));
+		assertThat(metadataCache.getStats().hitCount(), is(1L));
+	}
+
+	@Test
+	public void shouldEvictAliasesWhenAliasIsAdded() {
+		// given
+		assertThat(elasticsearchTemplate.queryForAlias(INDEX_NAME), is(empty()));
+		// when
+		elasticsearchTemplate.addAlias(aliasQuery(INDEX_NAME));
+		// then
+		assertThat(elasticsearchTemplate.queryForAlias(INDEX_NAME), contains(ALIAS_NAME));
+	}
+
+	@Test
+	public void shouldKeepStaleSettingsChangedByOtherClientsUntilEvicted() {
+		// given
+		elasticsearchTemplate.getSetting(INDEX_NAME);
+		client.admin().indices().prepareUpdateSettings(INDEX_NAME)
+				.setSettings(ImmutableSettings.settingsBuilder().put("index.refresh_interval", "7s")).execute().actionGet();
+		// when
+		Map stale = elasticsearchTemplate.getSetting(INDEX_NAME);
+		metadataCache.evict(INDEX_NAME);
+		Map fresh = elasticsearchTemplate.getSetting(INDEX_NAME);
+		// then
+		assertThat(stale.get("index.refresh_interval"), is(nullValue()));
+		assertThat((String) fresh.get("index.refresh_interval"), is("7s"));
+	}
+
+	@Test
+	public void shouldEvictMetadataWhenIndexIsDeleted() {
+		// given
+		elasticsearchTemplate.getSetting(INDEX_NAME);
+		elasticsearchTemplate.queryForAlias(INDEX_NAME);
+		// when
+		elasticsearchTemplate.deleteIndex(INDEX_NAME);
+		// then
+		assertThat(metadataCache.getSettings(INDEX_NAME), is(nullValue()));
+		assertThat(metadataCache.getAliases(INDEX_NAME), is(nullValue()));
+	}
+
+	@Test
+	public void shouldNotLetCallersModifyCachedSettings() {
+		// given
+		Map settings = elasticsearchTemplate.getSetting(INDEX_NAME);
+		// when
+		settings.clear();
+		// then
+		assertThat(elasticsearchTemplate.getSetting(INDEX_NAME).isEmpty(), is(false));
+	}
+
+	@Test
+	public void shouldNotLetCallersModifyCachedAliases() {
+		// given
+		Set<String> aliases = elasticsearchTemplate.queryForAlias(INDEX_NAME);
+		// when
+		aliases.add(ALIAS_NAME);
+		// then
+		assertThat(elasticsearchTemplate.queryForAlias(INDEX_NAME), not(hasItem(ALIAS_NAME)));
+	}
+
+	@Test
+	public void shouldNotLetCallersModifyCachedMappings() {
+		// given
+		elasticsearchTemplate.putMapping(INDEX_NAME, TYPE_NAME,
+				"{\"" + TYPE_NAME + "\":{\"properties\":{\"message\":{\"type\":\"string\"}}}}");
+		Map mapping = elasticsearchTemplate.getMapping(INDEX_NAME, TYPE_NAME);
+		// when
+		((Map) mapping.get("properties")).clear();
+		// then
+		assertThat(((Map) elasticsearchTemplate.getMapping(INDEX_NAME, TYPE_NAME).get("properties")).containsKey(
+				"message"), is(true));
+	}
+
+	@Test
+	public void shouldRefuseSettingsOfAnAliasPointingToSeveralIndices() {
+		// given
+		elasticsearchTemplate.addAlias(aliasQuery(INDEX_NAME));
+		elasticsearchTemplate.addAlias(aliasQuery(OTHER_INDEX_NAME));
+		// when
+		try {
+			elasticsearchTemplate.getSetting(ALIAS_NAME);
+			fail("expected the settings of an alias pointing to several indices to be refused");
+		} catch (ElasticsearchException e) {
+			// then
+			assertThat(e.getMessage(), containsString(INDEX_NAME));
+			assertThat(e.getMessage(), containsString(OTHER_INDEX_NAME));
+		}
+	}
+
+	@Test
+	public void shouldEvictSettingsReadThroughAnAliasWhenItsIndexChanges() {
+		// given
+		elasticsearchTemplate.addAlias(aliasQuery(INDEX_NAME));
+		assertThat(elasticsearchTemplate.getSetting(ALIAS_NAME).get("index.refresh_interval"), is(nullValue()));
+		// when
+		BulkLoadSession session = elasticsearchTemplate.startBulkLoad(INDEX_NAME);
+		// then
+		try {
+			assertThat((String) elasticsearchTemplate.getSetting(ALIAS_NAME).get("index.refresh_interval"), is("-1"));
+		} finally {
+			session.close();
+		}
+	}
+
+	private AliasQuery aliasQuery(String indexName) {
+		return new AliasBuilder().withIndexName(indexName).withAliasName(ALIAS_NAME).build();
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import static org.apache.commons.lang.RandomStringUtils.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.entities.NearCacheEntity;
+import org.springframework.data.elasticsearch.entities.RevalidatedNearCacheEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-test.xml")
+public class ElasticsearchTemplateNearCacheTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(NearCacheEntity.class);
+		elasticsearchTemplate.createIndex(NearCacheEntity.class);
+		elasticsearchTemplate.deleteIndex(RevalidatedNearCacheEntity.class);
+		elasticsearchTemplate.createIndex(RevalidatedNearCacheEntity.class);
+		elasticsearchTemplate.getNearCache().clear();
+	}
+
+	@Test
+	public void shouldServeRepeatedGetFromNearCache() {
+		// given
+		String documentId = randomNumeric(5);
+		index(documentId, new NearCacheEntity(documentId, "some message"));
+		long hitCount = hitCount(NearCacheEntity.class);
+		// when
+		NearCacheEntity first = elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		NearCacheEntity second = elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		// then
+		assertThat(first.getMessage(), is("some message"));
+		assertThat(second.getMessage(), is("some message"));
+		assertThat(second, is(not(sameInstance(first))));
+		assertThat(hitCount(NearCacheEntity.class), is(hitCount + 1));
+	}
+
+	@Test
+	public void shouldEvictCachedDocumentWhenIndexed() {
+		// given
+		String documentId = randomNumeric(5);
+		index(documentId, new NearCacheEntity(documentId, "some message"));
+		elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		// when
+		index(documentId, new NearCacheEntity(documentId, "updated message"));
+		NearCacheEntity entity = elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		// then
+		assertThat(entity.getMessage(), is("updated message"));
+	}
+
+	@Test
+	public void shouldEvictCachedDocumentWhenDeleted() {
+		// given
+		String documentId = randomNumeric(5);
+		index(documentId, new NearCacheEntity(documentId, "some message"));
+		elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		// when
+		elasticsearchTemplate.delete(NearCacheEntity.class, documentId);
+		NearCacheEntity entity = elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+		// then
+		assertThat(entity, is(nullValue()));
+	}
+
+	@Test
+	public void shouldEvictCachedDocumentReadThroughAnAliasWhenIndexed() {
+		// given
+		elasticsearchTemplate.reindex(NearCacheEntity.class);
+		try {
+			String documentId = randomNumeric(5);
+			index(documentId, new NearCacheEntity(documentId, "some message"));
+			elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+			// when
+			index(documentId, new NearCacheEntity(documentId, "updated message"));
+			NearCacheEntity entity = elasticsearchTemplate.queryForObject(getQuery(documentId), NearCacheEntity.class);
+			// then
+			assertThat(entity.getMessage(), is("updated message"));
+		} finally {
+			client.admin().indices().prepareDelete("test-index-near-cache-entity*").execute().actionGet();
+		}
+	}
+
+	@Test
+	public void shouldRevalidateCachedDocumentChangedOutsideOfTemplate() {
+		// given
+		String documentId = randomNumeric(5);
+		index(documentId, new RevalidatedNearCacheEntity(documentId, "some message"));
+		elasticsearchTemplate.queryForObject(getQuery(documentId), RevalidatedNearCacheEntity.class);
+		// when
+		client.prepareIndex("test-index-revalidated-near-cache-entity", "test-type", documentId)
+				.setSource("id", documentId, "message", "updated message").execute().actionGet();
+		RevalidatedNearCacheEntity entity = elasticsearchTemplate.queryForObject(getQuery(documentId),
+				RevalidatedNearCacheEntity.class);
+		// then
+		assertThat(entity.getMessage(), is("updated message"));
+	}
+
+	private long hitCount(Class<?> clazz) {
+		return elasticsearchTemplate.getNearCache().getStats(clazz).hitCount();
+	}
+
+	private void index(String documentId, Object entity) {
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId(documentId).withObject(entity).build());
+	}
+
+	private GetQuery getQuery(String documentId) {
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId(documentId);
+		return getQuery;
+	}
+}
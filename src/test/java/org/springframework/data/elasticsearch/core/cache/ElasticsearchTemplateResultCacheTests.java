@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.core.cache;
+
+import static org.apache.commons.lang.RandomStringUtils.*;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.AliasBuilder;
+import org.springframework.data.elasticsearch.core.query.AliasQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.entities.SampleEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-template-result-cache-test.xml")
+public class ElasticsearchTemplateResultCacheTests {
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+		elasticsearchTemplate.getResultCache().clear();
+	}
+
+	@Test
+	public void shouldServeIdenticalSearchFromCache() {
+		// given
+		index(randomNumeric(5));
+		long hitCount = hitCount();
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		// when
+		Page<SampleEntity> first = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		Page<SampleEntity> second = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		// then
+		assertThat(first.getTotalElements(), is(1L));
+		assertThat(second.getContent(), is(first.getContent()));
+		assertThat(hitCount(), is(hitCount + 1));
+	}
+
+	@Test
+	public void shouldNotShareCacheEntriesBetweenDifferentQueries() {
+		// given
+		index(randomNumeric(5));
+		long hitCount = hitCount();
+		// when
+		elasticsearchTemplate.queryForPage(new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(),
+				SampleEntity.class);
+		elasticsearchTemplate.queryForPage(new NativeSearchQueryBuilder().withQuery(termQuery("message", "other")).build(),
+				SampleEntity.class);
+		// then
+		assertThat(hitCount(), is(hitCount));
+		assertThat(elasticsearchTemplate.getResultCache().size(), is(2L));
+	}
+
+	@Test
+	public void shouldEvictCachedResultsWhenIndexIsWrittenTo() {
+		// given
+		index(randomNumeric(5));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		long hitCount = hitCount();
+		// when
+		index(randomNumeric(6));
+		Page<SampleEntity> page = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+		// then
+		assertThat(page.getTotalElements(), is(2L));
+		assertThat(hitCount(), is(hitCount));
+	}
+
+	@Test
+	public void shouldEvictCachedResultsReadThroughAnAliasWhenItsIndexIsWrittenTo() {
+		// given
+		AliasQuery aliasQuery = new AliasBuilder().withIndexName("test-index").withAliasName("test-alias").build();
+		elasticsearchTemplate.addAlias(aliasQuery);
+		try {
+			index(randomNumeric(5));
+			SearchQuery searchQuery = new NativeSearchQueryBuilder().withIndices("test-alias").withTypes("test-type")
+					.withQuery(matchAllQuery()).build();
+			elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+			long hitCount = hitCount();
+			// when
+			index(randomNumeric(6));
+			Page<SampleEntity> page = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+			// then
+			assertThat(page.getTotalElements(), is(2L));
+			assertThat(hitCount(), is(hitCount));
+		} finally {
+			elasticsearchTemplate.removeAlias(aliasQuery);
+		}
+	}
+
+	@Test
+	public void shouldEvictEmptyResultsReadThroughAnAliasResolvedByTheMetadataCache() {
+		// given
+		AliasQuery aliasQuery = new AliasBuilder().withIndexName("test-index").withAliasName("test-alias").build();
+		elasticsearchTemplate.addAlias(aliasQuery);
+		elasticsearchTemplate.setMetadataCache(new IndexMetadataCache());
+		try {
+			SearchQuery searchQuery = new NativeSearchQueryBuilder().withIndices("test-alias").withTypes("test-type")
+					.withQuery(matchAllQuery()).build();
+			elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+			long hitCount = hitCount();
+			// when
+			index(randomNumeric(5));
+			Page<SampleEntity> page = elasticsearchTemplate.queryForPage(searchQuery, SampleEntity.class);
+			// then
+			assertThat(page.getTotalElements(), is(1L));
+			assertThat(hitCount(), is(hitCount));
+		} finally {
+			elasticsearchTemplate.setMetadataCache(null);
+			elasticsearchTemplate.removeAlias(aliasQuery);
+		}
+	}
+
+	private long hitCount() {
+		return elasticsearchTemplate.getResultCache().getStats().hitCount();
+	}
+
+	private void index(String documentId) {
+		SampleEntity sampleEntity = SampleEntity.builder().id(documentId).message("some message")
+				.version(System.currentTimeMillis()).build();
+		IndexQuery indexQuery = new IndexQueryBuilder().withId(documentId).withObject(sampleEntity).build();
+		elasticsearchTemplate.index(indexQuery);
+		elasticsearchTemplate.refresh(SampleEntity.class, true);
+	}
+}
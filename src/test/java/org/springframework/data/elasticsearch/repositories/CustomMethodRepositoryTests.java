@@ -35,6 +35,8 @@ import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 import org.springframework.data.elasticsearch.entities.SampleEntity;
 import org.springframework.data.elasticsearch.repositories.custom.SampleCustomMethodRepository;
+import org.springframework.data.elasticsearch.repositories.custom.SampleEntityMessage;
+import org.springframework.data.elasticsearch.repositories.custom.SampleEntityTypeAndRate;
 import org.springframework.data.geo.Box;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
@@ -1193,6 +1195,41 @@ public class CustomMethodRepositoryTests {
 		assertThat(count, is(equalTo(1L)));
 	}
 
+	@Test
+	public void shouldReturnInterfaceProjectionOfCustomMethod() {
+		// given
+		String documentId = randomNumeric(5);
+		SampleEntity sampleEntity = new SampleEntity();
+		sampleEntity.setId(documentId);
+		sampleEntity.setType("test");
+		sampleEntity.setRate(42);
+		sampleEntity.setMessage("some message");
+		repository.save(sampleEntity);
+		// when
+		List<SampleEntityMessage> projections = repository.findByRate(42);
+		// then
+		assertThat(projections.size(), is(equalTo(1)));
+		assertThat(projections.get(0).getMessage(), is(equalTo("some message")));
+	}
+
+	@Test
+	public void shouldReturnDtoProjectionOfCustomMethod() {
+		// given
+		String documentId = randomNumeric(5);
+		SampleEntity sampleEntity = new SampleEntity();
+		sampleEntity.setId(documentId);
+		sampleEntity.setType("test");
+		sampleEntity.setRate(42);
+		sampleEntity.setMessage("some message");
+		repository.save(sampleEntity);
+		// when
+		List<SampleEntityTypeAndRate> projections = repository.findByRateGreaterThan(40);
+		// then
+		assertThat(projections.size(), is(equalTo(1)));
+		assertThat(projections.get(0).getType(), is(equalTo("test")));
+		assertThat(projections.get(0).getRate(), is(equalTo(42)));
+	}
+
 	private List<SampleEntity> createSampleEntities(String type, int numberOfEntities) {
 		List<SampleEntity> entities = new ArrayList<SampleEntity>();
 		for (int i = 0; i < numberOfEntities; i++) {
@@ -90,6 +90,10 @@ public interface SampleCustomMethodRepository extends ElasticsearchRepository<Sa
 
 	Stream<SampleEntity> findByType(String type);
 
+	List<SampleEntityMessage> findByRate(int rate);
+
+	List<SampleEntityTypeAndRate> findByRateGreaterThan(int rate);
+
 	long countByType(String type);
 
 	long countByTypeNot(String type);
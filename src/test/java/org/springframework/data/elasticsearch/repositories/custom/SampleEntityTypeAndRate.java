@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.repositories.custom;
+
+/**
+ * DTO projection of {@link org.springframework.data.elasticsearch.entities.SampleEntity}.
+ */
+public class SampleEntityTypeAndRate {
+
+	private final String type;
+	private final int rate;
+
+	public SampleEntityTypeAndRate(String type, int rate) {
+		this.type = type;
+		this.rate = rate;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public int getRate() {
+		return rate;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.elasticsearch.repositories.routing;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.ResultsExtractor;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.elasticsearch.entities.RoutingEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:routing-test.xml")
+public class RoutingEntityRepositoryTests {
+
+	private static final String INDEX_NAME = "test-index-routing";
+
+	@Autowired
+	private RoutingEntityRepository repository;
+
+	@Autowired
+	private ElasticsearchTemplate elasticsearchTemplate;
+
+	@Autowired
+	private Client client;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(RoutingEntity.class);
+		elasticsearchTemplate.createIndex(RoutingEntity.class);
+		elasticsearchTemplate.putMapping(RoutingEntity.class);
+		elasticsearchTemplate.refresh(RoutingEntity.class, true);
+	}
+
+	@Test
+	public void shouldRouteSavedEntityByItsRoutingProperty() {
+		// given
+		repository.save(new RoutingEntity("1", "tenant-a", "message"));
+		// when
+		SearchResponse response = client.prepareSearch(INDEX_NAME).addField("_routing").execute().actionGet();
+		// then
+		assertThat(response.getHits().getTotalHits(), is(1L));
+		assertThat(String.valueOf(response.getHits().getAt(0).field("_routing").getValue()), is("tenant-a"));
+	}
+
+	@Test
+	public void shouldFindAndDeleteEntityByIdAndRouting() {
+		// given
+		RoutingEntity entity = new RoutingEntity("1", "tenant-a", "message");
+		repository.save(entity);
+		// when
+		RoutingEntity found = repository.findOne("1", "tenant-a");
+		repository.delete(found);
+		// then
+		assertThat(found.getMessage(), is("message"));
+		assertThat(repository.findOne("1", "tenant-a"), is(nullValue()));
+		assertThat(repository.count(), is(0L));
+	}
+
+	@Test
+	public void shouldOnlySearchTheShardOfTheTenant() {
+		// given
+		repository.save(new RoutingEntity("1", "tenant-a", "message"));
+		// a document of tenant-a routed to another shard is out of reach of routed searches
+		String otherRouting = routingToAnotherShardThan("tenant-a");
+		elasticsearchTemplate.index(new IndexQueryBuilder().withId("2").withRouting(otherRouting)
+				.withObject(new RoutingEntity("2", "tenant-a", "misplaced")).build());
+		elasticsearchTemplate.refresh(RoutingEntity.class, true);
+		// when
+		List<RoutingEntity> entities = repository.findByTenant("tenant-a");
+		long count = repository.countByTenant("tenant-a");
+		// then
+		assertThat(entities.size(), is(1));
+		assertThat(entities.get(0).getMessage(), is("message"));
+		assertThat(count, is(1L));
+		assertThat(repository.count(), is(2L));
+	}
+
+	@Test
+	public void shouldSearchOneShardWithRoute() {
+		// given
+		repository.save(new RoutingEntity("1", "tenant-a", "message"));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withIndices(INDEX_NAME)
+				.withRoute("tenant-a").build();
+		// when
+		int totalShards = elasticsearchTemplate.query(searchQuery, new ResultsExtractor<Integer>() {
+			@Override
+			public Integer extract(SearchResponse response) {
+				return response.getTotalShards();
+			}
+		});
+		// then
+		assertThat(totalShards, is(1));
+	}
+
+	private String routingToAnotherShardThan(String routing) {
+		int shard = shardOf(routing);
+		for (int i = 0; ; i++) {
+			if (shardOf("other-" + i) != shard) {
+				return "other-" + i;
+			}
+		}
+	}
+
+	private int shardOf(String routing) {
+		return client.admin().cluster().prepareSearchShards(INDEX_NAME).setRouting(routing).execute().actionGet()
+				.getGroups()[0].getShardId();
+	}
+}
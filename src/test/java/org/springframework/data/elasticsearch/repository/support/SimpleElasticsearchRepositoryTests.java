@@ -22,6 +22,7 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.elasticsearch.common.collect.Lists;
@@ -32,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.BulkIndexResult;
 import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.SearchQuery;
@@ -256,6 +258,46 @@ public class SimpleElasticsearchRepositoryTests {
 		assertNotNull(entities);
 	}
 
+	@Test
+	public void shouldSaveIterableEntitiesThatAreNotACollection() {
+		// given
+		final List<SampleEntity> sampleEntities = new ArrayList<SampleEntity>();
+		for (int i = 0; i < 3; i++) {
+			SampleEntity sampleEntity = new SampleEntity();
+			sampleEntity.setId(randomNumeric(5) + i);
+			sampleEntity.setMessage("hello world.");
+			sampleEntities.add(sampleEntity);
+		}
+		Iterable<SampleEntity> iterable = new Iterable<SampleEntity>() {
+			@Override
+			public Iterator<SampleEntity> iterator() {
+				return sampleEntities.iterator();
+			}
+		};
+		// when
+		repository.save(iterable);
+		// then
+		assertThat(repository.count(), is(3L));
+	}
+
+	@Test
+	public void shouldIndexEntitiesFromIteratorInChunks() {
+		// given
+		List<SampleEntity> sampleEntities = new ArrayList<SampleEntity>();
+		for (int i = 0; i < 7; i++) {
+			SampleEntity sampleEntity = new SampleEntity();
+			sampleEntity.setId(String.valueOf(i));
+			sampleEntity.setMessage("hello world.");
+			sampleEntities.add(sampleEntity);
+		}
+		// when
+		BulkIndexResult result = repository.index(sampleEntities.iterator(), 3, 2);
+		// then
+		assertThat(result.getSuccessCount(), is(7L));
+		assertThat(result.getBulkCount(), is(3));
+		assertThat(repository.count(), is(7L));
+	}
+
 	@Test
 	public void shouldReturnTrueGivenDocumentWithIdExists() {
 		// given